@@ -0,0 +1,143 @@
+package com.example.complianceapi.benchmark;
+
+import com.example.complianceapi.config.ComplianceCollectorConfig;
+import com.example.complianceapi.config.PlatformConfig;
+import com.example.complianceapi.config.PlatformInstanceConfig;
+import com.example.complianceapi.dto.CollectRequest;
+import com.example.complianceapi.model.Evidence;
+import com.example.complianceapi.service.AwsPlatformHandler;
+import com.example.complianceapi.service.CircuitBreakers;
+import com.example.complianceapi.service.CollectionExecutor;
+import com.example.complianceapi.service.CollectionMetrics;
+import com.example.complianceapi.service.EvidenceCache;
+import com.example.complianceapi.service.GenericRuleBasedProvider;
+import com.example.complianceapi.service.KubernetesPlatformHandler;
+import com.example.complianceapi.service.PlatformHandler;
+import com.example.complianceapi.service.PlatformHandlerFactory;
+import com.example.complianceapi.service.RateGovernor;
+import com.example.complianceapi.service.RuleRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.services.kms.KmsClient;
+import software.amazon.awssdk.services.kms.model.GetKeyRotationStatusRequest;
+import software.amazon.awssdk.services.kms.model.GetKeyRotationStatusResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// End-to-end GenericRuleBasedProvider.collect for the KMS rotation rule against an in-process KMS client
+// that answers after a fixed latency. The evidence cache and rate limits are off, so every operation runs
+// the full path: routing, scheduling on the shared executor, request building, the call, extraction and
+// assessment. With latency, throughput is bounded by the instance's maxConcurrency.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CollectBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int identifiers;
+
+    @Param({"0", "1000"})
+    public long latencyMicros;
+
+    @Param({"16"})
+    public int maxConcurrency;
+
+    private CollectionExecutor executor;
+    private GenericRuleBasedProvider provider;
+    private PlatformInstanceConfig instance;
+    private CollectRequest request;
+
+    @Setup
+    public void setUp() {
+        instance = new PlatformInstanceConfig();
+        instance.setName("aws-benchmark");
+        instance.setProperties(Map.of("region", "us-east-1", "maxConcurrency", String.valueOf(maxConcurrency)));
+        PlatformConfig platforms = new PlatformConfig();
+        platforms.setInstances(Map.of("aws", List.of(instance)));
+        ComplianceCollectorConfig config = new ComplianceCollectorConfig();
+        config.setPlatforms(platforms);
+        config.getCache().setEnabled(false);
+        config.getRateLimits().setEnabled(false);
+
+        KmsClient kms = new StubKmsClient(TimeUnit.MICROSECONDS.toNanos(latencyMicros));
+        AwsPlatformHandler aws = new AwsPlatformHandler(config) {
+            @Override
+            public Object getClient(String service, PlatformInstanceConfig instanceConfig, String identifier) {
+                return kms;
+            }
+        };
+        List<PlatformHandler> handlers = List.of(aws, new KubernetesPlatformHandler());
+        PlatformHandlerFactory handlerFactory = new PlatformHandlerFactory(handlers, config);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        executor = new CollectionExecutor(config);
+        provider = new GenericRuleBasedProvider(new RuleRegistry(config.getRules(), handlerFactory), handlerFactory, executor,
+                new EvidenceCache(config, meterRegistry), new RateGovernor(config, meterRegistry),
+                new CircuitBreakers(config, meterRegistry), new CollectionMetrics(config, meterRegistry, handlers));
+
+        List<String> arns = new ArrayList<>(identifiers);
+        for (int i = 0; i < identifiers; i++) {
+            arns.add("arn:aws:kms:us-east-1:123456789012:key/" + new UUID(0, i));
+        }
+        request = new CollectRequest();
+        request.setApplicationId("benchmark");
+        request.setPlatformName(instance.getName());
+        request.setResourceArns(arns);
+        request.setRuleSetFields(List.of("aws-kms-key-rotation"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.destroy();
+    }
+
+    @Benchmark
+    public List<Evidence> collect() {
+        return provider.collect(request, instance);
+    }
+
+    private static final class StubKmsClient implements KmsClient {
+
+        private final long latencyNanos;
+
+        private StubKmsClient(long latencyNanos) {
+            this.latencyNanos = latencyNanos;
+        }
+
+        @Override
+        public GetKeyRotationStatusResponse getKeyRotationStatus(GetKeyRotationStatusRequest request) {
+            if (latencyNanos > 0) {
+                LockSupport.parkNanos(latencyNanos);
+            }
+            return GetKeyRotationStatusResponse.builder().keyRotationEnabled(request.keyId().hashCode() % 4 != 0).build();
+        }
+
+        @Override
+        public String serviceName() {
+            return SERVICE_NAME;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
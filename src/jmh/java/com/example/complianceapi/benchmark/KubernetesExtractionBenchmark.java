@@ -0,0 +1,119 @@
+package com.example.complianceapi.benchmark;
+
+import com.example.complianceapi.rules.Collection;
+import com.example.complianceapi.rules.Rule;
+import com.example.complianceapi.service.KubernetesRuleExecutionPlan;
+import com.jayway.jsonpath.JsonPath;
+import io.kubernetes.client.custom.IntOrString;
+import io.kubernetes.client.custom.Quantity;
+import io.kubernetes.client.openapi.JSON;
+import io.kubernetes.client.openapi.apis.AppsV1Api;
+import io.kubernetes.client.openapi.models.V1Container;
+import io.kubernetes.client.openapi.models.V1ContainerPort;
+import io.kubernetes.client.openapi.models.V1Deployment;
+import io.kubernetes.client.openapi.models.V1DeploymentSpec;
+import io.kubernetes.client.openapi.models.V1DeploymentStrategy;
+import io.kubernetes.client.openapi.models.V1LabelSelector;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1PodSpec;
+import io.kubernetes.client.openapi.models.V1PodTemplateSpec;
+import io.kubernetes.client.openapi.models.V1ResourceRequirements;
+import io.kubernetes.client.openapi.models.V1RollingUpdateDeployment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Compares extracting a field from a typed Kubernetes response through a string round trip
+// (serialize, then re-parse with JsonPath) with the accessors compiled into the rule plan.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KubernetesExtractionBenchmark {
+
+    private final JSON json = new JSON();
+    private final JsonPath replicasPath = JsonPath.compile("$.spec.replicas");
+
+    private V1Deployment deployment;
+    private KubernetesRuleExecutionPlan replicasPlan;
+    private KubernetesRuleExecutionPlan wholeObjectPlan;
+
+    @Setup
+    public void setUp() {
+        deployment = new V1Deployment()
+                .apiVersion("apps/v1")
+                .kind("Deployment")
+                .metadata(new V1ObjectMeta()
+                        .name("payments-api")
+                        .namespace("payments")
+                        .labels(Map.of("app", "payments-api", "tier", "backend"))
+                        .annotations(Map.of("deployment.kubernetes.io/revision", "42")))
+                .spec(new V1DeploymentSpec()
+                        .replicas(3)
+                        .selector(new V1LabelSelector().matchLabels(Map.of("app", "payments-api")))
+                        .strategy(new V1DeploymentStrategy()
+                                .type("RollingUpdate")
+                                .rollingUpdate(new V1RollingUpdateDeployment()
+                                        .maxSurge(new IntOrString("25%"))
+                                        .maxUnavailable(new IntOrString(0))))
+                        .template(new V1PodTemplateSpec()
+                                .metadata(new V1ObjectMeta().labels(Map.of("app", "payments-api")))
+                                .spec(new V1PodSpec()
+                                        .addContainersItem(new V1Container()
+                                                .name("api")
+                                                .image("registry.example.com/payments-api:1.8.2")
+                                                .addPortsItem(new V1ContainerPort().containerPort(8080))
+                                                .resources(new V1ResourceRequirements()
+                                                        .requests(Map.of("cpu", new Quantity("250m"), "memory", new Quantity("512Mi")))
+                                                        .limits(Map.of("cpu", new Quantity("1"), "memory", new Quantity("1Gi")))))
+                                        .addContainersItem(new V1Container()
+                                                .name("envoy")
+                                                .image("envoyproxy/envoy:v1.29.1")))));
+        replicasPlan = plan("spec.replicas");
+        wholeObjectPlan = plan(".");
+    }
+
+    @Benchmark
+    public Object stringRoundTripField() {
+        return replicasPath.read(json.serialize(deployment));
+    }
+
+    @Benchmark
+    public Object compiledField() {
+        return replicasPlan.extractData(deployment);
+    }
+
+    @Benchmark
+    public Object stringRoundTripWholeObject() {
+        return JsonPath.parse(json.serialize(deployment)).json();
+    }
+
+    @Benchmark
+    public Object compiledWholeObject() {
+        return wholeObjectPlan.extractData(deployment);
+    }
+
+    private static KubernetesRuleExecutionPlan plan(String responseField) {
+        Collection collection = new Collection();
+        collection.setApiCall("readNamespacedDeployment");
+        collection.setResponseField(responseField);
+        Rule rule = new Rule();
+        rule.setId("k8s-benchmark");
+        rule.setPlatform("kubernetes");
+        rule.setService("apps/v1");
+        rule.setCollection(collection);
+        return KubernetesRuleExecutionPlan.compile(rule, AppsV1Api.class);
+    }
+}
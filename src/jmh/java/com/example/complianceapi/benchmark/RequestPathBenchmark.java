@@ -0,0 +1,128 @@
+package com.example.complianceapi.benchmark;
+
+import com.example.complianceapi.config.ComplianceCollectorConfig;
+import com.example.complianceapi.service.AwsPlatformHandler;
+import com.example.complianceapi.service.KubernetesPlatformHandler;
+import com.example.complianceapi.service.PlatformHandlerFactory;
+import com.example.complianceapi.service.RuleExecutionPlan;
+import com.example.complianceapi.service.RuleIndex;
+import com.example.complianceapi.service.RuleSetLoader;
+import com.example.complianceapi.service.RuleSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.services.kms.model.GetKeyRotationStatusResponse;
+import software.amazon.awssdk.services.s3.model.GetBucketEncryptionResponse;
+import software.amazon.awssdk.services.s3.model.ServerSideEncryption;
+import software.amazon.awssdk.services.s3.model.ServerSideEncryptionByDefault;
+import software.amazon.awssdk.services.s3.model.ServerSideEncryptionConfiguration;
+import software.amazon.awssdk.services.s3.model.ServerSideEncryptionRule;
+import software.amazon.awssdk.services.secretsmanager.model.DescribeSecretResponse;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The per-identifier work around each upstream call, using the bundled rules: routing an identifier to its
+// service, building the SDK request (variable substitution, Kubernetes identifier parsing) and extracting
+// the collected value from an SDK response. Kubernetes extraction is covered by KubernetesExtractionBenchmark.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestPathBenchmark {
+
+    private static final String KEY_ARN = "arn:aws:kms:us-east-1:123456789012:key/1234abcd-12ab-34cd-56ef-1234567890ab";
+    private static final String BUCKET_ARN = "arn:aws:s3:::payments-audit-logs";
+    private static final String DEPLOYMENT_ID = "apps/v1/Deployment/payments/payments-api";
+
+    private final ComplianceCollectorConfig config = new ComplianceCollectorConfig();
+    private final AwsPlatformHandler awsHandler = new AwsPlatformHandler(config);
+    private final KubernetesPlatformHandler kubernetesHandler = new KubernetesPlatformHandler();
+
+    private RuleExecutionPlan keyRotation;
+    private RuleExecutionPlan secretMetadata;
+    private RuleExecutionPlan bucketEncryption;
+    private RuleExecutionPlan haTopology;
+    private GetKeyRotationStatusResponse keyRotationResponse;
+    private DescribeSecretResponse secretResponse;
+    private GetBucketEncryptionResponse bucketEncryptionResponse;
+
+    @Setup
+    public void setUp() {
+        PlatformHandlerFactory handlers = new PlatformHandlerFactory(List.of(awsHandler, kubernetesHandler), config);
+        RuleIndex index = RuleSnapshot.compile(new RuleSetLoader(null).load(), handlers).getIndex();
+        keyRotation = index.find("aws-kms-key-rotation");
+        secretMetadata = index.find("aws-secret-metadata");
+        bucketEncryption = index.find("aws-s3-bucket-encryption");
+        haTopology = index.find("k8s-ha-topology");
+
+        keyRotationResponse = GetKeyRotationStatusResponse.builder().keyRotationEnabled(true).build();
+        secretResponse = DescribeSecretResponse.builder()
+                .name("payments/db")
+                .arn("arn:aws:secretsmanager:us-east-1:123456789012:secret:payments/db-AbCdEf")
+                .rotationEnabled(true)
+                .lastChangedDate(Instant.parse("2026-01-15T10:00:00Z"))
+                .build();
+        bucketEncryptionResponse = GetBucketEncryptionResponse.builder()
+                .serverSideEncryptionConfiguration(ServerSideEncryptionConfiguration.builder()
+                        .rules(ServerSideEncryptionRule.builder()
+                                .applyServerSideEncryptionByDefault(ServerSideEncryptionByDefault.builder()
+                                        .sseAlgorithm(ServerSideEncryption.AES256)
+                                        .build())
+                                .build())
+                        .build())
+                .build();
+    }
+
+    @Benchmark
+    public String awsParseService() {
+        return awsHandler.parseServiceFromIdentifier(KEY_ARN);
+    }
+
+    @Benchmark
+    public String kubernetesParseService() {
+        return kubernetesHandler.parseServiceFromIdentifier(DEPLOYMENT_ID);
+    }
+
+    // Substitutes ${arn} into the request template.
+    @Benchmark
+    public Object awsBuildRequestArn() {
+        return keyRotation.buildRequest(KEY_ARN);
+    }
+
+    // Substitutes ${arn.resource}, which cuts the resource name out of the ARN.
+    @Benchmark
+    public Object awsBuildRequestArnResource() {
+        return bucketEncryption.buildRequest(BUCKET_ARN);
+    }
+
+    @Benchmark
+    public Object kubernetesBuildRequest() {
+        return haTopology.buildRequest(DEPLOYMENT_ID);
+    }
+
+    @Benchmark
+    public Object awsExtractField() {
+        return keyRotation.extractData(keyRotationResponse);
+    }
+
+    @Benchmark
+    public Object awsExtractFields() {
+        return secretMetadata.extractData(secretResponse);
+    }
+
+    @Benchmark
+    public Object awsExtractNestedPath() {
+        return bucketEncryption.extractData(bucketEncryptionResponse);
+    }
+}
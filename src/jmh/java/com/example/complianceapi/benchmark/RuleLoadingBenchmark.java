@@ -0,0 +1,60 @@
+package com.example.complianceapi.benchmark;
+
+import com.example.complianceapi.config.ComplianceCollectorConfig;
+import com.example.complianceapi.rules.Rule;
+import com.example.complianceapi.service.AwsPlatformHandler;
+import com.example.complianceapi.service.KubernetesPlatformHandler;
+import com.example.complianceapi.service.PlatformHandlerFactory;
+import com.example.complianceapi.service.RuleSetLoader;
+import com.example.complianceapi.service.RuleSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Startup and reload cost of the bundled rulesets: scanning, schema validation and parsing, then compiling
+// every rule against its platform SDK.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RuleLoadingBenchmark {
+
+    private PlatformHandlerFactory handlers;
+    private RuleSetLoader loader;
+    private List<Rule> rules;
+
+    @Setup
+    public void setUp() {
+        ComplianceCollectorConfig config = new ComplianceCollectorConfig();
+        handlers = new PlatformHandlerFactory(List.of(new AwsPlatformHandler(config), new KubernetesPlatformHandler()), config);
+        loader = new RuleSetLoader(null);
+        rules = loader.load();
+    }
+
+    @Benchmark
+    public List<Rule> load() {
+        return loader.load();
+    }
+
+    @Benchmark
+    public RuleSnapshot compile() {
+        return RuleSnapshot.compile(rules, handlers);
+    }
+
+    @Benchmark
+    public RuleSnapshot loadAndCompile() {
+        return RuleSnapshot.compile(loader.load(), handlers);
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.complianceapi.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// Stands in for the KMS, Secrets Manager, S3 and IAM endpoints of one account, for the calls aws-ruleset.yml
+// makes. The collector reaches it through the AWS instance's "endpoint" property. Requests are told apart by
+// protocol: JSON 1.1 (X-Amz-Target) for KMS and Secrets Manager, the query protocol (Action=) for IAM, and
+// REST-XML for S3. Any key, secret, bucket or user exists; the listing calls page through
+// <resources> secrets and users named secret-<n> and user-<n>.
+class AwsStandIn extends StandInServer {
+
+    static final String ACCOUNT_ID = "123456789012";
+    static final String REGION = "us-east-1";
+    private static final String JSON = "application/x-amz-json-1.1";
+    private static final String XML = "text/xml";
+    private static final String IAM_NAMESPACE = "https://iam.amazonaws.com/doc/2010-05-08/";
+    private static final int PAGE_SIZE = 100;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int resources;
+
+    AwsStandIn(Duration latency, Duration jitter, double throttleRate, int maxRate, int resources) throws IOException {
+        super("aws", latency, jitter, throttleRate, maxRate);
+        this.resources = resources;
+    }
+
+    static String secretArn(int n) {
+        return "arn:aws:secretsmanager:" + REGION + ":" + ACCOUNT_ID + ":secret:secret-" + n;
+    }
+
+    @Override
+    void respond(HttpExchange exchange) throws IOException {
+        String target = exchange.getRequestHeaders().getFirst("X-Amz-Target");
+        if (target != null) {
+            JsonNode request = objectMapper.readTree(body(exchange));
+            ObjectNode response = switch (target) {
+                case "TrentService.GetKeyRotationStatus" -> objectMapper.createObjectNode()
+                        .put("KeyRotationEnabled", Math.floorMod(request.path("KeyId").asText().hashCode(), 4) != 0);
+                case "secretsmanager.DescribeSecret" -> secret(request.path("SecretId").asText());
+                case "secretsmanager.ListSecrets" -> listSecrets(request.path("NextToken").asText(null));
+                default -> throw new IllegalArgumentException("Unsupported operation " + target);
+            };
+            send(exchange, 200, JSON, objectMapper.writeValueAsString(response));
+        } else if ("POST".equals(exchange.getRequestMethod())) {
+            iam(exchange, form(body(exchange)));
+        } else if (exchange.getRequestURI().getRawQuery() != null && exchange.getRequestURI().getRawQuery().startsWith("encryption")) {
+            send(exchange, 200, XML, "<ServerSideEncryptionConfiguration xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\"><Rule>"
+                    + "<ApplyServerSideEncryptionByDefault><SSEAlgorithm>AES256</SSEAlgorithm></ApplyServerSideEncryptionByDefault>"
+                    + "<BucketKeyEnabled>true</BucketKeyEnabled></Rule></ServerSideEncryptionConfiguration>");
+        } else {
+            throw new IllegalArgumentException("Unsupported request " + exchange.getRequestMethod() + " " + exchange.getRequestURI());
+        }
+    }
+
+    private ObjectNode secret(String arn) {
+        String name = arn.substring(arn.lastIndexOf(':') + 1);
+        return objectMapper.createObjectNode()
+                .put("ARN", arn)
+                .put("Name", name)
+                .put("RotationEnabled", Math.floorMod(name.hashCode(), 3) != 0)
+                .put("LastChangedDate", 1.7E9);
+    }
+
+    private ObjectNode listSecrets(String nextToken) {
+        int start = nextToken == null ? 0 : Integer.parseInt(nextToken);
+        int end = Math.min(resources, start + PAGE_SIZE);
+        ObjectNode response = objectMapper.createObjectNode();
+        ArrayNode secrets = response.putArray("SecretList");
+        for (int n = start; n < end; n++) {
+            secrets.add(secret(secretArn(n)));
+        }
+        if (end < resources) {
+            response.put("NextToken", String.valueOf(end));
+        }
+        return response;
+    }
+
+    private void iam(HttpExchange exchange, Map<String, String> form) throws IOException {
+        String action = form.get("Action");
+        String policies = "<member><PolicyName>ReadOnlyAccess</PolicyName><PolicyArn>arn:aws:iam::aws:policy/ReadOnlyAccess</PolicyArn></member>";
+        String result = switch (action) {
+            case "ListAttachedUserPolicies" -> "<AttachedPolicies>" + policies + "</AttachedPolicies><IsTruncated>false</IsTruncated>";
+            case "GetAccountAuthorizationDetails" -> {
+                int start = form.containsKey("Marker") ? Integer.parseInt(form.get("Marker")) : 0;
+                int end = Math.min(resources, start + PAGE_SIZE);
+                StringBuilder users = new StringBuilder("<UserDetailList>");
+                for (int n = start; n < end; n++) {
+                    users.append("<member><Path>/</Path><UserName>user-").append(n).append("</UserName><UserId>AIDA").append(n)
+                            .append("</UserId><Arn>arn:aws:iam::").append(ACCOUNT_ID).append(":user/user-").append(n)
+                            .append("</Arn><CreateDate>2024-01-01T00:00:00Z</CreateDate><AttachedManagedPolicies>").append(policies)
+                            .append("</AttachedManagedPolicies></member>");
+                }
+                users.append("</UserDetailList>");
+                yield users + (end < resources ? "<IsTruncated>true</IsTruncated><Marker>" + end + "</Marker>" : "<IsTruncated>false</IsTruncated>");
+            }
+            default -> throw new IllegalArgumentException("Unsupported IAM action " + action);
+        };
+        send(exchange, 200, XML, "<" + action + "Response xmlns=\"" + IAM_NAMESPACE + "\"><" + action + "Result>" + result + "</" + action
+                + "Result><ResponseMetadata><RequestId>standin</RequestId></ResponseMetadata></" + action + "Response>");
+    }
+
+    @Override
+    void throttle(HttpExchange exchange) throws IOException {
+        if (exchange.getRequestHeaders().containsKey("X-Amz-Target")) {
+            exchange.getResponseHeaders().set("x-amzn-ErrorType", "ThrottlingException");
+            send(exchange, 400, JSON, "{\"__type\":\"ThrottlingException\",\"message\":\"Rate exceeded\"}");
+        } else if ("POST".equals(exchange.getRequestMethod())) {
+            send(exchange, 400, XML, "<ErrorResponse xmlns=\"" + IAM_NAMESPACE + "\"><Error><Type>Sender</Type><Code>Throttling</Code>"
+                    + "<Message>Rate exceeded</Message></Error><RequestId>standin</RequestId></ErrorResponse>");
+        } else {
+            send(exchange, 503, XML, "<Error><Code>SlowDown</Code><Message>Please reduce your request rate.</Message></Error>");
+        }
+    }
+
+    private static Map<String, String> form(String body) {
+        Map<String, String> form = new HashMap<>();
+        for (String pair : body.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                form.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return form;
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.complianceapi.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Stands in for a Kubernetes API server holding the objects of the sample-app manifests. Reads answer
+// /api/v1/... and /apis/{group}/{version}/... paths; a name with a "-<n>" suffix (hello-world-app-42) is served
+// the manifest object it extends, so a load can address many distinct objects. Namespaced list calls page
+// through <resources> such copies with limit/continue.
+class KubernetesStandIn extends StandInServer {
+
+    private static final String JSON = "application/json";
+    private static final Pattern PATH = Pattern.compile(
+            "/(?:api/(?<core>v1)|apis/(?<group>[^/]+/[^/]+))(?:/namespaces/(?<namespace>[^/]+))?/(?<plural>[^/]+)(?:/(?<name>[^/]+))?");
+    private static final Pattern COPY = Pattern.compile("(.+)-(\\d+)");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // "apiVersion/plural/namespace/name" -> object; namespace is empty for cluster-scoped kinds.
+    private final Map<String, ObjectNode> objects = new HashMap<>();
+    private final int resources;
+
+    KubernetesStandIn(Path manifests, Duration latency, Duration jitter, double throttleRate, int maxRate, int resources) throws IOException {
+        super("kubernetes", latency, jitter, throttleRate, maxRate);
+        this.resources = resources;
+        YAMLMapper yamlMapper = new YAMLMapper();
+        try (Stream<Path> files = Files.list(manifests)) {
+            for (Path file : files.filter(f -> f.toString().endsWith(".yaml")).sorted().toList()) {
+                try (MappingIterator<JsonNode> documents = yamlMapper.readerFor(JsonNode.class).readValues(file.toFile())) {
+                    for (JsonNode document : documents.readAll()) {
+                        if (document instanceof ObjectNode object && object.hasNonNull("kind") && object.has("metadata")) {
+                            objects.put(key(object.path("apiVersion").asText(), pluralOf(object.path("kind").asText()),
+                                    object.path("metadata").path("namespace").asText(""), object.path("metadata").path("name").asText()), object);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // Identifiers of the objects the rules read, e.g. "apps/v1/Deployment/hello-world-app/hello-world-app".
+    List<String> identifiers(String... kinds) {
+        List<String> kindList = List.of(kinds);
+        return objects.values().stream()
+                .filter(object -> kindList.contains(object.path("kind").asText()))
+                .map(object -> object.path("apiVersion").asText() + "/" + object.path("kind").asText() + "/"
+                        + object.path("metadata").path("namespace").asText() + "/" + object.path("metadata").path("name").asText())
+                .sorted()
+                .toList();
+    }
+
+    @Override
+    void respond(HttpExchange exchange) throws IOException {
+        Matcher matcher = PATH.matcher(exchange.getRequestURI().getPath());
+        if (!"GET".equals(exchange.getRequestMethod()) || !matcher.matches()) {
+            status(exchange, 404, "NotFound", "the server could not find the requested resource");
+            return;
+        }
+        String apiVersion = matcher.group("core") != null ? matcher.group("core") : matcher.group("group");
+        String namespace = matcher.group("namespace") != null ? matcher.group("namespace") : "";
+        String plural = matcher.group("plural");
+        String name = matcher.group("name");
+        if (name == null) {
+            list(exchange, apiVersion, namespace, plural);
+            return;
+        }
+        ObjectNode object = find(apiVersion, plural, namespace, name);
+        if (object == null) {
+            status(exchange, 404, "NotFound", plural + " \"" + name + "\" not found");
+        } else {
+            send(exchange, 200, JSON, objectMapper.writeValueAsString(object));
+        }
+    }
+
+    private ObjectNode find(String apiVersion, String plural, String namespace, String name) {
+        ObjectNode object = objects.get(key(apiVersion, plural, namespace, name));
+        if (object != null) {
+            return object;
+        }
+        Matcher copy = COPY.matcher(name);
+        if (!copy.matches() || !objects.containsKey(key(apiVersion, plural, namespace, copy.group(1)))) {
+            return null;
+        }
+        ObjectNode renamed = objects.get(key(apiVersion, plural, namespace, copy.group(1))).deepCopy();
+        ((ObjectNode) renamed.get("metadata")).put("name", name);
+        return renamed;
+    }
+
+    // Each manifest object of the kind, copied <resources> times, in pages of "limit" with the offset as the
+    // continue token. Without a namespace the list spans every namespace.
+    private void list(HttpExchange exchange, String apiVersion, String namespace, String plural) throws IOException {
+        Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+        List<ObjectNode> bases = objects.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith(apiVersion + "/" + plural + "/" + (namespace.isEmpty() ? "" : namespace + "/")))
+                .sorted(Map.Entry.comparingByKey())
+                .map(Map.Entry::getValue)
+                .toList();
+        int total = bases.size() * resources;
+        int start = query.containsKey("continue") ? Integer.parseInt(query.get("continue")) : 0;
+        int end = query.containsKey("limit") ? Math.min(total, start + Integer.parseInt(query.get("limit"))) : total;
+
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("apiVersion", apiVersion);
+        response.put("kind", bases.isEmpty() ? "List" : bases.get(0).path("kind").asText() + "List");
+        ObjectNode metadata = response.putObject("metadata").put("resourceVersion", "1");
+        if (end < total) {
+            metadata.put("continue", String.valueOf(end));
+        }
+        ArrayNode items = response.putArray("items");
+        for (int i = start; i < end; i++) {
+            ObjectNode item = bases.get(i / resources).deepCopy();
+            ObjectNode itemMetadata = (ObjectNode) item.get("metadata");
+            itemMetadata.put("name", itemMetadata.path("name").asText() + "-" + (i % resources));
+            items.add(item);
+        }
+        send(exchange, 200, JSON, objectMapper.writeValueAsString(response));
+    }
+
+    @Override
+    void throttle(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Retry-After", "1");
+        status(exchange, 429, "TooManyRequests", "the server has received too many requests and has asked us to try again later");
+    }
+
+    private void status(HttpExchange exchange, int code, String reason, String message) throws IOException {
+        ObjectNode status = objectMapper.createObjectNode()
+                .put("kind", "Status")
+                .put("apiVersion", "v1")
+                .put("status", "Failure")
+                .put("message", message)
+                .put("reason", reason)
+                .put("code", code);
+        status.putObject("metadata");
+        send(exchange, code, JSON, objectMapper.writeValueAsString(status));
+    }
+
+    private static String key(String apiVersion, String plural, String namespace, String name) {
+        return apiVersion + "/" + plural + "/" + namespace + "/" + name;
+    }
+
+    private static String pluralOf(String kind) {
+        String lower = kind.toLowerCase(Locale.ROOT);
+        if (lower.endsWith("y")) {
+            return lower.substring(0, lower.length() - 1) + "ies";
+        }
+        return lower.endsWith("s") ? lower + "es" : lower + "s";
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery != null) {
+            for (String pair : rawQuery.split("&")) {
+                int separator = pair.indexOf('=');
+                if (separator > 0) {
+                    query.put(pair.substring(0, separator), URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return query;
+    }
+}
@@ -0,0 +1,419 @@
+package com.example.complianceapi.loadtest;
+
+import com.example.complianceapi.ComplianceApiApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+// Boots the collector against local stand-ins for AWS (KMS, Secrets Manager, S3, IAM) and a Kubernetes API
+// server, sends POST /api/v1/collect at a fixed rate and reports throughput, latency percentiles, errors, heap
+// and allocation. Requests are sent on schedule whether or not earlier ones have returned, and latency is
+// measured from the scheduled send time, so a stall shows up in the percentiles rather than lowering the rate.
+//
+// Arguments are key=value pairs, see DEFAULTS; arguments starting with "--" are passed to the application, e.g.
+// --compliance-collector.rate-limits.enabled=false. With baseline=<result.json> the run fails when throughput
+// drops or p99 grows by more than tolerance against that earlier result.
+public final class LoadDriver {
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("rate", "50");              // collect requests per second
+        DEFAULTS.put("duration", "60s");         // measured
+        DEFAULTS.put("warmup", "15s");           // sent at the same rate first, not measured
+        DEFAULTS.put("platform", "mixed");       // aws, kubernetes or mixed (alternating)
+        DEFAULTS.put("identifiers", "10");       // per request
+        DEFAULTS.put("resources", "1000");       // distinct objects per kind the identifiers are drawn from
+        DEFAULTS.put("refresh", "true");         // bypass the evidence cache
+        DEFAULTS.put("latency", "20ms");         // stand-in response time
+        DEFAULTS.put("jitter", "10ms");          // added uniformly on top of latency
+        DEFAULTS.put("throttle", "0");           // fraction of stand-in calls answered with a throttling error
+        DEFAULTS.put("serverRate", "0");         // stand-in calls per second before throttling (0: unlimited)
+        DEFAULTS.put("maxConcurrency", "16");    // per platform instance
+        DEFAULTS.put("timeout", "30s");          // per collect request
+        DEFAULTS.put("manifests", "sample-app/k8s-manifests");
+        DEFAULTS.put("out", "target/loadtest/result.json");
+        DEFAULTS.put("baseline", "");
+        DEFAULTS.put("tolerance", "0.2");
+        DEFAULTS.put("jfr", "true");             // record target/loadtest/collect.jfr with the profile settings
+    }
+
+    private static final String AWS_INSTANCE = "aws-loadtest";
+    private static final String KUBERNETES_INSTANCE = "k8s-loadtest";
+
+    private final Map<String, String> options;
+    private final List<String> applicationProperties;
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong inFlight = new AtomicLong();
+    private List<String> deployments;
+    private List<String> networkPolicies;
+
+    private LoadDriver(Map<String, String> options, List<String> applicationProperties) {
+        this.options = options;
+        this.applicationProperties = applicationProperties;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        List<String> applicationProperties = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                applicationProperties.add(arg);
+                continue;
+            }
+            int separator = arg.indexOf('=');
+            if (separator < 0 || !DEFAULTS.containsKey(arg.substring(0, separator))) {
+                throw new IllegalArgumentException("Expected key=value with a key of " + DEFAULTS.keySet() + ", got " + arg);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        System.exit(new LoadDriver(options, applicationProperties).run() ? 0 : 1);
+    }
+
+    private boolean run() throws Exception {
+        Duration latency = duration("latency");
+        Duration jitter = duration("jitter");
+        double throttle = Double.parseDouble(options.get("throttle"));
+        int serverRate = integer("serverRate");
+        int resources = integer("resources");
+        Path out = Path.of(options.get("out"));
+        Files.createDirectories(out.toAbsolutePath().getParent());
+
+        try (AwsStandIn aws = new AwsStandIn(latency, jitter, throttle, serverRate, resources);
+             KubernetesStandIn kubernetes = new KubernetesStandIn(Path.of(options.get("manifests")), latency, jitter, throttle, serverRate, resources)) {
+            deployments = kubernetes.identifiers("Deployment");
+            networkPolicies = kubernetes.identifiers("NetworkPolicy");
+            Path kubeconfig = writeKubeconfig(out.toAbsolutePath().getParent(), kubernetes.getEndpoint());
+            // Picked up by the default credentials chain; the stand-ins do not check signatures.
+            System.setProperty("aws.accessKeyId", "loadtest");
+            System.setProperty("aws.secretAccessKey", "loadtest");
+
+            try (ConfigurableApplicationContext context = SpringApplication.run(ComplianceApiApplication.class,
+                    applicationArgs(aws.getEndpoint(), kubeconfig))) {
+                URI collect = URI.create("http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port") + "/api/v1/collect");
+
+                System.out.printf("Warming up for %s at %s requests/s%n", options.get("warmup"), options.get("rate"));
+                drive(collect, duration("warmup"));
+                awaitInFlight();
+                latencies.clear();
+                errors.set(0);
+                long awsRequests = aws.getRequests();
+                long awsThrottled = aws.getThrottled();
+                long kubernetesRequests = kubernetes.getRequests();
+                long kubernetesThrottled = kubernetes.getThrottled();
+
+                System.out.printf("Measuring for %s%n", options.get("duration"));
+                Profile profile = Profile.start(Boolean.parseBoolean(options.get("jfr")) ? out.resolveSibling("collect.jfr") : null);
+                long started = System.nanoTime();
+                long sent = drive(collect, duration("duration"));
+                awaitInFlight();
+                long elapsed = System.nanoTime() - started;
+                Map<String, Object> profileResult = profile.stop();
+
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("options", options);
+                result.put("applicationProperties", applicationProperties);
+                result.putAll(latencyResult(sent, elapsed));
+                Map<String, Object> standIns = new LinkedHashMap<>();
+                standIns.put("aws", standInResult(aws.getRequests() - awsRequests, aws.getThrottled() - awsThrottled));
+                standIns.put("kubernetes", standInResult(kubernetes.getRequests() - kubernetesRequests,
+                        kubernetes.getThrottled() - kubernetesThrottled));
+                result.put("standIns", standIns);
+                result.put("profile", profileResult);
+                objectMapper.writeValue(out.toFile(), result);
+                System.out.println(objectMapper.writeValueAsString(result));
+                System.out.println("Result written to " + out);
+                return options.get("baseline").isEmpty() || compareWithBaseline(result);
+            }
+        }
+    }
+
+    // Command-line properties take precedence over application.yml, so the configured instances are replaced
+    // by the two stand-in instances.
+    private String[] applicationArgs(String awsEndpoint, Path kubeconfig) {
+        String aws = "--compliance-collector.platforms.instances.aws[0].";
+        String kubernetes = "--compliance-collector.platforms.instances.kubernetes[0].";
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                aws + "name=" + AWS_INSTANCE,
+                aws + "properties.region=" + AwsStandIn.REGION,
+                aws + "properties.accountId=" + AwsStandIn.ACCOUNT_ID,
+                aws + "properties.endpoint=" + awsEndpoint,
+                aws + "properties.maxConcurrency=" + options.get("maxConcurrency"),
+                kubernetes + "name=" + KUBERNETES_INSTANCE,
+                kubernetes + "properties.kubeconfig=" + kubeconfig,
+                kubernetes + "properties.context=loadtest",
+                kubernetes + "properties.maxConcurrency=" + options.get("maxConcurrency"),
+                "--logging.level.com.example.complianceapi.service.LoggingEvidenceSink=warn"));
+        args.addAll(applicationProperties);
+        return args.toArray(String[]::new);
+    }
+
+    private static Path writeKubeconfig(Path directory, String endpoint) throws Exception {
+        Path kubeconfig = directory.resolve("kubeconfig");
+        Files.writeString(kubeconfig, """
+                apiVersion: v1
+                kind: Config
+                clusters:
+                  - name: loadtest
+                    cluster:
+                      server: %s
+                contexts:
+                  - name: loadtest
+                    context:
+                      cluster: loadtest
+                      user: loadtest
+                current-context: loadtest
+                users:
+                  - name: loadtest
+                    user:
+                      token: loadtest
+                """.formatted(endpoint));
+        return kubeconfig;
+    }
+
+    // Sends at a fixed rate for the given time and returns the number of requests sent.
+    private long drive(URI collect, Duration duration) {
+        long period = TimeUnit.SECONDS.toNanos(1) / integer("rate");
+        long timeout = duration("timeout").toMillis();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long sent = 0;
+        for (long scheduled = start; scheduled < end; scheduled = start + ++sent * period) {
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long intended = scheduled;
+            HttpRequest request = HttpRequest.newBuilder(collect)
+                    .timeout(Duration.ofMillis(timeout))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body(sent)))
+                    .build();
+            inFlight.incrementAndGet();
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+                latencies.add(System.nanoTime() - intended);
+                if (failure != null || response.statusCode() != 200) {
+                    errors.incrementAndGet();
+                }
+                inFlight.decrementAndGet();
+            });
+        }
+        return sent;
+    }
+
+    private void awaitInFlight() {
+        long deadline = System.nanoTime() + duration("timeout").toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+
+    private String body(long sequence) {
+        String platform = options.get("platform");
+        boolean kubernetes = platform.equals("kubernetes") || (platform.equals("mixed") && sequence % 2 == 1);
+        List<String> identifiers = new ArrayList<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int resources = integer("resources");
+        for (int i = 0; i < integer("identifiers"); i++) {
+            int n = random.nextInt(resources);
+            identifiers.add(kubernetes ? kubernetesIdentifier(i, n) : awsIdentifier(i, n));
+        }
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("applicationId", "loadtest");
+        request.put("platformName", kubernetes ? KUBERNETES_INSTANCE : AWS_INSTANCE);
+        request.put("resourceArns", identifiers);
+        request.put("ruleSetFields", kubernetes
+                ? List.of("HA Topology", "Network Segmentation Evidence")
+                : List.of("Key Rotation Max", "Secrets Management", "S3 Bucket Encryption", "IAM User Policies"));
+        request.put("refresh", Boolean.parseBoolean(options.get("refresh")));
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to serialize collect request", e);
+        }
+    }
+
+    // One identifier per rule in turn, each naming the n-th object of that kind.
+    private static String awsIdentifier(int i, int n) {
+        String account = AwsStandIn.REGION + ":" + AwsStandIn.ACCOUNT_ID;
+        return switch (i % 4) {
+            case 0 -> "arn:aws:kms:" + account + ":key/" + new UUID(0, n);
+            case 1 -> AwsStandIn.secretArn(n);
+            case 2 -> "arn:aws:s3:::bucket-" + n;
+            default -> "arn:aws:iam::" + AwsStandIn.ACCOUNT_ID + ":user/user-" + n;
+        };
+    }
+
+    private String kubernetesIdentifier(int i, int n) {
+        List<String> kind = i % 2 == 0 || networkPolicies.isEmpty() ? deployments : networkPolicies;
+        return kind.get(i / 2 % kind.size()) + "-" + n;
+    }
+
+    private Map<String, Object> latencyResult(long sent, long elapsedNanos) {
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("requests", sent);
+        result.put("completed", sorted.length);
+        result.put("errors", errors.get());
+        result.put("throughput", Math.round((sorted.length - errors.get()) * 1e11 / elapsedNanos) / 100.0);
+        Map<String, Object> latencyMillis = new LinkedHashMap<>();
+        latencyMillis.put("p50", percentile(sorted, 0.50));
+        latencyMillis.put("p90", percentile(sorted, 0.90));
+        latencyMillis.put("p99", percentile(sorted, 0.99));
+        latencyMillis.put("max", percentile(sorted, 1.0));
+        result.put("latencyMillis", latencyMillis);
+        return result;
+    }
+
+    private static Map<String, Object> standInResult(long requests, long throttled) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("requests", requests);
+        result.put("throttled", throttled);
+        return result;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1);
+        return Math.round(sorted[Math.max(0, index)] / 10_000.0) / 100.0;
+    }
+
+    private boolean compareWithBaseline(Map<String, Object> result) throws Exception {
+        JsonNode baseline = objectMapper.readTree(Path.of(options.get("baseline")).toFile());
+        JsonNode current = objectMapper.valueToTree(result);
+        double tolerance = Double.parseDouble(options.get("tolerance"));
+        double throughput = current.path("throughput").asDouble();
+        double baselineThroughput = baseline.path("throughput").asDouble();
+        double p99 = current.path("latencyMillis").path("p99").asDouble();
+        double baselineP99 = baseline.path("latencyMillis").path("p99").asDouble();
+        boolean throughputOk = throughput >= baselineThroughput * (1 - tolerance);
+        boolean p99Ok = p99 <= baselineP99 * (1 + tolerance);
+        System.out.printf("Throughput %.2f/s against baseline %.2f/s: %s%n", throughput, baselineThroughput, throughputOk ? "ok" : "REGRESSED");
+        System.out.printf("p99 %.2f ms against baseline %.2f ms: %s%n", p99, baselineP99, p99Ok ? "ok" : "REGRESSED");
+        return throughputOk && p99Ok;
+    }
+
+    private Duration duration(String key) {
+        return DurationStyle.detectAndParse(options.get(key));
+    }
+
+    private int integer(String key) {
+        return Integer.parseInt(options.get(key));
+    }
+
+    // Heap and GC over the measured window, with allocation estimated from JFR's allocation samples. The stand-ins
+    // and the driver run in the same JVM, so the figures cover them too; compare runs rather than reading them
+    // as the collector's alone.
+    private static final class Profile {
+
+        private final Recording recording;
+        private final Path file;
+        private final long gcCount;
+        private final long gcMillis;
+
+        private Profile(Recording recording, Path file) {
+            this.recording = recording;
+            this.file = file;
+            this.gcCount = gcCount();
+            this.gcMillis = gcMillis();
+        }
+
+        static Profile start(Path file) throws Exception {
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                pool.resetPeakUsage();
+            }
+            Recording recording = null;
+            if (file != null) {
+                recording = new Recording(Configuration.getConfiguration("profile"));
+                recording.setToDisk(true);
+                recording.setDestination(file);
+                recording.start();
+            }
+            return new Profile(recording, file);
+        }
+
+        Map<String, Object> stop() throws Exception {
+            long peakHeap = ManagementFactory.getMemoryPoolMXBeans().stream()
+                    .filter(pool -> pool.getType() == MemoryType.HEAP)
+                    .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                    .sum();
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("gcCount", gcCount() - gcCount);
+            result.put("gcMillis", gcMillis() - gcMillis);
+            result.put("peakHeapMb", peakHeap >> 20);
+            System.gc();
+            result.put("heapAfterGcMb", ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() >> 20);
+            if (recording != null) {
+                recording.stop();
+                recording.close();
+                result.putAll(allocations(file));
+                result.put("jfr", file.toString());
+            }
+            return result;
+        }
+
+        private static Map<String, Object> allocations(Path file) throws Exception {
+            Map<String, Long> byClass = new HashMap<>();
+            long total = 0;
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                if (event.getEventType().getName().equals("jdk.ObjectAllocationSample")) {
+                    long weight = event.getLong("weight");
+                    total += weight;
+                    byClass.merge(event.getClass("objectClass").getName(), weight, Long::sum);
+                }
+            }
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("allocatedMb", total >> 20);
+            result.put("topAllocationsMb", byClass.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                    .limit(10)
+                    .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue() >> 20, (a, b) -> a, LinkedHashMap::new)));
+            return result;
+        }
+
+        private static long gcCount() {
+            return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+        }
+
+        private static long gcMillis() {
+            return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+        }
+    }
+}
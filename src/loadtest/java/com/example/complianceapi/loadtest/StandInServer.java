@@ -0,0 +1,121 @@
+package com.example.complianceapi.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// A local HTTP server that stands in for a cloud API. Every request waits latency plus up to jitter, then is
+// throttled with probability throttleRate, or when more than maxRate requests arrived within the current second
+// (0: no limit), and is otherwise answered by the subclass.
+abstract class StandInServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final long latencyNanos;
+    private final long jitterNanos;
+    private final double throttleRate;
+    private final int maxRate;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong windowStart = new AtomicLong();
+    private final AtomicLong windowRequests = new AtomicLong();
+
+    StandInServer(String name, Duration latency, Duration jitter, double throttleRate, int maxRate) throws IOException {
+        this.latencyNanos = latency.toNanos();
+        this.jitterNanos = jitter.toNanos();
+        this.throttleRate = throttleRate;
+        this.maxRate = maxRate;
+        // One thread per request in flight, so the stand-in's latency is never queueing behind its own threads.
+        this.executor = Executors.newCachedThreadPool(new CustomizableThreadFactory("standin-" + name + "-"));
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    String getEndpoint() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    long getRequests() {
+        return requests.get();
+    }
+
+    long getThrottled() {
+        return throttled.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            long delay = latencyNanos + (jitterNanos > 0 ? ThreadLocalRandom.current().nextLong(jitterNanos) : 0);
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            try {
+                if (shouldThrottle()) {
+                    throttled.incrementAndGet();
+                    throttle(exchange);
+                } else {
+                    respond(exchange);
+                }
+            } catch (RuntimeException e) {
+                send(exchange, 500, "text/plain", e.toString());
+            }
+        }
+    }
+
+    private boolean shouldThrottle() {
+        if (throttleRate > 0 && ThreadLocalRandom.current().nextDouble() < throttleRate) {
+            return true;
+        }
+        if (maxRate <= 0) {
+            return false;
+        }
+        long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        long start = windowStart.get();
+        if (start != second && windowStart.compareAndSet(start, second)) {
+            windowRequests.set(0);
+        }
+        return windowRequests.incrementAndGet() > maxRate;
+    }
+
+    // Answers the request as the real API would for a resource that exists.
+    abstract void respond(HttpExchange exchange) throws IOException;
+
+    // Answers with the API's own throttling error, which the collector's RateGovernor backs off on.
+    abstract void throttle(HttpExchange exchange) throws IOException;
+
+    static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    static String body(HttpExchange exchange) throws IOException {
+        return new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.complianceapi.config;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+// The HTTP client behind the non-blocking AWS clients of instances with "async: true". One client, with its
+// own connection pool and event loop, is shared by all async service clients of a region.
+@Data
+public class AsyncHttpConfig {
+    // Open connections per region; requests beyond it wait for a connection.
+    private int maxConcurrency = 200;
+    private int maxPendingConnectionAcquires = 10_000;
+    private Duration connectionAcquisitionTimeout = Duration.ofSeconds(30);
+    private Duration connectionTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(30);
+    private int eventLoopThreads = 2;
+}
@@ -0,0 +1,20 @@
+package com.example.complianceapi.config;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+// Pooling of AWS clients across instances and regions. Instances with a "roleArn" property collect with
+// credentials from sts:AssumeRole, which are cached and refreshed ahead of their expiry.
+@Data
+public class AwsClientConfig {
+    // Clients not used for this long are closed; the next call to their account and region builds a new one.
+    private Duration idleTimeout = Duration.ofMinutes(30);
+    private Duration evictionInterval = Duration.ofMinutes(1);
+    private String roleSessionName = "compliance-collector";
+    private Duration roleSessionDuration = Duration.ofHours(1);
+    // Credentials are refreshed once they are within prefetch-time of expiring, and callers wait for a
+    // refresh only within stale-time of it.
+    private Duration credentialsPrefetchTime = Duration.ofMinutes(5);
+    private Duration credentialsStaleTime = Duration.ofMinutes(1);
+}
@@ -0,0 +1,14 @@
+package com.example.complianceapi.config;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+@Data
+public class CacheConfig {
+    private boolean enabled = true;
+    // Least recently used entries are evicted beyond this size.
+    private int maxEntries = 50_000;
+    // Used for rules without collection.cacheTtl.
+    private Duration defaultTtl = Duration.ofMinutes(5);
+}
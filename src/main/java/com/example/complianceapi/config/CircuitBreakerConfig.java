@@ -0,0 +1,14 @@
+package com.example.complianceapi.config;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+@Data
+public class CircuitBreakerConfig {
+    private boolean enabled = true;
+    // Consecutive calls that find an instance unavailable (unreachable, 5xx, timed out) before its circuit opens.
+    private int failureThreshold = 5;
+    // How long an open circuit fails calls fast before a single probe call is let through.
+    private Duration openDuration = Duration.ofSeconds(30);
+}
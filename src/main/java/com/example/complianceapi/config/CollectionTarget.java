@@ -0,0 +1,20 @@
+package com.example.complianceapi.config;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.List;
+
+@Data
+public class CollectionTarget {
+    private String name;
+    private String applicationId;
+    private String platformName;
+    private List<String> resourceArns;
+    private List<String> ruleSetFields;
+    // Exactly one of cron (Spring cron syntax, e.g. "0 0 * * * *") or interval must be set.
+    private String cron;
+    private Duration interval;
+    // Each run starts after a random delay of up to this much, so targets sharing a schedule do not fire together.
+    private Duration jitter = Duration.ofSeconds(30);
+}
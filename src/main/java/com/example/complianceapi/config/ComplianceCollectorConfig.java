@@ -4,9 +4,31 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import lombok.Data;
 
+import java.util.List;
+import java.util.Optional;
+
 @Data
 @Configuration
 @ConfigurationProperties(prefix = "compliance-collector")
 public class ComplianceCollectorConfig {
     private PlatformConfig platforms;
+    private RulesConfig rules = new RulesConfig();
+    private ExecutionConfig execution = new ExecutionConfig();
+    private AwsClientConfig awsClients = new AwsClientConfig();
+    private AsyncHttpConfig asyncHttp = new AsyncHttpConfig();
+    private StorageConfig storage = new StorageConfig();
+    private JobConfig jobs = new JobConfig();
+    private CacheConfig cache = new CacheConfig();
+    private RateLimitConfig rateLimits = new RateLimitConfig();
+    private CircuitBreakerConfig circuitBreakers = new CircuitBreakerConfig();
+    private ScheduleConfig schedules = new ScheduleConfig();
+    private MetricsConfig metrics = new MetricsConfig();
+    private WarmupConfig warmup = new WarmupConfig();
+
+    public Optional<PlatformInstanceConfig> findInstance(String platformInstanceName) {
+        return platforms.getInstances().values().stream()
+                .flatMap(List::stream)
+                .filter(c -> c.getName().equals(platformInstanceName))
+                .findFirst();
+    }
 }
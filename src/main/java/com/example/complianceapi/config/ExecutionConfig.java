@@ -0,0 +1,17 @@
+package com.example.complianceapi.config;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+@Data
+public class ExecutionConfig {
+    // Used when an instance does not set "maxConcurrency" in its properties. Each instance runs its blocking
+    // rule executions on a pool with that many threads, and that many calls are in flight at most across
+    // all of its requests; "maxConcurrency.<service>" caps a service within it.
+    private int defaultInstanceConcurrency = 16;
+    // Upper bound for a whole collect request; unfinished rules come back as error evidence.
+    private Duration requestTimeout = Duration.ofMinutes(2);
+    // Items per list call when a selector identifier is swept, e.g. "apps/v1/Deployment/*/*".
+    private int selectorPageSize = 500;
+}
@@ -0,0 +1,17 @@
+package com.example.complianceapi.config;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+@Data
+public class JobConfig {
+    // Job metadata and chunk results are kept here, so unfinished jobs resume after a restart.
+    private String directory = "data/jobs";
+    // Chunks collected at the same time across all jobs.
+    private int workers = 2;
+    // Target number of ARN x rule executions per chunk.
+    private int chunkSize = 200;
+    // Finished jobs older than this are deleted at startup.
+    private Duration retention = Duration.ofDays(7);
+}
@@ -0,0 +1,14 @@
+package com.example.complianceapi.config;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+@Data
+public class MetricsConfig {
+    // The slowrules actuator endpoint reports rule latency over this sliding window.
+    private Duration slowRuleWindow = Duration.ofMinutes(5);
+    // The window advances in steps of slowRuleWindow / slowRuleBuckets.
+    private int slowRuleBuckets = 10;
+    private int slowRuleLimit = 10;
+}
@@ -0,0 +1,26 @@
+package com.example.complianceapi.config;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+@Data
+public class RateLimitConfig {
+    private boolean enabled = true;
+    // Calls per second for each (instance, service, apiCall). Calls are not paced until the API throttles them;
+    // from then on the rate adapts between minRate and maxRate. Instances can cap services with "maxRate" /
+    // "maxRate.<service>" properties, which also pace calls from the start.
+    private double minRate = 0.5;
+    private double maxRate = Double.POSITIVE_INFINITY;
+    // Calls that may be made back to back after an idle period.
+    private int burst = 5;
+    // Each success adds additiveIncrease / rate, i.e. about additiveIncrease calls/s per second at full speed.
+    private double additiveIncrease = 1;
+    // A throttling response multiplies the rate by this factor, at most once per decreaseCooldown.
+    private double decreaseFactor = 0.5;
+    private Duration decreaseCooldown = Duration.ofSeconds(1);
+    // Attempts per call, made by the governor only: the AWS clients' own retries are turned off while it is enabled.
+    private int maxAttempts = 4;
+    private Duration initialBackoff = Duration.ofMillis(200);
+    private Duration maxBackoff = Duration.ofSeconds(5);
+}
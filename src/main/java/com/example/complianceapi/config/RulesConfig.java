@@ -0,0 +1,15 @@
+package com.example.complianceapi.config;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+@Data
+public class RulesConfig {
+    // *-ruleset.yml files in this directory are loaded in addition to the ones on the classpath.
+    private String directory;
+    // Reload all rules when a ruleset file in the directory is created, changed or deleted.
+    private boolean watch = true;
+    // Changes arriving within this window are applied as one reload.
+    private Duration reloadDelay = Duration.ofMillis(500);
+}
@@ -0,0 +1,14 @@
+package com.example.complianceapi.config;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ScheduleConfig {
+    private boolean enabled = false;
+    // Threads that start scheduled runs; the collection itself runs on the pools of the platform instances.
+    private int threads = 2;
+    private List<CollectionTarget> targets = new ArrayList<>();
+}
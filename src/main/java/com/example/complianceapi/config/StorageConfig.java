@@ -0,0 +1,60 @@
+package com.example.complianceapi.config;
+
+import lombok.Data;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+public class StorageConfig {
+    // "log" writes evidence to the application log, "http" posts batches to http.url, "local" keeps it in the
+    // embedded segment store under local.directory, where it can be queried.
+    private String sink = "log";
+    // Evidence items buffered between the collect endpoint and the sink.
+    private int queueCapacity = 10_000;
+    // A batch is flushed once it holds batchSize items or flushInterval has passed since its first item.
+    private int batchSize = 200;
+    private Duration flushInterval = Duration.ofSeconds(1);
+    // Batches written to the sink at the same time; the queue backs up when all of them are busy.
+    private int flushThreads = 2;
+    private int maxAttempts = 5;
+    private Duration initialBackoff = Duration.ofMillis(200);
+    private Duration maxBackoff = Duration.ofSeconds(10);
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+    // How long BLOCK waits for queue space before the request is rejected.
+    private Duration offerTimeout = Duration.ofSeconds(5);
+    // How long shutdown waits for queued evidence to be flushed.
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+    private Http http = new Http();
+    private Local local = new Local();
+
+    public enum OverflowPolicy {
+        // Wait up to offerTimeout for space, then reject.
+        BLOCK,
+        // Discard evidence that does not fit and count it.
+        DROP,
+        // Fail the collect request immediately.
+        REJECT
+    }
+
+    @Data
+    public static class Http {
+        private String url;
+        private Duration timeout = Duration.ofSeconds(10);
+        private Map<String, String> headers = new HashMap<>();
+    }
+
+    @Data
+    public static class Local {
+        private String directory = "data/evidence";
+        // The active segment is sealed and a new one started once it reaches this size.
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+        // History older than this is compacted away; the latest evidence per application, rule and resource is kept.
+        private Duration retention = Duration.ofDays(90);
+        private Duration compactionInterval = Duration.ofHours(1);
+        // Most versions one history query returns; larger limits are capped to it.
+        private int maxHistoryLimit = 1000;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.complianceapi.config;
+
+import com.example.complianceapi.service.EvidenceSink;
+import com.example.complianceapi.service.HttpEvidenceSink;
+import com.example.complianceapi.service.LoggingEvidenceSink;
+import com.example.complianceapi.service.SegmentEvidenceStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestClient;
+
+@Configuration
+public class StorageConfiguration {
+
+    // Declaring another EvidenceSink bean replaces the configured one.
+    @Bean
+    @ConditionalOnMissingBean(EvidenceSink.class)
+    public EvidenceSink evidenceSink(ComplianceCollectorConfig config, RestClient.Builder restClientBuilder, ObjectMapper objectMapper) {
+        StorageConfig storage = config.getStorage();
+        return switch (storage.getSink()) {
+            case "log" -> new LoggingEvidenceSink();
+            case "http" -> new HttpEvidenceSink(restClientBuilder, storage.getHttp());
+            case "local" -> new SegmentEvidenceStore(storage.getLocal(), objectMapper);
+            default -> throw new IllegalArgumentException("Unknown evidence sink: " + storage.getSink());
+        };
+    }
+}
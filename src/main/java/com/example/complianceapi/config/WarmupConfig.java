@@ -0,0 +1,12 @@
+package com.example.complianceapi.config;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+@Data
+public class WarmupConfig {
+    private boolean enabled = true;
+    // Readiness waits at most this long; instances still warming up then build their clients on first use.
+    private Duration timeout = Duration.ofSeconds(30);
+}
@@ -3,47 +3,116 @@ package com.example.complianceapi.controller;
 import com.example.complianceapi.config.ComplianceCollectorConfig;
 import com.example.complianceapi.config.PlatformInstanceConfig;
 import com.example.complianceapi.dto.CollectRequest;
+import com.example.complianceapi.model.ComplianceStatus;
 import com.example.complianceapi.model.Evidence;
 import com.example.complianceapi.service.EvidenceProvider;
 import com.example.complianceapi.service.EvidenceStorageClient;
+import com.example.complianceapi.service.FanOutCollector;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/api/v1")
 public class EvidenceController {
 
     private final EvidenceProvider evidenceProvider;
+    private final FanOutCollector fanOutCollector;
     private final ComplianceCollectorConfig complianceCollectorConfig;
     private final EvidenceStorageClient evidenceStorageClient;
+    private final ObjectMapper objectMapper;
 
     public EvidenceController(EvidenceProvider evidenceProvider,
+                              FanOutCollector fanOutCollector,
                               ComplianceCollectorConfig complianceCollectorConfig,
-                              EvidenceStorageClient evidenceStorageClient) {
+                              EvidenceStorageClient evidenceStorageClient,
+                              ObjectMapper objectMapper) {
         this.evidenceProvider = evidenceProvider;
+        this.fanOutCollector = fanOutCollector;
         this.complianceCollectorConfig = complianceCollectorConfig;
         this.evidenceStorageClient = evidenceStorageClient;
+        this.objectMapper = objectMapper;
     }
 
+    // Without a platformName the request is routed over platformNames, or over every instance, in parallel.
     @PostMapping("/collect")
     public List<Evidence> collectEvidence(@RequestBody CollectRequest request) {
-        PlatformInstanceConfig instanceConfig = findInstanceConfig(request.getPlatformName())
-                .orElseThrow(() -> new IllegalArgumentException("Configuration not found for instance: " + request.getPlatformName()));
-
-        List<Evidence> collectedEvidence = evidenceProvider.collect(request, instanceConfig);
+        List<Evidence> collectedEvidence = StringUtils.hasText(request.getPlatformName())
+                ? evidenceProvider.collect(request, instanceConfig(request))
+                : fanOutCollector.collect(request);
         evidenceStorageClient.storeEvidence(collectedEvidence);
         return collectedEvidence;
     }
 
-    private Optional<PlatformInstanceConfig> findInstanceConfig(String platformInstanceName) {
-        return complianceCollectorConfig.getPlatforms().getInstances().values().stream()
-                .flatMap(List::stream)
-                .filter(c -> c.getName().equals(platformInstanceName))
-                .findFirst();
+    // Writes one JSON document per line as each rule completes. Writes block on a slow client, which in turn
+    // holds back further collection for the request. Evidence is stored in batches without waiting for queue
+    // space: the response is already under way, so storage neither stalls it nor aborts it. Items that did not
+    // fit are reported in a final error record.
+    @PostMapping(path = {"/collect", "/collect/stream"}, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamEvidence(@RequestBody CollectRequest request) {
+        PlatformInstanceConfig instanceConfig = StringUtils.hasText(request.getPlatformName()) ? instanceConfig(request) : null;
+        int batchSize = complianceCollectorConfig.getStorage().getBatchSize();
+
+        StreamingResponseBody body = outputStream -> {
+            // One generator per response serializes each item straight into the response buffer.
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                List<Evidence> unstored = new ArrayList<>(batchSize);
+                int[] notStored = {0};
+                Consumer<Evidence> consumer = evidence -> {
+                    write(generator, evidence);
+                    unstored.add(evidence);
+                    if (unstored.size() >= batchSize) {
+                        notStored[0] += evidenceStorageClient.offerEvidence(unstored);
+                        unstored.clear();
+                    }
+                };
+                try {
+                    if (instanceConfig != null) {
+                        evidenceProvider.collect(request, instanceConfig, consumer);
+                    } else {
+                        fanOutCollector.collect(request, consumer);
+                    }
+                } finally {
+                    notStored[0] += evidenceStorageClient.offerEvidence(unstored);
+                }
+                if (notStored[0] > 0) {
+                    write(generator, new Evidence(request.getApplicationId(), "Security", null, null, "Evidence storage", null,
+                            Map.of("error", "Evidence queue is full, " + notStored[0] + " evidence items of this response were not stored"),
+                            ComplianceStatus.ERROR));
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void write(JsonGenerator generator, Evidence evidence) {
+        try {
+            objectMapper.writeValue(generator, evidence);
+            generator.writeRaw('\n');
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to stream evidence to the client", e);
+        }
+    }
+
+    private PlatformInstanceConfig instanceConfig(CollectRequest request) {
+        return complianceCollectorConfig.findInstance(request.getPlatformName())
+                .orElseThrow(() -> new IllegalArgumentException("Configuration not found for instance: " + request.getPlatformName()));
     }
 }
@@ -0,0 +1,40 @@
+package com.example.complianceapi.controller;
+
+import com.example.complianceapi.config.ComplianceCollectorConfig;
+import com.example.complianceapi.dto.InstanceStatus;
+import com.example.complianceapi.service.CircuitBreakers;
+import com.example.complianceapi.service.CollectionExecutor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// GET /actuator/instances: circuit breaker state and bulkhead usage of every configured platform instance.
+@Component
+@Endpoint(id = "instances")
+public class InstancesEndpoint {
+
+    private final ComplianceCollectorConfig config;
+    private final CircuitBreakers circuitBreakers;
+    private final CollectionExecutor collectionExecutor;
+
+    public InstancesEndpoint(ComplianceCollectorConfig config, CircuitBreakers circuitBreakers, CollectionExecutor collectionExecutor) {
+        this.config = config;
+        this.circuitBreakers = circuitBreakers;
+        this.collectionExecutor = collectionExecutor;
+    }
+
+    @ReadOperation
+    public List<InstanceStatus> instances() {
+        List<InstanceStatus> statuses = new ArrayList<>();
+        config.getPlatforms().getInstances().values().forEach(instances -> instances.forEach(instance -> {
+            InstanceStatus status = circuitBreakers.status(instance.getName());
+            status.setActiveThreads(collectionExecutor.getActiveThreads(instance.getName()));
+            status.setQueuedTasks(collectionExecutor.getQueuedTasks(instance.getName()));
+            statuses.add(status);
+        }));
+        return statuses;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.complianceapi.controller;
+
+import com.example.complianceapi.dto.CollectRequest;
+import com.example.complianceapi.model.CollectionJob;
+import com.example.complianceapi.model.Evidence;
+import com.example.complianceapi.service.CollectionJobService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/jobs")
+public class JobController {
+
+    private final CollectionJobService collectionJobService;
+
+    public JobController(CollectionJobService collectionJobService) {
+        this.collectionJobService = collectionJobService;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public CollectionJob submitJob(@RequestBody CollectRequest request) {
+        return collectionJobService.submit(request);
+    }
+
+    @GetMapping("/{jobId}")
+    public CollectionJob getJob(@PathVariable String jobId) {
+        return findJob(jobId);
+    }
+
+    // Returns the evidence of every chunk finished so far; complete once the job state is COMPLETED.
+    @GetMapping("/{jobId}/results")
+    public List<Evidence> getResults(@PathVariable String jobId) {
+        return collectionJobService.getResults(findJob(jobId));
+    }
+
+    private CollectionJob findJob(String jobId) {
+        return collectionJobService.getJob(jobId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Job not found: " + jobId));
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.complianceapi.controller;
+
+import com.example.complianceapi.dto.SlowRule;
+import com.example.complianceapi.service.CollectionMetrics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// GET /actuator/slowrules: the rules with the highest mean execution time over metrics.slow-rule-window.
+@Component
+@Endpoint(id = "slowrules")
+public class SlowRulesEndpoint {
+
+    private final CollectionMetrics metrics;
+
+    public SlowRulesEndpoint(CollectionMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @ReadOperation
+    public List<SlowRule> slowRules() {
+        return metrics.slowestRules();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.complianceapi.controller;
+
+import com.example.complianceapi.config.ComplianceCollectorConfig;
+import com.example.complianceapi.dto.StoredEvidence;
+import com.example.complianceapi.service.EvidenceSink;
+import com.example.complianceapi.service.SegmentEvidenceStore;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.List;
+
+// Answers from the local evidence store without calling any platform; only available with storage.sink: local.
+@RestController
+@RequestMapping("/api/v1/evidence")
+public class StoredEvidenceController {
+
+    private final SegmentEvidenceStore store;
+    private final int maxHistoryLimit;
+
+    public StoredEvidenceController(EvidenceSink evidenceSink, ComplianceCollectorConfig config) {
+        this.store = evidenceSink instanceof SegmentEvidenceStore segmentStore ? segmentStore : null;
+        this.maxHistoryLimit = config.getStorage().getLocal().getMaxHistoryLimit();
+    }
+
+    // The latest evidence per application, rule and resource matching the given filters.
+    @GetMapping("/latest")
+    public List<StoredEvidence> latest(@RequestParam(required = false) String applicationId,
+                                       @RequestParam(required = false) String ruleSetField,
+                                       @RequestParam(required = false) String resourceId) {
+        if (applicationId == null && ruleSetField == null && resourceId == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one of applicationId, ruleSetField or resourceId is required");
+        }
+        return store().latest(applicationId, ruleSetField, resourceId);
+    }
+
+    // Every stored version of a resource's evidence, newest first, up to storage.local.max-history-limit.
+    @GetMapping("/history")
+    public List<StoredEvidence> history(@RequestParam String resourceId,
+                                        @RequestParam(required = false) String ruleSetField,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
+                                        @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be at least 1");
+        }
+        return store().history(resourceId, ruleSetField, since, Math.min(limit, maxHistoryLimit));
+    }
+
+    private SegmentEvidenceStore store() {
+        if (store == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No local evidence store; set compliance-collector.storage.sink to local");
+        }
+        return store;
+    }
+}
@@ -7,6 +7,11 @@ import java.util.List;
 public class CollectRequest {
     private String applicationId;
     private String platformName;
+    // Without a platformName the identifiers are routed to these instances (or to every instance when empty)
+    // and collected from all of them in parallel.
+    private List<String> platformNames;
     private List<String> resourceArns;
     private List<String> ruleSetFields;
+    // Bypasses the evidence cache and re-reads every resource.
+    private boolean refresh;
 }
@@ -0,0 +1,18 @@
+package com.example.complianceapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InstanceStatus {
+    private String instance;
+    private String circuitState;
+    private int consecutiveFailures;
+    private long msUntilProbe;
+    // The instance's bulkhead: rule-exec threads busy and tasks waiting for one.
+    private int activeThreads;
+    private int queuedTasks;
+}
@@ -0,0 +1,20 @@
+package com.example.complianceapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlowRule {
+    private String ruleId;
+    private String ruleName;
+    private String platform;
+    private String service;
+    private String apiCall;
+    private long executions;
+    private long errors;
+    private double meanMillis;
+    private double maxMillis;
+}
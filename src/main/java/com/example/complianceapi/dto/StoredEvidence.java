@@ -0,0 +1,19 @@
+package com.example.complianceapi.dto;
+
+import com.example.complianceapi.model.Evidence;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Evidence as read back from the local evidence store, with the time its batch was stored.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredEvidence {
+    private Instant storedAt;
+    @JsonUnwrapped
+    private Evidence evidence;
+}
@@ -0,0 +1,22 @@
+package com.example.complianceapi.model;
+
+import com.example.complianceapi.dto.CollectRequest;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+public class CollectionJob {
+
+    private String id;
+    private CollectRequest request;
+    private JobState state;
+    // Fixed at submission so a resumed job is split into the same chunks.
+    private int arnsPerChunk;
+    private int totalChunks;
+    private int completedChunks;
+    private long evidenceCount;
+    private String error;
+    private Instant createdAt;
+    private Instant updatedAt;
+}
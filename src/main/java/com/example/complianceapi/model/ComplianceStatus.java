@@ -0,0 +1,10 @@
+package com.example.complianceapi.model;
+
+public enum ComplianceStatus {
+    COMPLIANT,
+    NON_COMPLIANT,
+    // The rule has no assessment; only the collected data is reported.
+    NOT_ASSESSED,
+    // Collection failed, so there is nothing to assess.
+    ERROR
+}
@@ -1,18 +1,62 @@
 package com.example.complianceapi.model;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
-import lombok.NoArgsConstructor;
-import lombok.AllArgsConstructor;
 
+// Serialized with the metadata of its EvidenceSource inlined, so the JSON form is one flat object.
 @Data
-@NoArgsConstructor
-@AllArgsConstructor
 public class Evidence {
 
-    private String applicationId;
-    private String mainCategory;
-    private String ruleSetField;
-    private String platform;
-    private String dataSource;
+    private final EvidenceSource source;
+    // The ARN or Kubernetes identifier the evidence was collected for.
+    private final String resourceId;
     private Object collectedData;
+    private ComplianceStatus complianceStatus;
+
+    public Evidence(EvidenceSource source, String resourceId, Object collectedData, ComplianceStatus complianceStatus) {
+        this.source = source;
+        this.resourceId = resourceId;
+        this.collectedData = collectedData;
+        this.complianceStatus = complianceStatus;
+    }
+
+    @JsonCreator
+    public Evidence(@JsonProperty("applicationId") String applicationId,
+                    @JsonProperty("mainCategory") String mainCategory,
+                    @JsonProperty("ruleSetField") String ruleSetField,
+                    @JsonProperty("platform") String platform,
+                    @JsonProperty("dataSource") String dataSource,
+                    @JsonProperty("resourceId") String resourceId,
+                    @JsonProperty("collectedData") Object collectedData,
+                    @JsonProperty("complianceStatus") ComplianceStatus complianceStatus) {
+        this(new EvidenceSource(applicationId, mainCategory, ruleSetField, platform, dataSource), resourceId, collectedData, complianceStatus);
+    }
+
+    public String getApplicationId() {
+        return source.getApplicationId();
+    }
+
+    public String getMainCategory() {
+        return source.getMainCategory();
+    }
+
+    public String getRuleSetField() {
+        return source.getRuleSetField();
+    }
+
+    public String getPlatform() {
+        return source.getPlatform();
+    }
+
+    public String getDataSource() {
+        return source.getDataSource();
+    }
+
+    // Inlined through the getters above.
+    @JsonIgnore
+    public EvidenceSource getSource() {
+        return source;
+    }
 }
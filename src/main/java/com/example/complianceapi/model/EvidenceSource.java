@@ -0,0 +1,14 @@
+package com.example.complianceapi.model;
+
+import lombok.Value;
+
+// The part of an evidence item that is the same for every resource a rule is collected for in one request.
+// Evidence items reference one shared instance instead of carrying their own copies of these strings.
+@Value
+public class EvidenceSource {
+    String applicationId;
+    String mainCategory;
+    String ruleSetField;
+    String platform;
+    String dataSource;
+}
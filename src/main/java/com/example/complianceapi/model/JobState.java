@@ -0,0 +1,8 @@
+package com.example.complianceapi.model;
+
+public enum JobState {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,27 @@
+package com.example.complianceapi.rules;
+
+import lombok.Data;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class BatchCollection {
+    // Paginated list/describe call that returns many resources at once (e.g. 'listSecrets').
+    private String apiCall;
+    private Map<String, String> parameters;
+    // List member of the response holding the resources (e.g. 'secretList').
+    private String itemsField;
+    // Member of each item matched against the identifier key (e.g. 'arn').
+    private String keyField;
+    // Key derived from each requested identifier, using the same variables as parameters.
+    private String key = "${arn}";
+    // Request member carrying the page token, and the response member it is read from (defaults to pageToken).
+    private String pageToken = "nextToken";
+    private String nextPageToken;
+    // Fields extracted from each item; default to the collection's responseField / responseFields.
+    private String responseField;
+    private List<String> responseFields;
+    // Fewer identifiers than this are collected one call at a time. Once an instance has been swept, a request
+    // also needs more identifiers than that sweep took pages.
+    private int minIdentifiers = 50;
+}
@@ -10,4 +10,7 @@ public class Collection {
     private Map<String, String> parameters;
     private String responseField;
     private List<String> responseFields;
+    private BatchCollection batch;
+    // How long collected data is reused for the same instance and identifier, e.g. "10m"; "0s" disables caching.
+    private String cacheTtl;
 }
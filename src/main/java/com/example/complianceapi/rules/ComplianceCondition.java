@@ -9,4 +9,8 @@ public class ComplianceCondition {
     private String contains;
     private Boolean isTrue;
     private Boolean isFalse;
+    private Double greaterThan;
+    private Double greaterThanOrEquals;
+    private Double lessThan;
+    private Double lessThanOrEquals;
 }
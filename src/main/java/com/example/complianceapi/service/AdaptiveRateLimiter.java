@@ -0,0 +1,95 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.config.RateLimitConfig;
+
+import java.util.concurrent.TimeUnit;
+
+// Token bucket whose refill rate follows AIMD: successes raise it additively, throttling responses cut it
+// multiplicatively. Callers reserve a token under the lock and sleep outside it, so waiting callers queue
+// up in arrival order without holding the monitor. Without a maxRate the bucket does not pace calls until
+// the first throttling response, which starts it at a fraction of the rate calls were being made at.
+class AdaptiveRateLimiter {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    // The shortest window the rate of unpaced calls is measured over.
+    private static final long MIN_WINDOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final RateLimitConfig config;
+    private final double maxRate;
+    private double rate;
+    private double tokens;
+    private long lastRefill;
+    private long lastDecrease;
+    // Calls made in the current one-second window, and the rate of the previous one, while unpaced.
+    private long windowStart;
+    private int windowCalls;
+    private double previousWindowRate;
+
+    AdaptiveRateLimiter(RateLimitConfig config, double maxRate) {
+        this.config = config;
+        this.maxRate = Math.max(config.getMinRate(), maxRate);
+        this.rate = this.maxRate;
+        this.tokens = config.getBurst();
+        this.lastRefill = System.nanoTime();
+        this.lastDecrease = lastRefill - config.getDecreaseCooldown().toNanos();
+        this.windowStart = lastRefill;
+    }
+
+    // Takes a token and returns how long the caller has to wait before using it, or -1 without taking one when
+    // that wait would reach the deadline. A caller turned away leaves no debt for the callers after it.
+    synchronized long reserve(long deadline) {
+        long now = System.nanoTime();
+        if (Double.isInfinite(rate)) {
+            if (now - windowStart >= SECOND) {
+                previousWindowRate = windowCalls * (double) SECOND / (now - windowStart);
+                windowStart = now;
+                windowCalls = 0;
+            }
+            windowCalls++;
+            return 0;
+        }
+        refill(now);
+        long wait = tokens >= 1 ? 0 : (long) ((1 - tokens) / rate * SECOND);
+        if (wait > 0 && now + wait >= deadline) {
+            return -1;
+        }
+        tokens -= 1;
+        return wait;
+    }
+
+    synchronized void onSuccess() {
+        if (Double.isInfinite(rate)) {
+            return;
+        }
+        refill(System.nanoTime());
+        rate = Math.min(maxRate, rate + config.getAdditiveIncrease() / rate);
+    }
+
+    // Concurrent calls tend to be throttled together; one decrease per cooldown keeps a burst of 429s
+    // from collapsing the rate to the minimum.
+    synchronized void onThrottle() {
+        long now = System.nanoTime();
+        if (now - lastDecrease < config.getDecreaseCooldown().toNanos()) {
+            return;
+        }
+        if (Double.isInfinite(rate)) {
+            double observed = Math.max(previousWindowRate, windowCalls * (double) SECOND / Math.max(MIN_WINDOW, now - windowStart));
+            rate = Math.max(config.getMinRate(), observed * config.getDecreaseFactor());
+            tokens = 0;
+        } else {
+            refill(now);
+            rate = Math.max(config.getMinRate(), rate * config.getDecreaseFactor());
+        }
+        lastRefill = now;
+        lastDecrease = now;
+    }
+
+    synchronized double getRate() {
+        return rate;
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(config.getBurst(), tokens + (now - lastRefill) * rate / SECOND);
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.rules.BatchCollection;
+import com.example.complianceapi.rules.Collection;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class AwsBatchPlan implements BatchPlan {
+
+    private final BatchCollection batch;
+    private final AwsRequestTemplate requestTemplate;
+    private final MethodHandle apiCall;
+    private final ResponseFieldPath items;
+    private final ResponseFieldPath nextPageToken;
+    private final ResponseFieldPath itemKey;
+    private final ResponseExtractor itemExtractor;
+    // Pages the last sweep on each instance took: the cost of the next one.
+    private final Map<String, Integer> sweepPages = new ConcurrentHashMap<>();
+
+    private AwsBatchPlan(BatchCollection batch, AwsRequestTemplate requestTemplate, MethodHandle apiCall, ResponseFieldPath items,
+                         ResponseFieldPath nextPageToken, ResponseFieldPath itemKey, ResponseExtractor itemExtractor) {
+        this.batch = batch;
+        this.requestTemplate = requestTemplate;
+        this.apiCall = apiCall;
+        this.items = items;
+        this.nextPageToken = nextPageToken;
+        this.itemKey = itemKey;
+        this.itemExtractor = itemExtractor;
+    }
+
+    public static AwsBatchPlan compile(String service, Collection collection, Class<?> clientType) throws ReflectiveOperationException {
+        BatchCollection batch = collection.getBatch();
+        if (batch.getApiCall() == null || batch.getItemsField() == null || batch.getKeyField() == null) {
+            throw new IllegalArgumentException("batch requires apiCall, itemsField and keyField");
+        }
+        AwsRequestTemplate requestTemplate = AwsRequestTemplate.compile(service, batch.getApiCall(), batch.getParameters(), batch.getPageToken());
+        Method apiMethod = clientType.getMethod(batch.getApiCall(), requestTemplate.getRequestClass());
+        Type responseType = apiMethod.getGenericReturnType();
+
+        ResponseFieldPath items = ResponseFieldPath.compile(responseType, batch.getItemsField());
+        Type itemType = items.getElementType();
+        String nextPageToken = batch.getNextPageToken() != null ? batch.getNextPageToken() : batch.getPageToken();
+        ResponseExtractor itemExtractor = batch.getResponseField() != null || batch.getResponseFields() != null
+                ? ResponseExtractor.compile(itemType, batch.getResponseField(), batch.getResponseFields())
+                : ResponseExtractor.compile(itemType, collection);
+
+        return new AwsBatchPlan(batch, requestTemplate, AwsRuleExecutionPlan.unreflectCall(apiMethod), items,
+                ResponseFieldPath.compile(responseType, nextPageToken), ResponseFieldPath.compile(itemType, batch.getKeyField()),
+                itemExtractor);
+    }
+
+    // Before an instance has been swept its size is unknown, and only minIdentifiers decides. After that a sweep
+    // is taken when it needs fewer list calls than the request has identifiers.
+    @Override
+    public boolean worthSweeping(String instanceName, int identifiers) {
+        return identifiers >= batch.getMinIdentifiers() && identifiers > sweepPages.getOrDefault(instanceName, 0);
+    }
+
+    @Override
+    public String keyFor(String resourceIdentifier) {
+        return AwsPlatformHandler.substituteVariables(batch.getKey(), resourceIdentifier);
+    }
+
+    @Override
+    public Map<String, Object> sweep(String instanceName, Object client) throws Exception {
+        Map<String, Object> itemsByKey = new HashMap<>();
+        String pageToken = null;
+        int pages = 0;
+        do {
+            pages++;
+            Object request;
+            try {
+                request = requestTemplate.build(null, pageToken);
+            } catch (Throwable t) {
+                throw new IllegalStateException("Failed to build batch request " + batch.getApiCall(), t);
+            }
+            Object response = AwsRuleExecutionPlan.invokeCall(apiCall, client, request);
+            List<?> page = (List<?>) items.read(response);
+            if (page != null) {
+                for (Object item : page) {
+                    Object key = itemKey.read(item);
+                    if (key != null) {
+                        itemsByKey.put(key.toString(), item);
+                    }
+                }
+            }
+            Object next = nextPageToken.read(response);
+            pageToken = next == null || next.toString().isEmpty() ? null : next.toString();
+        } while (pageToken != null);
+        sweepPages.put(instanceName, pages);
+        return itemsByKey;
+    }
+
+    @Override
+    public Object extractData(Object item) {
+        return itemExtractor.extract(item);
+    }
+}
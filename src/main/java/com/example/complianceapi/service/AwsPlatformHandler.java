@@ -1,26 +1,94 @@
 package com.example.complianceapi.service;
 
+import com.example.complianceapi.config.AsyncHttpConfig;
+import com.example.complianceapi.config.AwsClientConfig;
+import com.example.complianceapi.config.ComplianceCollectorConfig;
 import com.example.complianceapi.config.PlatformInstanceConfig;
 import com.example.complianceapi.rules.Rule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.awscore.client.builder.AwsClientBuilder;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.SdkClient;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.SdkEventLoopGroup;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.iam.IamAsyncClient;
 import software.amazon.awssdk.services.iam.IamClient;
+import software.amazon.awssdk.services.kms.KmsAsyncClient;
 import software.amazon.awssdk.services.kms.KmsClient;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.secretsmanager.SecretsManagerAsyncClient;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
+import software.amazon.awssdk.services.sts.StsClient;
+import software.amazon.awssdk.services.sts.auth.StsAssumeRoleCredentialsProvider;
+import software.amazon.awssdk.services.sts.model.AssumeRoleRequest;
+import software.amazon.awssdk.utils.SdkAutoCloseable;
 
-import java.lang.reflect.Method;
+import java.net.URI;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 @Component
-public class AwsPlatformHandler implements PlatformHandler {
+public class AwsPlatformHandler implements PlatformHandler, DisposableBean {
 
-    private final Map<Region, KmsClient> kmsClients = new ConcurrentHashMap<>();
-    private final Map<Region, SecretsManagerClient> secretsManagerClients = new ConcurrentHashMap<>();
-    private final Map<Region, S3Client> s3Clients = new ConcurrentHashMap<>();
-    private final Map<Region, IamClient> iamClients = new ConcurrentHashMap<>();
+    private static final Logger logger = LoggerFactory.getLogger(AwsPlatformHandler.class);
 
+    private static final Map<String, Class<?>> CLIENT_TYPES = Map.of(
+            "kms", KmsClient.class,
+            "secretsmanager", SecretsManagerClient.class,
+            "s3", S3Client.class,
+            "iam", IamClient.class);
+
+    private static final Map<String, Class<?>> ASYNC_CLIENT_TYPES = Map.of(
+            "kms", KmsAsyncClient.class,
+            "secretsmanager", SecretsManagerAsyncClient.class,
+            "s3", S3AsyncClient.class,
+            "iam", IamAsyncClient.class);
+
+    static final String REGION = "region";
+    static final String ROLE_ARN = "roleArn";
+    static final String EXTERNAL_ID = "externalId";
+    static final String ACCOUNT_ID = "accountId";
+    static final String ENDPOINT = "endpoint";
+
+    private final AwsClientConfig clientConfig;
+    private final AsyncHttpConfig asyncHttpConfig;
+    // The RateGovernor retries throttled and failed calls itself, so the clients must not retry underneath it.
+    private final boolean governorRetries;
+
+    // Keyed by instance, so every account's clients carry that account's credentials, and by the region of
+    // the resource, so one request can span regions.
+    private final ClientPool<ClientKey, SdkClient> clients = new ClientPool<>(System::nanoTime);
+    private final Map<String, AwsCredentialsProvider> assumedRoles = new ConcurrentHashMap<>();
+    private final Map<Region, StsClient> stsClients = new ConcurrentHashMap<>();
+    private final Map<Region, SdkAsyncHttpClient> asyncHttpClients = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService evictor;
+
+    public AwsPlatformHandler(ComplianceCollectorConfig config) {
+        this.clientConfig = config.getAwsClients();
+        this.asyncHttpConfig = config.getAsyncHttp();
+        this.governorRetries = config.getRateLimits().isEnabled();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("aws-client-evictor-");
+        threadFactory.setDaemon(true);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        long interval = clientConfig.getEvictionInterval().toMillis();
+        evictor.scheduleWithFixedDelay(this::evictIdleClients, interval, interval, TimeUnit.MILLISECONDS);
+    }
 
     @Override
     public String getPlatformName() {
@@ -28,45 +96,136 @@ public class AwsPlatformHandler implements PlatformHandler {
     }
 
     @Override
-    public Object getClient(String service, PlatformInstanceConfig config) {
-        Region region = Region.of(config.getProperties().get("region"));
-        return switch (service) {
-            case "kms" -> kmsClients.computeIfAbsent(region, r -> KmsClient.builder().region(r).build());
-            case "secretsmanager" -> secretsManagerClients.computeIfAbsent(region, r -> SecretsManagerClient.builder().region(r).build());
-            case "s3" -> s3Clients.computeIfAbsent(region, r -> S3Client.builder().region(r).build());
-            // IAM is a global service, but the client still requires a region.
-            case "iam" -> iamClients.computeIfAbsent(region, r -> IamClient.builder().region(r).build());
-            default -> throw new IllegalArgumentException("Unsupported AWS service for client creation: " + service);
-        };
+    public Object getClient(String service, PlatformInstanceConfig config, String identifier) {
+        if (!CLIENT_TYPES.containsKey(service)) {
+            throw new IllegalArgumentException("Unsupported AWS service for client creation: " + service);
+        }
+        return clients.get(new ClientKey(config.getName(), regionOf(identifier, config), service, false), key -> {
+            AwsCredentialsProvider credentials = credentialsFor(config);
+            return switch (service) {
+                case "kms" -> configure(KmsClient.builder(), key, credentials, config).build();
+                case "secretsmanager" -> configure(SecretsManagerClient.builder(), key, credentials, config).build();
+                case "s3" -> configure(S3Client.builder(), key, credentials, config).forcePathStyle(endpointOf(config, service) != null).build();
+                // IAM is a global service, but the client still requires a region.
+                case "iam" -> configure(IamClient.builder(), key, credentials, config).build();
+                default -> throw new IllegalArgumentException("Unsupported AWS service for client creation: " + service);
+            };
+        });
     }
 
+    // The async clients of a region share one HTTP client across services and accounts, so its connection pool
+    // and event loop are the only per-region resources however many clients are pooled.
     @Override
-    public Object buildApiRequest(Rule rule, String resourceIdentifier) {
-        try {
-            String requestClassName = "software.amazon.awssdk.services." + rule.getService() + ".model."
-                    + Character.toUpperCase(rule.getCollection().getApiCall().charAt(0)) + rule.getCollection().getApiCall().substring(1) + "Request";
-            Class<?> requestClass = Class.forName(requestClassName);
-            Object builder = requestClass.getMethod("builder").invoke(null);
-
-            if (rule.getCollection().getParameters() != null) {
-                for (Map.Entry<String, String> param : rule.getCollection().getParameters().entrySet()) {
-                    String paramValue = substituteVariables(param.getValue(), resourceIdentifier);
-                    Method builderMethod = findBuilderMethod(builder.getClass(), param.getKey());
-                    builderMethod.invoke(builder, paramValue);
-                }
-            }
-            return builder.getClass().getMethod("build").invoke(builder);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to build API request for rule: " + rule.getId(), e);
+    public Object getAsyncClient(String service, PlatformInstanceConfig config, String identifier) {
+        if (!ASYNC_CLIENT_TYPES.containsKey(service)) {
+            throw new IllegalArgumentException("Unsupported AWS service for async client creation: " + service);
+        }
+        return clients.get(new ClientKey(config.getName(), regionOf(identifier, config), service, true), key -> {
+            AwsCredentialsProvider credentials = credentialsFor(config);
+            SdkAsyncHttpClient httpClient = asyncHttpClient(key.region());
+            return switch (service) {
+                case "kms" -> configure(KmsAsyncClient.builder(), key, credentials, config).httpClient(httpClient).build();
+                case "secretsmanager" -> configure(SecretsManagerAsyncClient.builder(), key, credentials, config).httpClient(httpClient).build();
+                case "s3" -> configure(S3AsyncClient.builder(), key, credentials, config).forcePathStyle(endpointOf(config, service) != null).httpClient(httpClient).build();
+                case "iam" -> configure(IamAsyncClient.builder(), key, credentials, config).httpClient(httpClient).build();
+                default -> throw new IllegalArgumentException("Unsupported AWS service for async client creation: " + service);
+            };
+        });
+    }
+
+    // An instance's "endpoint" (or "endpoint.<service>") replaces the service endpoints of its region, e.g. with a
+    // VPC endpoint or a local stand-in; S3 then addresses buckets by path instead of by host name.
+    private <B extends AwsClientBuilder<B, ?>> B configure(B builder, ClientKey key, AwsCredentialsProvider credentials,
+                                                           PlatformInstanceConfig config) {
+        builder.region(key.region()).credentialsProvider(credentials);
+        if (governorRetries) {
+            builder.overrideConfiguration(override -> override.retryPolicy(RetryPolicy.none()));
+        }
+        String endpoint = endpointOf(config, key.service());
+        if (endpoint != null) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        return builder;
+    }
+
+    private static String endpointOf(PlatformInstanceConfig config, String service) {
+        String endpoint = config.getProperties().getOrDefault(ENDPOINT + "." + service, config.getProperties().get(ENDPOINT));
+        return StringUtils.hasText(endpoint) ? endpoint : null;
+    }
+
+    // arn:partition:service:region:account:resource. Global resources (IAM, S3 buckets) have no region in
+    // their ARN and are called in the instance's region, as are clients built ahead of any request (null).
+    static Region regionOf(String identifier, PlatformInstanceConfig config) {
+        if (identifier == null) {
+            return Region.of(config.getProperties().get(REGION));
+        }
+        int serviceEnd = identifier.indexOf(':', identifier.indexOf(':', identifier.indexOf(':') + 1) + 1);
+        int regionEnd = serviceEnd < 0 ? -1 : identifier.indexOf(':', serviceEnd + 1);
+        if (regionEnd > serviceEnd + 1) {
+            return Region.of(identifier.substring(serviceEnd + 1, regionEnd));
+        }
+        return Region.of(config.getProperties().get(REGION));
+    }
+
+    // Instances without a "roleArn" use the collector's own default credentials chain. Assumed-role sessions are
+    // refreshed by the first call inside the prefetch window rather than by a refresh thread per account.
+    private AwsCredentialsProvider credentialsFor(PlatformInstanceConfig config) {
+        String roleArn = config.getProperties().get(ROLE_ARN);
+        if (!StringUtils.hasText(roleArn)) {
+            return DefaultCredentialsProvider.create();
+        }
+        return assumedRoles.computeIfAbsent(config.getName(), name -> StsAssumeRoleCredentialsProvider.builder()
+                .stsClient(stsClients.computeIfAbsent(Region.of(config.getProperties().get(REGION)), r -> StsClient.builder().region(r).build()))
+                .refreshRequest(AssumeRoleRequest.builder()
+                        .roleArn(roleArn)
+                        .roleSessionName(clientConfig.getRoleSessionName())
+                        .externalId(config.getProperties().get(EXTERNAL_ID))
+                        .durationSeconds((int) clientConfig.getRoleSessionDuration().toSeconds())
+                        .build())
+                .prefetchTime(clientConfig.getCredentialsPrefetchTime())
+                .staleTime(clientConfig.getCredentialsStaleTime())
+                .asyncCredentialUpdateEnabled(false)
+                .build());
+    }
+
+    private SdkAsyncHttpClient asyncHttpClient(Region region) {
+        return asyncHttpClients.computeIfAbsent(region, r -> NettyNioAsyncHttpClient.builder()
+                .maxConcurrency(asyncHttpConfig.getMaxConcurrency())
+                .maxPendingConnectionAcquires(asyncHttpConfig.getMaxPendingConnectionAcquires())
+                .connectionAcquisitionTimeout(asyncHttpConfig.getConnectionAcquisitionTimeout())
+                .connectionTimeout(asyncHttpConfig.getConnectionTimeout())
+                .readTimeout(asyncHttpConfig.getReadTimeout())
+                .eventLoopGroupBuilder(SdkEventLoopGroup.builder().numberOfThreads(asyncHttpConfig.getEventLoopThreads()))
+                .build());
+    }
+
+    private void evictIdleClients() {
+        int evicted = clients.evictIdle(clientConfig.getIdleTimeout().toNanos());
+        if (evicted > 0) {
+            logger.debug("Closed {} AWS clients idle for more than {}", evicted, clientConfig.getIdleTimeout());
         }
     }
 
-    private Method findBuilderMethod(Class<?> builderClass, String methodName) throws NoSuchMethodException {
-        // This is a simplification. A real implementation would need to handle different parameter types.
-        return builderClass.getMethod(methodName, String.class);
+    @Override
+    public long getClientsCreated() {
+        return clients.created();
+    }
+
+    @Override
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    @Override
+    public RuleExecutionPlan compileRule(Rule rule) {
+        Class<?> clientType = CLIENT_TYPES.get(rule.getService());
+        if (clientType == null) {
+            throw new IllegalArgumentException("Rule '" + rule.getId() + "': unsupported AWS service " + rule.getService());
+        }
+        return AwsRuleExecutionPlan.compile(rule, clientType, ASYNC_CLIENT_TYPES.get(rule.getService()));
     }
 
-    private String substituteVariables(String template, String arn) {
+    static String substituteVariables(String template, String arn) {
         if (template.contains("${arn.resource}")) {
             String resource = arn.substring(arn.lastIndexOf(":") + 1);
             if (resource.contains("/")) {
@@ -77,6 +236,41 @@ public class AwsPlatformHandler implements PlatformHandler {
         return template.replace("${arn}", arn);
     }
 
+    @Override
+    public boolean isThrottling(Throwable error) {
+        return error instanceof AwsServiceException serviceException && serviceException.isThrottlingException();
+    }
+
+    @Override
+    public boolean isRetryable(Throwable error) {
+        return error instanceof SdkException sdkException && sdkException.retryable();
+    }
+
+    // Client-side failures cover unreachable endpoints, timeouts and credentials that cannot be obtained.
+    @Override
+    public boolean isUnavailable(Throwable error) {
+        return error instanceof SdkClientException
+                || (error instanceof AwsServiceException serviceException && serviceException.statusCode() >= 500);
+    }
+
+    // An ARN names its account, which instances declare as "accountId"; the region decides between instances
+    // of one account. ARNs without an account (S3 buckets) fit any AWS instance.
+    @Override
+    public int routingScore(String resourceIdentifier, PlatformInstanceConfig config) {
+        String[] parts = resourceIdentifier.split(":", 6);
+        if (parts.length < 6 || !parts[0].equals("arn")) {
+            return -1;
+        }
+        String accountId = config.getProperties().get(ACCOUNT_ID);
+        if (parts[4].isEmpty() || accountId == null) {
+            return 0;
+        }
+        if (!parts[4].equals(accountId)) {
+            return -1;
+        }
+        return parts[3].equals(config.getProperties().get(REGION)) ? 2 : 1;
+    }
+
     @Override
     public String parseServiceFromIdentifier(String resourceIdentifier) {
         try {
@@ -85,4 +279,17 @@ public class AwsPlatformHandler implements PlatformHandler {
             throw new IllegalArgumentException("Invalid ARN format: " + resourceIdentifier);
         }
     }
+
+    // Clients built with a shared HTTP client or credentials provider do not close them, so those are closed after.
+    @Override
+    public void destroy() {
+        evictor.shutdownNow();
+        clients.closeAll();
+        asyncHttpClients.values().forEach(SdkAsyncHttpClient::close);
+        assumedRoles.values().forEach(provider -> ((SdkAutoCloseable) provider).close());
+        stsClients.values().forEach(SdkClient::close);
+    }
+
+    private record ClientKey(String instance, Region region, String service, boolean async) {
+    }
 }
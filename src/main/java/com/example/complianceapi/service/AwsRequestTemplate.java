@@ -0,0 +1,91 @@
+package com.example.complianceapi.service;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Builds AWS SDK request objects for one apiCall through pre-resolved builder handles.
+public final class AwsRequestTemplate {
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(Object.class, Object.class, Object.class);
+
+    private final Class<?> requestClass;
+    private final MethodHandle newBuilder;
+    private final List<ParameterBinding> parameters;
+    private final MethodHandle pageTokenSetter;
+    private final MethodHandle build;
+
+    private AwsRequestTemplate(Class<?> requestClass, MethodHandle newBuilder, List<ParameterBinding> parameters,
+                               MethodHandle pageTokenSetter, MethodHandle build) {
+        this.requestClass = requestClass;
+        this.newBuilder = newBuilder;
+        this.parameters = parameters;
+        this.pageTokenSetter = pageTokenSetter;
+        this.build = build;
+    }
+
+    public static AwsRequestTemplate compile(String service, String apiCall, Map<String, String> parameters, String pageToken)
+            throws ReflectiveOperationException {
+        String requestClassName = "software.amazon.awssdk.services." + service + ".model."
+                + Character.toUpperCase(apiCall.charAt(0)) + apiCall.substring(1) + "Request";
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        Class<?> requestClass;
+        try {
+            requestClass = Class.forName(requestClassName);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("no request class " + requestClassName + " for apiCall '" + apiCall + "'");
+        }
+        Method builderFactory = requestClass.getMethod("builder");
+        Class<?> builderClass = builderFactory.getReturnType();
+
+        List<ParameterBinding> bindings = new ArrayList<>();
+        if (parameters != null) {
+            for (Map.Entry<String, String> param : parameters.entrySet()) {
+                bindings.add(bind(lookup, builderClass, param.getKey(), param.getValue()));
+            }
+        }
+        MethodHandle pageTokenSetter = pageToken == null ? null
+                : lookup.unreflect(builderClass.getMethod(pageToken, String.class)).asType(SETTER_TYPE);
+
+        return new AwsRequestTemplate(requestClass,
+                lookup.unreflect(builderFactory).asType(MethodType.methodType(Object.class)),
+                List.copyOf(bindings),
+                pageTokenSetter,
+                lookup.unreflect(builderClass.getMethod("build")).asType(MethodType.methodType(Object.class, Object.class)));
+    }
+
+    // Parameters are bound as strings; list-typed members are set through their String... overload.
+    private static ParameterBinding bind(MethodHandles.Lookup lookup, Class<?> builderClass, String name, String template)
+            throws ReflectiveOperationException {
+        try {
+            return new ParameterBinding(template, false, lookup.unreflect(builderClass.getMethod(name, String.class)).asType(SETTER_TYPE));
+        } catch (NoSuchMethodException e) {
+            Method varargs = builderClass.getMethod(name, String[].class);
+            return new ParameterBinding(template, true, lookup.unreflect(varargs).asType(SETTER_TYPE));
+        }
+    }
+
+    public Class<?> getRequestClass() {
+        return requestClass;
+    }
+
+    public Object build(String resourceIdentifier, String pageToken) throws Throwable {
+        Object builder = (Object) newBuilder.invokeExact();
+        for (ParameterBinding parameter : parameters) {
+            String value = resourceIdentifier == null ? parameter.template
+                    : AwsPlatformHandler.substituteVariables(parameter.template, resourceIdentifier);
+            Object ignored = (Object) parameter.setter.invokeExact(builder, parameter.array ? (Object) new String[]{value} : (Object) value);
+        }
+        if (pageToken != null) {
+            Object ignored = (Object) pageTokenSetter.invokeExact(builder, (Object) pageToken);
+        }
+        return (Object) build.invokeExact(builder);
+    }
+
+    private record ParameterBinding(String template, boolean array, MethodHandle setter) {
+    }
+}
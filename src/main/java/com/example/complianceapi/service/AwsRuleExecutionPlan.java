@@ -0,0 +1,116 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.rules.Rule;
+import software.amazon.awssdk.utils.builder.SdkBuilder;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+
+public class AwsRuleExecutionPlan implements RuleExecutionPlan {
+
+    private final Rule rule;
+    private final AwsRequestTemplate requestTemplate;
+    private final MethodHandle apiCall;
+    private final MethodHandle asyncApiCall;
+    private final Class<?> responseType;
+    private final ResponseExtractor responseExtractor;
+    private final BatchPlan batchPlan;
+
+    private AwsRuleExecutionPlan(Rule rule, AwsRequestTemplate requestTemplate, MethodHandle apiCall, MethodHandle asyncApiCall,
+                                 Class<?> responseType, ResponseExtractor responseExtractor, BatchPlan batchPlan) {
+        this.rule = rule;
+        this.requestTemplate = requestTemplate;
+        this.apiCall = apiCall;
+        this.asyncApiCall = asyncApiCall;
+        this.responseType = responseType;
+        this.responseExtractor = responseExtractor;
+        this.batchPlan = batchPlan;
+    }
+
+    // asyncClientType may be null; the plan then only runs on the blocking client.
+    public static AwsRuleExecutionPlan compile(Rule rule, Class<?> clientType, Class<?> asyncClientType) {
+        String apiCallName = rule.getCollection().getApiCall();
+        try {
+            AwsRequestTemplate requestTemplate = AwsRequestTemplate.compile(rule.getService(), apiCallName,
+                    rule.getCollection().getParameters(), null);
+            Method apiMethod = clientType.getMethod(apiCallName, requestTemplate.getRequestClass());
+            BatchPlan batchPlan = rule.getCollection().getBatch() == null ? null
+                    : AwsBatchPlan.compile(rule.getService(), rule.getCollection(), clientType);
+            MethodHandle asyncApiCall = asyncClientType == null ? null
+                    : unreflectCall(asyncClientType.getMethod(apiCallName, requestTemplate.getRequestClass()));
+            return new AwsRuleExecutionPlan(rule, requestTemplate, unreflectCall(apiMethod), asyncApiCall,
+                    apiMethod.getReturnType(), ResponseExtractor.compile(apiMethod.getGenericReturnType(), rule.getCollection()), batchPlan);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("Rule '" + rule.getId() + "': unknown method " + e.getMessage() + " for apiCall '" + apiCallName + "'");
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Rule '" + rule.getId() + "': inaccessible SDK member for apiCall '" + apiCallName + "'", e);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Rule '" + rule.getId() + "': " + e.getMessage());
+        }
+    }
+
+    static MethodHandle unreflectCall(Method apiMethod) throws IllegalAccessException {
+        return MethodHandles.publicLookup().unreflect(apiMethod)
+                .asType(MethodType.methodType(Object.class, Object.class, Object.class));
+    }
+
+    static Object invokeCall(MethodHandle apiCall, Object client, Object request) throws Exception {
+        try {
+            return (Object) apiCall.invokeExact(client, request);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    @Override
+    public Rule getRule() {
+        return rule;
+    }
+
+    @Override
+    public Object buildRequest(String resourceIdentifier) {
+        try {
+            return requestTemplate.build(resourceIdentifier, null);
+        } catch (Throwable t) {
+            throw new RuntimeException("Failed to build API request for rule: " + rule.getId(), t);
+        }
+    }
+
+    @Override
+    public Object execute(Object client, Object request) throws Exception {
+        return invokeCall(apiCall, client, request);
+    }
+
+    @Override
+    public boolean supportsAsync() {
+        return asyncApiCall != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<Object> executeAsync(Object asyncClient, Object request) throws Exception {
+        return (CompletableFuture<Object>) invokeCall(asyncApiCall, asyncClient, request);
+    }
+
+    @Override
+    public Object extractData(Object response) {
+        return responseExtractor.extract(response);
+    }
+
+    @Override
+    public void warmUp() throws Exception {
+        buildRequest("arn:aws:" + rule.getService() + ":us-east-1:000000000000:warmup");
+        SdkBuilder<?, ?> emptyResponse = (SdkBuilder<?, ?>) responseType.getMethod("builder").invoke(null);
+        CompactValues.compact(extractData(emptyResponse.build()));
+    }
+
+    @Override
+    public BatchPlan getBatchPlan() {
+        return batchPlan;
+    }
+}
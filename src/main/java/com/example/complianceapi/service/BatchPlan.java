@@ -0,0 +1,13 @@
+package com.example.complianceapi.service;
+
+import java.util.Map;
+
+// Collects many resources of one rule with a single paginated sweep instead of one call per identifier.
+public interface BatchPlan {
+    // Whether one sweep is expected to cost fewer calls than one call per identifier on the instance.
+    boolean worthSweeping(String instanceName, int identifiers);
+    String keyFor(String resourceIdentifier);
+    // Runs the sweep and returns the raw items keyed by their key field.
+    Map<String, Object> sweep(String instanceName, Object client) throws Exception;
+    Object extractData(Object item);
+}
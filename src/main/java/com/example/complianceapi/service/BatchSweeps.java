@@ -0,0 +1,42 @@
+package com.example.complianceapi.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Runs each rule's batch sweep at most once per collect request and client, and shares the items between its
+// identifiers. Identifiers served by different clients (e.g. other regions) get a sweep of their own.
+public class BatchSweeps {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchSweeps.class);
+
+    private final Map<SweepKey, CompletableFuture<Map<String, Object>>> sweeps = new ConcurrentHashMap<>();
+
+    // A failed sweep yields no items, so every identifier falls back to its own API call. Identifiers waiting
+    // for another thread's sweep give up at the request deadline (TimeoutException) or when interrupted.
+    public Map<String, Object> get(String ruleName, Object client, long deadline, Callable<Map<String, Object>> sweep)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        CompletableFuture<Map<String, Object>> result = new CompletableFuture<>();
+        CompletableFuture<Map<String, Object>> existing = sweeps.putIfAbsent(new SweepKey(ruleName, client), result);
+        if (existing != null) {
+            return existing.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+        try {
+            result.complete(sweep.call());
+        } catch (Exception e) {
+            logger.warn("Batch sweep '{}' failed, collecting identifiers individually: {}", ruleName, e.getMessage());
+            result.complete(Map.of());
+        }
+        return result.join();
+    }
+
+    private record SweepKey(String ruleName, Object client) {
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.config.CircuitBreakerConfig;
+import com.example.complianceapi.config.ComplianceCollectorConfig;
+import com.example.complianceapi.config.PlatformInstanceConfig;
+import com.example.complianceapi.dto.InstanceStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// One circuit breaker per platform instance around its upstream calls. Only failures that say the instance is
+// unavailable (PlatformHandler.isUnavailable) count; any other response, errors included, shows it is up.
+// While a circuit is open, calls fail fast with CircuitOpenException instead of each waiting for the SDK timeout.
+@Component
+public class CircuitBreakers {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreakers.class);
+
+    private final CircuitBreakerConfig config;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public CircuitBreakers(ComplianceCollectorConfig config, MeterRegistry meterRegistry) {
+        this.config = config.getCircuitBreakers();
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T call(PlatformInstanceConfig instance, PlatformHandler handler, Callable<T> call) throws Exception {
+        if (!config.isEnabled()) {
+            return call.call();
+        }
+        CircuitBreaker breaker = acquire(instance);
+        T result;
+        try {
+            result = call.call();
+        } catch (Exception e) {
+            record(instance, breaker, handler, e);
+            throw e;
+        }
+        breaker.onSuccess();
+        return result;
+    }
+
+    public <T> CompletableFuture<T> callAsync(PlatformInstanceConfig instance, PlatformHandler handler, Callable<CompletableFuture<T>> call) {
+        if (!config.isEnabled()) {
+            return RateGovernor.start(call);
+        }
+        CircuitBreaker breaker;
+        try {
+            breaker = acquire(instance);
+        } catch (CircuitOpenException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return RateGovernor.start(call).whenComplete((value, error) -> {
+            if (error == null) {
+                breaker.onSuccess();
+            } else {
+                record(instance, breaker, handler, RateGovernor.causeOf(error));
+            }
+        });
+    }
+
+    private CircuitBreaker acquire(PlatformInstanceConfig instance) {
+        CircuitBreaker breaker = breakers.computeIfAbsent(instance.getName(), this::register);
+        if (!breaker.tryAcquire()) {
+            throw new CircuitOpenException("Circuit open for instance " + instance.getName() + " after repeated failures, not calling it");
+        }
+        return breaker;
+    }
+
+    private void record(PlatformInstanceConfig instance, CircuitBreaker breaker, PlatformHandler handler, Throwable error) {
+        if (!handler.isUnavailable(error)) {
+            breaker.onSuccess();
+            return;
+        }
+        CircuitBreaker.State before = breaker.getState();
+        breaker.onFailure();
+        if (before != CircuitBreaker.State.OPEN && breaker.getState() == CircuitBreaker.State.OPEN) {
+            logger.warn("Circuit for instance {} opened for {}: {}", instance.getName(), config.getOpenDuration(), error.getMessage());
+        }
+    }
+
+    private CircuitBreaker register(String instanceName) {
+        CircuitBreaker breaker = new CircuitBreaker(config.getFailureThreshold(), config.getOpenDuration().toNanos(), System::nanoTime);
+        // 0 closed, 1 half-open, 2 open
+        Gauge.builder("collector.circuit.state", breaker, b -> b.getState().ordinal())
+                .tag("instance", instanceName).register(meterRegistry);
+        return breaker;
+    }
+
+    // The circuit part of the instance's status; an instance that has made no calls yet is closed.
+    public InstanceStatus status(String instanceName) {
+        InstanceStatus status = new InstanceStatus();
+        status.setInstance(instanceName);
+        CircuitBreaker breaker = breakers.get(instanceName);
+        status.setCircuitState((breaker == null ? CircuitBreaker.State.CLOSED : breaker.getState()).name());
+        if (breaker != null) {
+            status.setConsecutiveFailures(breaker.getConsecutiveFailures());
+            status.setMsUntilProbe(TimeUnit.NANOSECONDS.toMillis(breaker.getRemainingOpenNanos()));
+        }
+        return status;
+    }
+}
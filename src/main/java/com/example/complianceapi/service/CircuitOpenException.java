@@ -0,0 +1,7 @@
+package com.example.complianceapi.service;
+
+public class CircuitOpenException extends RuntimeException {
+    public CircuitOpenException(String message) {
+        super(message);
+    }
+}
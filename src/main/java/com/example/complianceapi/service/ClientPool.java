@@ -0,0 +1,89 @@
+package com.example.complianceapi.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+// Clients by key, closed once idle. A lookup stamps its entry with the current time and eviction claims an
+// idle entry by swapping its stamp for EVICTED, so a client that was just handed out is never closed by a
+// concurrent eviction; a lookup that finds a claimed entry builds a new client instead.
+final class ClientPool<K, V extends AutoCloseable> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientPool.class);
+    private static final long EVICTED = Long.MIN_VALUE;
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final LongSupplier nanoClock;
+    private final AtomicLong created = new AtomicLong();
+
+    ClientPool(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+
+    V get(K key, Function<? super K, ? extends V> factory) {
+        while (true) {
+            Entry<V> entry = entries.computeIfAbsent(key, k -> {
+                V value = factory.apply(k);
+                created.incrementAndGet();
+                return new Entry<>(value, nanoClock.getAsLong());
+            });
+            for (long lastUsed = entry.lastUsed.get(); lastUsed != EVICTED; lastUsed = entry.lastUsed.get()) {
+                if (entry.lastUsed.compareAndSet(lastUsed, nanoClock.getAsLong())) {
+                    return entry.value;
+                }
+            }
+            entries.remove(key, entry);
+        }
+    }
+
+    int evictIdle(long idleNanos) {
+        long now = nanoClock.getAsLong();
+        int evicted = 0;
+        for (Map.Entry<K, Entry<V>> pooled : entries.entrySet()) {
+            Entry<V> entry = pooled.getValue();
+            long lastUsed = entry.lastUsed.get();
+            if (lastUsed != EVICTED && now - lastUsed > idleNanos && entry.lastUsed.compareAndSet(lastUsed, EVICTED)) {
+                entries.remove(pooled.getKey(), entry);
+                close(pooled.getKey(), entry.value);
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    long created() {
+        return created.get();
+    }
+
+    void closeAll() {
+        entries.forEach((key, entry) -> close(key, entry.value));
+        entries.clear();
+    }
+
+    private static void close(Object key, AutoCloseable value) {
+        try {
+            value.close();
+        } catch (Exception e) {
+            logger.warn("Failed to close client {}: {}", key, e.getMessage());
+        }
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final AtomicLong lastUsed;
+
+        Entry(V value, long lastUsed) {
+            this.value = value;
+            this.lastUsed = new AtomicLong(lastUsed);
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.config.ComplianceCollectorConfig;
+import com.example.complianceapi.config.ExecutionConfig;
+import com.example.complianceapi.config.PlatformInstanceConfig;
+import com.example.complianceapi.model.Evidence;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+// Each platform instance is a bulkhead: its blocking rule executions run on a pool of its own with as many
+// threads as its "maxConcurrency", so an instance whose calls hang can only exhaust its own threads.
+@Component
+public class CollectionExecutor implements DisposableBean {
+
+    static final String MAX_CONCURRENCY = "maxConcurrency";
+    private static final long IDLE_THREAD_SECONDS = 60;
+
+    private final ExecutionConfig executionConfig;
+    private final Map<String, ThreadPoolExecutor> executors = new ConcurrentHashMap<>();
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> waiting = new ConcurrentHashMap<>();
+
+    public CollectionExecutor(ComplianceCollectorConfig config) {
+        this.executionConfig = config.getExecution();
+    }
+
+    public List<Evidence> invokeAll(PlatformInstanceConfig config, List<CollectionTask> tasks) {
+        return invokeAll(config, tasks, deadline());
+    }
+
+    // Runs the tasks concurrently and returns their evidence in task order. Tasks still running at the
+    // deadline are cancelled and reported through their failure callback.
+    public List<Evidence> invokeAll(PlatformInstanceConfig config, List<CollectionTask> tasks, long deadline) {
+        Evidence[] results = new Evidence[tasks.size()];
+        Map<Integer, List<Evidence>> swept = new HashMap<>();
+        dispatch(config, tasks, deadline, (index, evidence) -> {
+            if (tasks.get(index).getSweep() == null) {
+                results[index] = evidence;
+            } else {
+                swept.computeIfAbsent(index, key -> new ArrayList<>()).add(evidence);
+            }
+        });
+        if (swept.isEmpty()) {
+            return new ArrayList<>(Arrays.asList(results));
+        }
+        List<Evidence> evidenceList = new ArrayList<>(tasks.size());
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] != null) {
+                evidenceList.add(results[i]);
+            }
+            evidenceList.addAll(swept.getOrDefault(i, List.of()));
+        }
+        return evidenceList;
+    }
+
+    public void invokeEach(PlatformInstanceConfig config, List<CollectionTask> tasks, Consumer<Evidence> consumer) {
+        invokeEach(config, tasks, deadline(), consumer);
+    }
+
+    // Hands evidence to the consumer on the calling thread as tasks complete. Tasks are only started while
+    // the consumer keeps up, so a slow consumer (e.g. a streaming HTTP response) holds back collection
+    // instead of buffering its results.
+    public void invokeEach(PlatformInstanceConfig config, List<CollectionTask> tasks, long deadline, Consumer<Evidence> consumer) {
+        dispatch(config, tasks, deadline, (index, evidence) -> consumer.accept(evidence));
+    }
+
+    // The calling thread starts each task once it holds its service's permit and then the instance's, so a
+    // task waiting for a capped service holds neither an instance permit nor a pool thread, and tasks of
+    // other services start ahead of it. Blocking tasks run on the instance's pool, which has a thread for
+    // every instance permit; async tasks hold no thread while their call is in flight. Results are handed
+    // to the sink on the calling thread as they complete, and pages of a sweep as they are listed.
+    private void dispatch(PlatformInstanceConfig config, List<CollectionTask> tasks, long deadline, BiConsumer<Integer, Evidence> sink) {
+        Semaphore instancePermits = instancePermits(config);
+        AtomicInteger waiting = waiting(config);
+        // Task indexes not started yet, per service in task order.
+        Map<String, ArrayDeque<Integer>> unstarted = new LinkedHashMap<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            unstarted.computeIfAbsent(tasks.get(i).getService(), service -> new ArrayDeque<>()).add(i);
+        }
+        int remaining = tasks.size();
+        waiting.addAndGet(remaining);
+        BlockingQueue<Delivery> completed = new LinkedBlockingQueue<>();
+        Map<Integer, Call> pending = new HashMap<>();
+        try {
+            while (remaining > 0 || !pending.isEmpty()) {
+                if (remaining > 0) {
+                    ArrayDeque<Integer> next = startable(config, unstarted, instancePermits);
+                    // With nothing of ours in flight the permits are held by other requests: wait for them.
+                    if (next == null && pending.isEmpty()) {
+                        ArrayDeque<Integer> first = earliest(unstarted);
+                        if (!acquire(instancePermits, servicePermits(config, tasks.get(first.peek()).getService()), deadline)) {
+                            break;
+                        }
+                        next = first;
+                    }
+                    if (next != null) {
+                        int index = next.poll();
+                        CollectionTask task = tasks.get(index);
+                        pending.put(index, start(config, task, index, instancePermits, servicePermits(config, task.getService()), completed));
+                        remaining--;
+                        waiting.decrementAndGet();
+                        continue;
+                    }
+                }
+                // Only reached with tasks of ours in flight, so this wakes up on their completion or the deadline.
+                Delivery delivery = completed.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (delivery == null) {
+                    break;
+                }
+                for (; delivery != null; delivery = completed.poll()) {
+                    int index = delivery.index();
+                    if (delivery.page() != null) {
+                        for (Evidence evidence : delivery.page()) {
+                            sink.accept(index, evidence);
+                        }
+                        delivery.delivered().countDown();
+                        continue;
+                    }
+                    Evidence evidence = resultOf(pending.remove(index).result, tasks.get(index));
+                    if (evidence != null) {
+                        sink.accept(index, evidence);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while collecting evidence from " + config.getName(), e);
+        } finally {
+            waiting.addAndGet(-remaining);
+            pending.values().forEach(Call::cancel);
+        }
+
+        List<Integer> timedOut = new ArrayList<>(pending.keySet());
+        unstarted.values().forEach(timedOut::addAll);
+        timedOut.sort(null);
+        for (int index : timedOut) {
+            sink.accept(index, tasks.get(index).getOnFailure().apply("Timed out after " + executionConfig.getRequestTimeout()));
+        }
+    }
+
+    // The queue of the earliest task that can take its permits now, with the permits taken, or null.
+    private ArrayDeque<Integer> startable(PlatformInstanceConfig config, Map<String, ArrayDeque<Integer>> unstarted, Semaphore instancePermits) {
+        List<Map.Entry<String, ArrayDeque<Integer>>> queues = new ArrayList<>();
+        for (Map.Entry<String, ArrayDeque<Integer>> entry : unstarted.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                queues.add(entry);
+            }
+        }
+        queues.sort(Comparator.comparing(entry -> entry.getValue().peek()));
+        for (Map.Entry<String, ArrayDeque<Integer>> entry : queues) {
+            if (tryAcquire(instancePermits, servicePermits(config, entry.getKey()))) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static ArrayDeque<Integer> earliest(Map<String, ArrayDeque<Integer>> unstarted) {
+        ArrayDeque<Integer> earliest = null;
+        for (ArrayDeque<Integer> queue : unstarted.values()) {
+            if (!queue.isEmpty() && (earliest == null || queue.peek() < earliest.peek())) {
+                earliest = queue;
+            }
+        }
+        return earliest;
+    }
+
+    // The deadline of a request starting now.
+    public long deadline() {
+        return System.nanoTime() + executionConfig.getRequestTimeout().toNanos();
+    }
+
+    public int getSelectorPageSize() {
+        return executionConfig.getSelectorPageSize();
+    }
+
+    // The permits are released when the call ends: for a blocking task when its thread is done, even if the
+    // request has already given up on it, as the thread stays busy until then.
+    private Call start(PlatformInstanceConfig config, CollectionTask task, int index, Semaphore instancePermits,
+                       Semaphore servicePermits, BlockingQueue<Delivery> completed) {
+        Runnable release = () -> {
+            release(instancePermits, servicePermits);
+            completed.add(new Delivery(index, null, null));
+        };
+        if (task.getAsyncAction() != null) {
+            CompletableFuture<Evidence> future;
+            try {
+                future = task.getAsyncAction().get();
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            future.whenComplete((evidence, error) -> release.run());
+            return new Call(future, null, null);
+        }
+        CompletableFuture<Evidence> result = new CompletableFuture<>();
+        AtomicBoolean claimed = new AtomicBoolean();
+        Runnable run = () -> {
+            // Cancelled before it started: the canceller has released the permits.
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                result.complete(task.getSweep() != null
+                        ? task.getSweep().apply(page -> handOff(index, page, completed))
+                        : task.getAction().get());
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            } finally {
+                release.run();
+            }
+        };
+        try {
+            return new Call(result, executorFor(config).submit(run), () -> {
+                if (claimed.compareAndSet(false, true)) {
+                    release(instancePermits, servicePermits);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            claimed.set(true);
+            result.completeExceptionally(e);
+            release.run();
+            return new Call(result, null, null);
+        }
+    }
+
+    // A sweep waits until the calling thread has delivered its page before listing the next one, so it is at
+    // most one page ahead of the consumer. Cancelling the request interrupts the wait.
+    private static void handOff(int index, List<Evidence> page, BlockingQueue<Delivery> completed) {
+        Delivery delivery = new Delivery(index, page, new CountDownLatch(1));
+        completed.add(delivery);
+        try {
+            delivery.delivered().await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while handing over a page", e);
+        }
+    }
+
+    // A page of a sweep, or with a null page the completion of the task.
+    private record Delivery(int index, List<Evidence> page, CountDownLatch delivered) {
+    }
+
+    private static void release(Semaphore instancePermits, Semaphore servicePermits) {
+        if (servicePermits != null) {
+            servicePermits.release();
+        }
+        instancePermits.release();
+    }
+
+    // A started task: its result, and for a blocking task the pool thread running it.
+    private record Call(CompletableFuture<Evidence> result, Future<?> thread, Runnable onCancel) {
+        void cancel() {
+            result.cancel(true);
+            if (thread != null) {
+                if (onCancel != null) {
+                    onCancel.run();
+                }
+                thread.cancel(true);
+            }
+        }
+    }
+
+    // The service's permit first, so no instance permit is held while waiting for a capped service.
+    private static boolean tryAcquire(Semaphore instancePermits, Semaphore servicePermits) {
+        if (servicePermits != null && !servicePermits.tryAcquire()) {
+            return false;
+        }
+        if (!instancePermits.tryAcquire()) {
+            if (servicePermits != null) {
+                servicePermits.release();
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean acquire(Semaphore instancePermits, Semaphore servicePermits, long deadline) throws InterruptedException {
+        if (servicePermits != null && !servicePermits.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+            return false;
+        }
+        if (!instancePermits.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+            if (servicePermits != null) {
+                servicePermits.release();
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private Evidence resultOf(Future<Evidence> future, CollectionTask task) {
+        try {
+            return future.get();
+        } catch (CancellationException e) {
+            return task.getOnFailure().apply("Timed out after " + executionConfig.getRequestTimeout());
+        } catch (ExecutionException e) {
+            return task.getOnFailure().apply(e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return task.getOnFailure().apply("Interrupted");
+        }
+    }
+
+    // Threads are started on demand and stop after a minute without work.
+    private ThreadPoolExecutor executorFor(PlatformInstanceConfig config) {
+        return executors.computeIfAbsent(config.getName(), name -> {
+            int threads = Math.max(1, instancePermitCount(config));
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, IDLE_THREAD_SECONDS, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), new CustomizableThreadFactory("rule-exec-" + name + "-"));
+            pool.allowCoreThreadTimeOut(true);
+            return pool;
+        });
+    }
+
+    public int getActiveThreads(String instanceName) {
+        ThreadPoolExecutor pool = executors.get(instanceName);
+        return pool == null ? 0 : pool.getActiveCount();
+    }
+
+    // Tasks of running requests that wait for a permit, plus any queued on the pool.
+    public int getQueuedTasks(String instanceName) {
+        ThreadPoolExecutor pool = executors.get(instanceName);
+        AtomicInteger waiting = this.waiting.get(instanceName);
+        return (pool == null ? 0 : pool.getQueue().size()) + (waiting == null ? 0 : waiting.get());
+    }
+
+    private AtomicInteger waiting(PlatformInstanceConfig config) {
+        return waiting.computeIfAbsent(config.getName(), name -> new AtomicInteger());
+    }
+
+    private Semaphore instancePermits(PlatformInstanceConfig config) {
+        return permits.computeIfAbsent(config.getName(), key -> new Semaphore(instancePermitCount(config)));
+    }
+
+    private int instancePermitCount(PlatformInstanceConfig config) {
+        return intProperty(config, MAX_CONCURRENCY, executionConfig.getDefaultInstanceConcurrency());
+    }
+
+    // Per-service caps are opt-in, e.g. "maxConcurrency.kms: 4".
+    private Semaphore servicePermits(PlatformInstanceConfig config, String service) {
+        String property = MAX_CONCURRENCY + "." + service;
+        if (config.getProperties() == null || !config.getProperties().containsKey(property)) {
+            return null;
+        }
+        return permits.computeIfAbsent(config.getName() + "/" + service,
+                key -> new Semaphore(intProperty(config, property, executionConfig.getDefaultInstanceConcurrency())));
+    }
+
+    private int intProperty(PlatformInstanceConfig config, String key, int defaultValue) {
+        if (config.getProperties() == null || config.getProperties().get(key) == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(config.getProperties().get(key).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for '" + key + "' on instance " + config.getName() + ": " + config.getProperties().get(key));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executors.values().forEach(ExecutorService::shutdownNow);
+    }
+}
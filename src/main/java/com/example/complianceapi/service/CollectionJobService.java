@@ -0,0 +1,212 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.config.ComplianceCollectorConfig;
+import com.example.complianceapi.config.JobConfig;
+import com.example.complianceapi.config.PlatformInstanceConfig;
+import com.example.complianceapi.dto.CollectRequest;
+import com.example.complianceapi.model.CollectionJob;
+import com.example.complianceapi.model.Evidence;
+import com.example.complianceapi.model.JobState;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Runs large collect requests in the background. A job's ARNs are split into chunks that are collected on a
+// bounded worker pool; each finished chunk is persisted, so after a restart only the missing chunks run again.
+@Service
+public class CollectionJobService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(CollectionJobService.class);
+
+    private final ComplianceCollectorConfig collectorConfig;
+    private final JobConfig config;
+    private final EvidenceProvider evidenceProvider;
+    private final EvidenceStorageClient evidenceStorageClient;
+    private final JobStore store;
+    private final ExecutorService workers;
+    private final Map<String, CollectionJob> jobs = new ConcurrentHashMap<>();
+
+    public CollectionJobService(ComplianceCollectorConfig collectorConfig, EvidenceProvider evidenceProvider,
+                                EvidenceStorageClient evidenceStorageClient, ObjectMapper objectMapper) {
+        this.collectorConfig = collectorConfig;
+        this.config = collectorConfig.getJobs();
+        this.evidenceProvider = evidenceProvider;
+        this.evidenceStorageClient = evidenceStorageClient;
+        this.store = new JobStore(Path.of(config.getDirectory()), objectMapper);
+        this.workers = Executors.newFixedThreadPool(config.getWorkers(), new CustomizableThreadFactory("collection-job-"));
+    }
+
+    public CollectionJob submit(CollectRequest request) {
+        if (request.getResourceArns() == null) {
+            throw new IllegalArgumentException("resourceArns is required");
+        }
+        instanceConfig(request);
+        // Without ruleSetFields every rule of the identifier's service applies; count that as one per ARN.
+        int rulesPerArn = request.getRuleSetFields() == null ? 1 : Math.max(1, request.getRuleSetFields().size());
+        int arnsPerChunk = Math.max(1, config.getChunkSize() / rulesPerArn);
+
+        CollectionJob job = new CollectionJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setRequest(request);
+        job.setState(JobState.QUEUED);
+        job.setArnsPerChunk(arnsPerChunk);
+        job.setTotalChunks((request.getResourceArns().size() + arnsPerChunk - 1) / arnsPerChunk);
+        job.setCreatedAt(Instant.now());
+        job.setUpdatedAt(job.getCreatedAt());
+        if (job.getTotalChunks() == 0) {
+            job.setState(JobState.COMPLETED);
+        }
+        store.saveJob(job);
+        jobs.put(job.getId(), job);
+
+        List<Integer> chunks = new ArrayList<>();
+        for (int chunk = 0; chunk < job.getTotalChunks(); chunk++) {
+            chunks.add(chunk);
+        }
+        schedule(job, chunks);
+        return job;
+    }
+
+    public Optional<CollectionJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    // Evidence of the chunks finished so far, in chunk order.
+    public List<Evidence> getResults(CollectionJob job) {
+        List<Evidence> results = new ArrayList<>();
+        for (int chunk = 0; chunk < job.getTotalChunks(); chunk++) {
+            if (store.hasChunk(job.getId(), chunk)) {
+                results.addAll(store.loadChunk(job.getId(), chunk));
+            }
+        }
+        return results;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        Instant expiry = Instant.now().minus(config.getRetention());
+        for (CollectionJob job : store.loadJobs()) {
+            boolean finished = job.getState() == JobState.COMPLETED || job.getState() == JobState.FAILED;
+            if (finished && job.getUpdatedAt().isBefore(expiry)) {
+                store.delete(job.getId());
+                continue;
+            }
+            jobs.put(job.getId(), job);
+            if (finished) {
+                continue;
+            }
+
+            // Progress is recounted from the chunk files; job.json may lag behind the last chunk written.
+            List<Integer> pending = new ArrayList<>();
+            long evidenceCount = 0;
+            for (int chunk = 0; chunk < job.getTotalChunks(); chunk++) {
+                if (store.hasChunk(job.getId(), chunk)) {
+                    evidenceCount += store.loadChunk(job.getId(), chunk).size();
+                } else {
+                    pending.add(chunk);
+                }
+            }
+            job.setCompletedChunks(job.getTotalChunks() - pending.size());
+            job.setEvidenceCount(evidenceCount);
+            logger.info("Resuming job {} with {} of {} chunks remaining", job.getId(), pending.size(), job.getTotalChunks());
+            if (pending.isEmpty()) {
+                job.setState(JobState.COMPLETED);
+                job.setUpdatedAt(Instant.now());
+                store.saveJob(job);
+            }
+            schedule(job, pending);
+        }
+    }
+
+    private void schedule(CollectionJob job, List<Integer> chunks) {
+        for (int chunk : chunks) {
+            workers.execute(() -> runChunk(job, chunk));
+        }
+    }
+
+    private void runChunk(CollectionJob job, int chunk) {
+        if (job.getState() == JobState.FAILED) {
+            return;
+        }
+        try {
+            synchronized (job) {
+                if (job.getState() == JobState.QUEUED) {
+                    job.setState(JobState.RUNNING);
+                    job.setUpdatedAt(Instant.now());
+                    store.saveJob(job);
+                }
+            }
+            List<Evidence> evidence = evidenceProvider.collect(chunkRequest(job, chunk), instanceConfig(job.getRequest()));
+            store.saveChunk(job.getId(), chunk, evidence);
+            finishChunk(job, evidence.size());
+            try {
+                evidenceStorageClient.storeEvidence(evidence);
+            } catch (EvidenceQueueFullException e) {
+                // The chunk is kept in the job store either way; only the forwarding to storage is lost.
+                logger.warn("Job {} chunk {}: {}", job.getId(), chunk, e.getMessage());
+            }
+        } catch (RuntimeException e) {
+            logger.error("Job {} failed in chunk {}: {}", job.getId(), chunk, e.getMessage(), e);
+            synchronized (job) {
+                job.setState(JobState.FAILED);
+                job.setError("Chunk " + chunk + ": " + e.getMessage());
+                job.setUpdatedAt(Instant.now());
+                store.saveJob(job);
+            }
+        }
+    }
+
+    private void finishChunk(CollectionJob job, int evidenceCount) {
+        synchronized (job) {
+            job.setCompletedChunks(job.getCompletedChunks() + 1);
+            job.setEvidenceCount(job.getEvidenceCount() + evidenceCount);
+            if (job.getCompletedChunks() == job.getTotalChunks() && job.getState() != JobState.FAILED) {
+                job.setState(JobState.COMPLETED);
+            }
+            job.setUpdatedAt(Instant.now());
+            store.saveJob(job);
+        }
+    }
+
+    // A chunk is collected with the job's application, instance, rules and refresh flag. Jobs address the single
+    // instance in platformName, so platformNames is not used.
+    private CollectRequest chunkRequest(CollectionJob job, int chunk) {
+        CollectRequest request = job.getRequest();
+        List<String> arns = request.getResourceArns();
+        int from = chunk * job.getArnsPerChunk();
+        CollectRequest chunkRequest = new CollectRequest();
+        chunkRequest.setApplicationId(request.getApplicationId());
+        chunkRequest.setPlatformName(request.getPlatformName());
+        chunkRequest.setRuleSetFields(request.getRuleSetFields());
+        chunkRequest.setRefresh(request.isRefresh());
+        chunkRequest.setResourceArns(new ArrayList<>(arns.subList(from, Math.min(arns.size(), from + job.getArnsPerChunk()))));
+        return chunkRequest;
+    }
+
+    private PlatformInstanceConfig instanceConfig(CollectRequest request) {
+        return collectorConfig.findInstance(request.getPlatformName())
+                .orElseThrow(() -> new IllegalArgumentException("Configuration not found for instance: " + request.getPlatformName()));
+    }
+
+    // Running chunks are abandoned; they have no chunk file yet and run again on the next start.
+    @Override
+    public void destroy() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.config.ComplianceCollectorConfig;
+import com.example.complianceapi.config.MetricsConfig;
+import com.example.complianceapi.dto.SlowRule;
+import com.example.complianceapi.rules.Rule;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Timers for the collection path, tagged by platform, instance, service, apiCall and outcome. Timers are
+// resolved once per rule and instance and then reused, so recording on the hot path is a map lookup and an add.
+// Percentile histograms are switched on through management.metrics.distribution like any other meter.
+@Component
+public class CollectionMetrics {
+
+    public static final String SUCCESS = "success";
+    public static final String ERROR = "error";
+
+    private final MeterRegistry registry;
+    private final MetricsConfig config;
+    private final SlowRuleWindow slowRules;
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public CollectionMetrics(ComplianceCollectorConfig collectorConfig, MeterRegistry registry, List<PlatformHandler> handlers) {
+        this.registry = registry;
+        this.config = collectorConfig.getMetrics();
+        this.slowRules = new SlowRuleWindow(config.getSlowRuleWindow(), config.getSlowRuleBuckets(), System::nanoTime);
+        for (PlatformHandler handler : handlers) {
+            FunctionCounter.builder("collector.clients.created", handler, PlatformHandler::getClientsCreated)
+                    .tag("platform", handler.getPlatformName()).register(registry);
+            Gauge.builder("collector.clients.active", handler, PlatformHandler::getClientCount)
+                    .tag("platform", handler.getPlatformName()).register(registry);
+        }
+    }
+
+    public void recordExecution(String instanceName, Rule rule, long nanos, String outcome) {
+        timer("collector.rule.execution", instanceName, rule, outcome).record(nanos, TimeUnit.NANOSECONDS);
+        slowRules.record(rule, nanos, ERROR.equals(outcome));
+    }
+
+    public void recordBuildRequest(String instanceName, Rule rule, long nanos) {
+        timer("collector.rule.request.build", instanceName, rule, SUCCESS).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordGetClient(String instanceName, Rule rule, long nanos, String outcome) {
+        timer("collector.client.acquire", instanceName, rule, outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public List<SlowRule> slowestRules() {
+        return slowRules.slowest(config.getSlowRuleLimit());
+    }
+
+    private Timer timer(String name, String instanceName, Rule rule, String outcome) {
+        TimerKey key = new TimerKey(name, instanceName, rule.getId(), outcome);
+        Timer timer = timers.get(key);
+        if (timer == null) {
+            String apiCall = rule.getCollection() == null ? "" : rule.getCollection().getApiCall();
+            timer = timers.computeIfAbsent(key, k -> Timer.builder(name)
+                    .tag("platform", rule.getPlatform())
+                    .tag("instance", instanceName)
+                    .tag("service", rule.getService())
+                    .tag("apiCall", apiCall == null ? "" : apiCall)
+                    .tag("outcome", outcome)
+                    .register(registry));
+        }
+        return timer;
+    }
+
+    private record TimerKey(String name, String instanceName, String ruleId, String outcome) {
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.config.CollectionTarget;
+import com.example.complianceapi.config.ComplianceCollectorConfig;
+import com.example.complianceapi.config.PlatformInstanceConfig;
+import com.example.complianceapi.config.ScheduleConfig;
+import com.example.complianceapi.dto.CollectRequest;
+import com.example.complianceapi.model.Evidence;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Runs the configured collection targets on their cron or interval and forwards only evidence whose data or
+// status changed since the target's previous run to EvidenceStorageClient.
+@Component
+public class CollectionScheduler implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(CollectionScheduler.class);
+
+    private final ComplianceCollectorConfig collectorConfig;
+    private final ScheduleConfig config;
+    private final EvidenceProvider evidenceProvider;
+    private final EvidenceStorageClient evidenceStorageClient;
+    private final ObjectMapper objectMapper;
+    private final Map<String, EvidenceFingerprints> fingerprints = new ConcurrentHashMap<>();
+    private final Map<String, AtomicBoolean> running = new ConcurrentHashMap<>();
+    private ThreadPoolTaskScheduler scheduler;
+
+    public CollectionScheduler(ComplianceCollectorConfig collectorConfig, EvidenceProvider evidenceProvider,
+                               EvidenceStorageClient evidenceStorageClient, ObjectMapper objectMapper) {
+        this.collectorConfig = collectorConfig;
+        this.config = collectorConfig.getSchedules();
+        this.evidenceProvider = evidenceProvider;
+        this.evidenceStorageClient = evidenceStorageClient;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!config.isEnabled() || config.getTargets().isEmpty()) {
+            return;
+        }
+        config.getTargets().forEach(this::validate);
+
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(config.getThreads());
+        scheduler.setThreadNamePrefix("collection-schedule-");
+        scheduler.initialize();
+        for (CollectionTarget target : config.getTargets()) {
+            if (target.getCron() != null) {
+                scheduler.schedule(() -> startWithJitter(target), new CronTrigger(target.getCron()));
+            } else {
+                // A random first run spreads interval targets over their period instead of starting them all now.
+                Instant firstRun = Instant.now().plusMillis(ThreadLocalRandom.current().nextLong(target.getInterval().toMillis() + 1));
+                scheduler.scheduleWithFixedDelay(() -> startWithJitter(target), firstRun, target.getInterval());
+            }
+            logger.info("Scheduled collection target '{}' ({})", target.getName(),
+                    target.getCron() != null ? "cron " + target.getCron() : "every " + target.getInterval());
+        }
+    }
+
+    private void startWithJitter(CollectionTarget target) {
+        long jitterMillis = target.getJitter() == null ? 0 : ThreadLocalRandom.current().nextLong(target.getJitter().toMillis() + 1);
+        scheduler.schedule(() -> run(target), Instant.now().plusMillis(jitterMillis));
+    }
+
+    // Returns the number of changed evidence items forwarded to storage.
+    int run(CollectionTarget target) {
+        AtomicBoolean targetRunning = running.computeIfAbsent(target.getName(), key -> new AtomicBoolean());
+        if (!targetRunning.compareAndSet(false, true)) {
+            logger.warn("Skipping run of '{}', the previous run is still in progress", target.getName());
+            return 0;
+        }
+        try {
+            PlatformInstanceConfig instanceConfig = collectorConfig.findInstance(target.getPlatformName())
+                    .orElseThrow(() -> new IllegalArgumentException("Configuration not found for instance: " + target.getPlatformName()));
+            CollectRequest request = new CollectRequest();
+            request.setApplicationId(target.getApplicationId());
+            request.setPlatformName(target.getPlatformName());
+            request.setResourceArns(target.getResourceArns());
+            request.setRuleSetFields(target.getRuleSetFields());
+            // The evidence cache would hide changes made within its TTL.
+            request.setRefresh(true);
+
+            long started = System.nanoTime();
+            List<Evidence> evidence = evidenceProvider.collect(request, instanceConfig);
+            List<Evidence> changed = fingerprints.computeIfAbsent(target.getName(), key -> new EvidenceFingerprints(objectMapper))
+                    .changed(evidence);
+            if (!changed.isEmpty()) {
+                evidenceStorageClient.storeEvidence(changed);
+            }
+            logger.info("Collection target '{}': {} of {} evidence items changed ({} ms)", target.getName(), changed.size(),
+                    evidence.size(), Duration.ofNanos(System.nanoTime() - started).toMillis());
+            return changed.size();
+        } catch (RuntimeException e) {
+            logger.error("Scheduled collection of '{}' failed: {}", target.getName(), e.getMessage(), e);
+            return 0;
+        } finally {
+            targetRunning.set(false);
+        }
+    }
+
+    private void validate(CollectionTarget target) {
+        if (target.getName() == null || (target.getCron() == null) == (target.getInterval() == null)) {
+            throw new IllegalArgumentException("Collection target '" + target.getName() + "' needs a name and exactly one of cron or interval");
+        }
+        collectorConfig.findInstance(target.getPlatformName())
+                .orElseThrow(() -> new IllegalArgumentException("Collection target '" + target.getName() + "': unknown instance " + target.getPlatformName()));
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.model.Evidence;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@Value
+@AllArgsConstructor
+public class CollectionTask {
+    String service;
+    Supplier<Evidence> action;
+    // Non-blocking variant of action, or null. When present the executor starts it instead of running action.
+    Supplier<CompletableFuture<Evidence>> asyncAction;
+    // Builds the evidence returned when the action fails, is rejected or times out.
+    Function<String, Evidence> onFailure;
+    // Multi-call variant of action (a selector sweep), or null. Runs on the pool, hands each page of evidence to
+    // the request as it goes, and returns the evidence that ends it, or null.
+    Function<Consumer<List<Evidence>>, Evidence> sweep;
+
+    public CollectionTask(String service, Supplier<Evidence> action, Supplier<CompletableFuture<Evidence>> asyncAction,
+                          Function<String, Evidence> onFailure) {
+        this(service, action, asyncAction, onFailure, null);
+    }
+
+    public static CollectionTask sweep(String service, Function<Consumer<List<Evidence>>, Evidence> sweep, Function<String, Evidence> onFailure) {
+        return new CollectionTask(service, null, null, onFailure, sweep);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.complianceapi.service;
+
+import software.amazon.awssdk.core.SdkField;
+import software.amazon.awssdk.core.SdkPojo;
+import software.amazon.awssdk.core.util.SdkAutoConstructList;
+import software.amazon.awssdk.core.util.SdkAutoConstructMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Reduces a collected value, once when it is collected, to a tree of plain maps, lists and scalars. SDK model
+// objects become maps of the fields that are set, so the response graph they belong to is not retained by the
+// evidence cache or result sets, and the tree serializes without any further conversion. Enum-valued SDK
+// fields keep their string form, which is also what assessments compare against.
+final class CompactValues {
+
+    private CompactValues() {
+    }
+
+    static Object compact(Object value) {
+        if (value == null || value instanceof String || value instanceof Number || value instanceof Boolean || value instanceof Enum<?>) {
+            return value;
+        }
+        if (value instanceof SdkPojo pojo) {
+            List<SdkField<?>> fields = pojo.sdkFields();
+            Map<String, Object> compacted = new LinkedHashMap<>(capacity(fields.size()));
+            for (SdkField<?> field : fields) {
+                Object fieldValue = field.getValueOrDefault(pojo);
+                // Lists and maps the response did not contain are auto-constructed empty ones.
+                if (fieldValue != null && !(fieldValue instanceof SdkAutoConstructList<?>) && !(fieldValue instanceof SdkAutoConstructMap<?, ?>)) {
+                    compacted.put(field.memberName(), compact(fieldValue));
+                }
+            }
+            return compacted;
+        }
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> compacted = new LinkedHashMap<>(capacity(map.size()));
+            map.forEach((key, entry) -> compacted.put(key, compact(entry)));
+            return compacted;
+        }
+        if (value instanceof Collection<?> collection) {
+            List<Object> compacted = new ArrayList<>(collection.size());
+            for (Object element : collection) {
+                compacted.add(compact(element));
+            }
+            return compacted;
+        }
+        return value;
+    }
+
+    private static int capacity(int size) {
+        return size * 4 / 3 + 1;
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.model.ComplianceStatus;
+import com.example.complianceapi.model.Evidence;
+import com.example.complianceapi.rules.ComplianceCondition;
+import com.example.complianceapi.rules.Rule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoublePredicate;
+import java.util.function.Predicate;
+
+// A rule's compliantWhen condition compiled into a predicate over the collected value. Expected values are
+// normalised once at compile time, so evaluation does not allocate.
+public final class CompiledAssessment {
+
+    public static final CompiledAssessment NONE = new CompiledAssessment(null);
+
+    private final Predicate<Object> compliant;
+
+    private CompiledAssessment(Predicate<Object> compliant) {
+        this.compliant = compliant;
+    }
+
+    public static CompiledAssessment compile(Rule rule) {
+        if (rule.getAssessment() == null || rule.getAssessment().getCompliantWhen() == null) {
+            return NONE;
+        }
+        ComplianceCondition condition = rule.getAssessment().getCompliantWhen();
+        List<Predicate<Object>> predicates = new ArrayList<>();
+        if (condition.getEquals() != null) {
+            predicates.add(equalTo(condition.getEquals()));
+        }
+        if (condition.getNotEquals() != null) {
+            predicates.add(equalTo(condition.getNotEquals()).negate());
+        }
+        if (condition.getContains() != null) {
+            predicates.add(contains(condition.getContains()));
+        }
+        if (condition.getIsTrue() != null) {
+            predicates.add(condition.getIsTrue() ? CompiledAssessment::isTrue : value -> !isTrue(value));
+        }
+        if (condition.getIsFalse() != null) {
+            predicates.add(condition.getIsFalse() ? CompiledAssessment::isFalse : value -> !isFalse(value));
+        }
+        if (condition.getGreaterThan() != null) {
+            double threshold = condition.getGreaterThan();
+            predicates.add(numeric(number -> number > threshold));
+        }
+        if (condition.getGreaterThanOrEquals() != null) {
+            double threshold = condition.getGreaterThanOrEquals();
+            predicates.add(numeric(number -> number >= threshold));
+        }
+        if (condition.getLessThan() != null) {
+            double threshold = condition.getLessThan();
+            predicates.add(numeric(number -> number < threshold));
+        }
+        if (condition.getLessThanOrEquals() != null) {
+            double threshold = condition.getLessThanOrEquals();
+            predicates.add(numeric(number -> number <= threshold));
+        }
+
+        if (predicates.size() != 1) {
+            throw new IllegalArgumentException("Rule '" + rule.getId() + "': compliantWhen must define exactly one condition, found " + predicates.size());
+        }
+        return new CompiledAssessment(predicates.get(0));
+    }
+
+    public ComplianceStatus assess(Object value) {
+        if (compliant == null) {
+            return ComplianceStatus.NOT_ASSESSED;
+        }
+        return compliant.test(value) ? ComplianceStatus.COMPLIANT : ComplianceStatus.NON_COMPLIANT;
+    }
+
+    // Assesses every evidence item of this rule that does not carry a status yet (error evidence already does).
+    public void assessAll(List<Evidence> evidenceList) {
+        for (Evidence evidence : evidenceList) {
+            if (evidence.getComplianceStatus() == null) {
+                evidence.setComplianceStatus(assess(evidence.getCollectedData()));
+            }
+        }
+    }
+
+    private static Predicate<Object> equalTo(Object expected) {
+        if (expected instanceof Number number) {
+            double expectedNumber = number.doubleValue();
+            return value -> {
+                double actual = toDouble(value);
+                return !Double.isNaN(actual) && actual == expectedNumber;
+            };
+        }
+        if (expected instanceof Boolean bool) {
+            return bool ? CompiledAssessment::isTrue : CompiledAssessment::isFalse;
+        }
+        String expectedText = expected.toString();
+        // Enums (e.g. SDK ServerSideEncryption.AES256) compare by their string form.
+        return value -> value != null && expectedText.equals(value.toString());
+    }
+
+    private static Predicate<Object> contains(String expected) {
+        return value -> {
+            if (value instanceof java.util.Collection<?> collection) {
+                for (Object element : collection) {
+                    if (element != null && expected.equals(element.toString())) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            if (value instanceof Map<?, ?> map) {
+                return map.containsKey(expected);
+            }
+            return value != null && value.toString().contains(expected);
+        };
+    }
+
+    private static Predicate<Object> numeric(DoublePredicate comparison) {
+        return value -> {
+            double actual = toDouble(value);
+            return !Double.isNaN(actual) && comparison.test(actual);
+        };
+    }
+
+    private static boolean isTrue(Object value) {
+        return Boolean.TRUE.equals(value) || (value instanceof String text && Boolean.parseBoolean(text));
+    }
+
+    private static boolean isFalse(Object value) {
+        return Boolean.FALSE.equals(value) || (value instanceof String text && "false".equalsIgnoreCase(text));
+    }
+
+    private static double toDouble(Object value) {
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        if (value instanceof String text) {
+            try {
+                return Double.parseDouble(text.trim());
+            } catch (NumberFormatException e) {
+                return Double.NaN;
+            }
+        }
+        return Double.NaN;
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.model.ComplianceStatus;
+import com.example.complianceapi.model.Evidence;
+import com.example.complianceapi.model.EvidenceSource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// One stored batch, laid out by column: a string dictionary, then each metadata column as dictionary indexes,
+// the statuses, and the collected data as JSON. Runs of equal values within a column (the same application,
+// rule and data source for a whole batch) then deflate to almost nothing. Metadata columns decode without
+// touching the collected data, which is only parsed for the rows a query returns.
+final class EvidenceBlock {
+
+    private static final byte NO_STATUS = -1;
+
+    private final String[] dictionary;
+    // [column][row] -> dictionary index, -1 for null
+    private final int[][] columns;
+    private final byte[] statuses;
+    private final ByteBuffer data;
+    private final int[] dataOffsets;
+
+    private EvidenceBlock(String[] dictionary, int[][] columns, byte[] statuses, ByteBuffer data, int[] dataOffsets) {
+        this.dictionary = dictionary;
+        this.columns = columns;
+        this.statuses = statuses;
+        this.data = data;
+        this.dataOffsets = dataOffsets;
+    }
+
+    enum Column {
+        APPLICATION_ID, MAIN_CATEGORY, RULE_SET_FIELD, PLATFORM, DATA_SOURCE, RESOURCE_ID
+    }
+
+    // The uncompressed block; segments store it deflated, with its length, and hand both back to decode.
+    static byte[] encode(List<Evidence> batch, ObjectMapper objectMapper) throws IOException {
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        int[][] columns = new int[Column.values().length][batch.size()];
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        DataOutputStream dataOut = new DataOutputStream(data);
+        for (int row = 0; row < batch.size(); row++) {
+            Evidence evidence = batch.get(row);
+            String[] values = {evidence.getApplicationId(), evidence.getMainCategory(), evidence.getRuleSetField(),
+                    evidence.getPlatform(), evidence.getDataSource(), evidence.getResourceId()};
+            for (int column = 0; column < values.length; column++) {
+                String value = values[column];
+                columns[column][row] = value == null ? -1 : dictionary.computeIfAbsent(value, key -> {
+                    strings.add(key);
+                    return strings.size() - 1;
+                });
+            }
+            byte[] json = objectMapper.writeValueAsBytes(evidence.getCollectedData());
+            dataOut.writeInt(json.length);
+            dataOut.write(json);
+        }
+
+        ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(raw);
+        out.writeInt(batch.size());
+        out.writeInt(strings.size());
+        for (String value : strings) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+        for (int[] column : columns) {
+            for (int index : column) {
+                out.writeInt(index);
+            }
+        }
+        for (Evidence evidence : batch) {
+            out.writeByte(evidence.getComplianceStatus() == null ? NO_STATUS : evidence.getComplianceStatus().ordinal());
+        }
+        data.writeTo(out);
+        out.flush();
+        return raw.toByteArray();
+    }
+
+    static EvidenceBlock decode(byte[] compressed, int rawLength) throws IOException {
+        byte[] raw = inflate(compressed, rawLength);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+        int rows = in.readInt();
+        String[] dictionary = new String[in.readInt()];
+        for (int i = 0; i < dictionary.length; i++) {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        int[][] columns = new int[Column.values().length][rows];
+        for (int[] column : columns) {
+            for (int row = 0; row < rows; row++) {
+                column[row] = in.readInt();
+            }
+        }
+        byte[] statuses = new byte[rows];
+        in.readFully(statuses);
+
+        ByteBuffer data = ByteBuffer.wrap(raw, raw.length - in.available(), in.available()).slice();
+        int[] dataOffsets = new int[rows];
+        int offset = 0;
+        for (int row = 0; row < rows; row++) {
+            dataOffsets[row] = offset;
+            offset += Integer.BYTES + data.getInt(offset);
+        }
+        return new EvidenceBlock(dictionary, columns, statuses, data, dataOffsets);
+    }
+
+    int rows() {
+        return statuses.length;
+    }
+
+    String value(Column column, int row) {
+        int index = columns[column.ordinal()][row];
+        return index < 0 ? null : dictionary[index];
+    }
+
+    Evidence evidence(int row, ObjectMapper objectMapper) throws IOException {
+        int offset = dataOffsets[row];
+        int length = data.getInt(offset);
+        Object collectedData = objectMapper.readValue(data.array(), data.arrayOffset() + offset + Integer.BYTES, length, Object.class);
+        EvidenceSource source = new EvidenceSource(value(Column.APPLICATION_ID, row), value(Column.MAIN_CATEGORY, row),
+                value(Column.RULE_SET_FIELD, row), value(Column.PLATFORM, row), value(Column.DATA_SOURCE, row));
+        return new Evidence(source, value(Column.RESOURCE_ID, row), collectedData,
+                statuses[row] == NO_STATUS ? null : ComplianceStatus.values()[statuses[row]]);
+    }
+
+    static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, read, rawLength - read);
+                if (inflated == 0 && inflater.needsInput()) {
+                    break;
+                }
+                read += inflated;
+            }
+            if (read != rawLength) {
+                throw new IOException("Evidence block inflated to " + read + " bytes, expected " + rawLength);
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt evidence block", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
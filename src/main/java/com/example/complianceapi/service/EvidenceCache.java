@@ -0,0 +1,211 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.config.CacheConfig;
+import com.example.complianceapi.config.ComplianceCollectorConfig;
+import com.example.complianceapi.rules.Rule;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Reuses collected data per (instance, rule, identifier) for the rule's TTL. Concurrent lookups of the same
+// key while it is loading wait for that one upstream call instead of issuing their own. Failures are not cached.
+@Component
+public class EvidenceCache {
+
+    private final CacheConfig config;
+    private final LinkedHashMap<Key, Entry> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public EvidenceCache(ComplianceCollectorConfig collectorConfig, MeterRegistry meterRegistry) {
+        this.config = collectorConfig.getCache();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > config.getMaxEntries()) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        FunctionCounter.builder("evidence.cache.requests", hits, AtomicLong::get).tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("evidence.cache.requests", misses, AtomicLong::get).tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("evidence.cache.requests", coalesced, AtomicLong::get).tag("result", "coalesced").register(meterRegistry);
+        FunctionCounter.builder("evidence.cache.evictions", evictions, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("evidence.cache.size", this, EvidenceCache::size).register(meterRegistry);
+    }
+
+    @FunctionalInterface
+    public interface Loader {
+        Object load() throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface AsyncLoader {
+        CompletableFuture<Object> load() throws Exception;
+    }
+
+    // A null ttl means the configured default TTL. A lookup waiting on another caller's load gives up at its own
+    // deadline (System.nanoTime()) with a TimeoutException; the load itself carries on for its owner.
+    public Object get(String instanceName, Rule rule, String identifier, Duration ttl, boolean refresh, long deadline,
+                      Loader loader) throws Exception {
+        long ttlNanos = ttlNanos(ttl);
+        if (ttlNanos <= 0) {
+            return loader.load();
+        }
+
+        Key key = new Key(instanceName, rule.getId(), identifier);
+        Claim claim = claim(key, rule, ttlNanos, refresh);
+        Entry entry = claim.entry();
+        if (claim.owner()) {
+            try {
+                Object value = loader.load();
+                entry.complete(value);
+                return value;
+            } catch (Throwable e) {
+                // Errors such as a NoClassDefFoundError too, or the key would stay loading for good.
+                fail(key, entry, e);
+                throw e;
+            }
+        }
+
+        try {
+            return entry.value.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    // Same lookup for non-blocking callers: the loader's future becomes the entry, and hits and coalesced
+    // lookups get a view of it without waiting.
+    public CompletableFuture<Object> getAsync(String instanceName, Rule rule, String identifier, Duration ttl, boolean refresh,
+                                              AsyncLoader loader) {
+        long ttlNanos = ttlNanos(ttl);
+        if (ttlNanos <= 0) {
+            return startLoad(loader);
+        }
+
+        Key key = new Key(instanceName, rule.getId(), identifier);
+        Claim claim = claim(key, rule, ttlNanos, refresh);
+        Entry entry = claim.entry();
+        if (claim.owner()) {
+            startLoad(loader).whenComplete((value, error) -> {
+                if (error == null) {
+                    entry.complete(value);
+                } else {
+                    fail(key, entry, RateGovernor.causeOf(error));
+                }
+            });
+        }
+        // A copy, so callers cancelling or completing their future cannot affect the shared entry.
+        return entry.value.copy();
+    }
+
+    private long ttlNanos(Duration ttl) {
+        return config.isEnabled() ? (ttl == null ? config.getDefaultTtl() : ttl).toNanos() : 0;
+    }
+
+    // Returns the live entry for the key, or a new one owned by the caller, who then has to load it.
+    private Claim claim(Key key, Rule rule, long ttlNanos, boolean refresh) {
+        Entry entry;
+        synchronized (entries) {
+            entry = refresh ? null : entries.get(key);
+            // An entry loaded for a rule definition that has since been reloaded with changes is stale.
+            if (entry != null && (entry.isExpired() || !entry.loadedFor(rule))) {
+                entries.remove(key);
+                entry = null;
+            }
+            if (entry == null) {
+                entry = new Entry(rule, ttlNanos);
+                entries.put(key, entry);
+                misses.incrementAndGet();
+                return new Claim(entry, true);
+            }
+        }
+        if (entry.value.isDone()) {
+            hits.incrementAndGet();
+        } else {
+            coalesced.incrementAndGet();
+        }
+        return new Claim(entry, false);
+    }
+
+    private void fail(Key key, Entry entry, Throwable error) {
+        synchronized (entries) {
+            entries.remove(key, entry);
+        }
+        entry.value.completeExceptionally(error);
+    }
+
+    private static CompletableFuture<Object> startLoad(AsyncLoader loader) {
+        try {
+            return loader.load();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    private record Key(String instanceName, String ruleId, String identifier) {
+    }
+
+    private record Claim(Entry entry, boolean owner) {
+    }
+
+    private static final class Entry {
+        private final CompletableFuture<Object> value = new CompletableFuture<>();
+        private final Rule rule;
+        private final long ttlNanos;
+        private volatile long expiresAt;
+
+        private Entry(Rule rule, long ttlNanos) {
+            this.rule = rule;
+            this.ttlNanos = ttlNanos;
+        }
+
+        private boolean loadedFor(Rule current) {
+            return rule == current || rule.equals(current);
+        }
+
+        // The TTL starts when the upstream call returns, not when it was issued.
+        private void complete(Object result) {
+            expiresAt = System.nanoTime() + ttlNanos;
+            value.complete(result);
+        }
+
+        // An entry still loading never expires; its waiters need the result.
+        private boolean isExpired() {
+            return value.isDone() && System.nanoTime() - expiresAt > 0;
+        }
+    }
+}
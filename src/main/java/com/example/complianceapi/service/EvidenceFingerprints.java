@@ -0,0 +1,74 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.model.ComplianceStatus;
+import com.example.complianceapi.model.Evidence;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Remembers a 64-bit fingerprint of the last collected data and status per (rule, resource) for one collection
+// target, so repeated runs only report evidence that changed. Resources missing from a run are forgotten.
+class EvidenceFingerprints {
+
+    private final ObjectMapper objectMapper;
+    private Map<String, Long> fingerprints = new HashMap<>();
+
+    EvidenceFingerprints(ObjectMapper objectMapper) {
+        // Sorted keys make the fingerprint independent of map iteration order.
+        this.objectMapper = objectMapper.copy()
+                .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+                .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+    }
+
+    synchronized List<Evidence> changed(List<Evidence> evidenceList) {
+        Map<String, Long> current = new HashMap<>(evidenceList.size() * 4 / 3 + 1);
+        List<Evidence> changed = new ArrayList<>();
+        for (Evidence evidence : evidenceList) {
+            String key = evidence.getRuleSetField() + "\u0000" + evidence.getResourceId();
+            long fingerprint = fingerprint(evidence);
+            current.put(key, fingerprint);
+            Long previous = fingerprints.get(key);
+            if (previous == null || previous != fingerprint) {
+                changed.add(evidence);
+            }
+        }
+        fingerprints = current;
+        return changed;
+    }
+
+    synchronized int size() {
+        return fingerprints.size();
+    }
+
+    private long fingerprint(Evidence evidence) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            // An error message carries per-call details such as request IDs, so an error is fingerprinted by its
+            // status and data source alone and a failure that persists across runs is only reported once.
+            if (evidence.getComplianceStatus() == ComplianceStatus.ERROR) {
+                digest.update(String.valueOf(evidence.getDataSource()).getBytes(StandardCharsets.UTF_8));
+            } else {
+                // The serialized form is digested as it is written instead of being buffered first.
+                objectMapper.writeValue(new DigestOutputStream(OutputStream.nullOutputStream(), digest), evidence.getCollectedData());
+            }
+            digest.update((byte) (evidence.getComplianceStatus() == null ? -1 : evidence.getComplianceStatus().ordinal()));
+            return ByteBuffer.wrap(digest.digest()).getLong();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to fingerprint evidence for " + evidence.getResourceId(), e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
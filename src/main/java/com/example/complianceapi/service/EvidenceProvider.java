@@ -5,8 +5,15 @@ import com.example.complianceapi.dto.CollectRequest;
 import com.example.complianceapi.model.Evidence;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface EvidenceProvider {
     List<Evidence> collect(CollectRequest request, PlatformInstanceConfig instanceConfig);
+
+    // Streaming variant: evidence is passed to the consumer as soon as it is available, in completion order.
+    default void collect(CollectRequest request, PlatformInstanceConfig instanceConfig, Consumer<Evidence> consumer) {
+        collect(request, instanceConfig).forEach(consumer);
+    }
+
     String getPlatformName();
 }
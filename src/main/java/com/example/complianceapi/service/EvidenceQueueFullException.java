@@ -0,0 +1,11 @@
+package com.example.complianceapi.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class EvidenceQueueFullException extends RuntimeException {
+    public EvidenceQueueFullException(String message) {
+        super(message);
+    }
+}
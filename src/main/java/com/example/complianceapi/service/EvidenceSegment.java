@@ -0,0 +1,158 @@
+package com.example.complianceapi.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+// One append-only file of evidence blocks, each a header (magic, deflated length, raw length, stored-at millis,
+// CRC32 of the deflated bytes) followed by the deflated EvidenceBlock. The active segment is appended to and read
+// through its channel; once sealed it is memory-mapped and never written again.
+final class EvidenceSegment implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(EvidenceSegment.class);
+
+    private static final int MAGIC = 0x45564231;
+    private static final int HEADER_BYTES = 24;
+
+    private final long sequence;
+    private final Path file;
+    private final FileChannel channel;
+    private long size;
+    private long newestStoredAt;
+    private volatile MappedByteBuffer mapped;
+
+    private EvidenceSegment(long sequence, Path file, FileChannel channel) {
+        this.sequence = sequence;
+        this.file = file;
+        this.channel = channel;
+    }
+
+    interface BlockConsumer {
+        void accept(long offset, long storedAt, EvidenceBlock block) throws IOException;
+    }
+
+    static EvidenceSegment create(Path file, long sequence) throws IOException {
+        return new EvidenceSegment(sequence, file, FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE));
+    }
+
+    // A block cut short by a crash, or one that fails its checksum, ends the segment; the file is truncated there.
+    static EvidenceSegment open(Path file, long sequence) throws IOException {
+        EvidenceSegment segment = new EvidenceSegment(sequence, file, FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        long fileSize = segment.channel.size();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (segment.size < fileSize) {
+            header.clear();
+            segment.channel.read(header, segment.size);
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt(0) != MAGIC || header.getInt(4) < 0
+                    || segment.size + HEADER_BYTES + header.getInt(4) > fileSize
+                    || checksum(segment.readFully(segment.size + HEADER_BYTES, header.getInt(4))) != header.getInt(20)) {
+                logger.warn("Truncating evidence segment {} at {} of {} bytes after an incomplete or corrupt block", file, segment.size, fileSize);
+                segment.channel.truncate(segment.size);
+                break;
+            }
+            segment.newestStoredAt = Math.max(segment.newestStoredAt, header.getLong(12));
+            segment.size += HEADER_BYTES + header.getInt(4);
+        }
+        return segment;
+    }
+
+    // Returns the block's offset once it is on disk.
+    long append(byte[] compressed, int rawLength, long storedAt) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + compressed.length);
+        buffer.putInt(MAGIC).putInt(compressed.length).putInt(rawLength).putLong(storedAt).putInt(checksum(compressed)).put(compressed);
+        buffer.flip();
+        long offset = size;
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, offset + buffer.position());
+        }
+        channel.force(false);
+        size += buffer.limit();
+        newestStoredAt = Math.max(newestStoredAt, storedAt);
+        return offset;
+    }
+
+    EvidenceBlock read(long offset) throws IOException {
+        ByteBuffer header = slice(offset, HEADER_BYTES);
+        return EvidenceBlock.decode(toArray(slice(offset + HEADER_BYTES, header.getInt(4))), header.getInt(8));
+    }
+
+    void forEachBlock(BlockConsumer consumer) throws IOException {
+        for (long offset = 0; offset < size; ) {
+            ByteBuffer header = slice(offset, HEADER_BYTES);
+            consumer.accept(offset, header.getLong(12), read(offset));
+            offset += HEADER_BYTES + header.getInt(4);
+        }
+    }
+
+    void seal() throws IOException {
+        mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+
+    private ByteBuffer slice(long offset, int length) throws IOException {
+        MappedByteBuffer sealed = mapped;
+        if (sealed != null) {
+            return sealed.slice((int) offset, length);
+        }
+        return ByteBuffer.wrap(readFully(offset, length));
+    }
+
+    private byte[] readFully(long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                break;
+            }
+        }
+        return buffer.array();
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.array().length == buffer.remaining()) {
+            return buffer.array();
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static int checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    long size() {
+        return size;
+    }
+
+    long getNewestStoredAt() {
+        return newestStoredAt;
+    }
+
+    boolean isSealed() {
+        return mapped != null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
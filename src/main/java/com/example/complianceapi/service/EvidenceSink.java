@@ -0,0 +1,11 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.model.Evidence;
+
+import java.util.List;
+
+// Destination for stored evidence. Called by the EvidenceStorageClient flush threads with one batch at a
+// time; throwing makes the batch eligible for a retry.
+public interface EvidenceSink {
+    void write(List<Evidence> batch) throws Exception;
+}
@@ -1,21 +1,214 @@
 package com.example.complianceapi.service;
 
+import com.example.complianceapi.config.ComplianceCollectorConfig;
+import com.example.complianceapi.config.StorageConfig;
 import com.example.complianceapi.model.Evidence;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+// Buffers evidence in a bounded queue and writes it to the EvidenceSink in batches off the request thread.
+// A dispatcher thread cuts batches by size or age and hands them to a fixed number of flush threads; when
+// all of them are busy the queue fills up and the overflow policy applies to new evidence.
 @Service
-public class EvidenceStorageClient {
+public class EvidenceStorageClient implements DisposableBean {
 
     private static final Logger logger = LoggerFactory.getLogger(EvidenceStorageClient.class);
 
+    private final StorageConfig config;
+    private final EvidenceSink sink;
+    private final BlockingQueue<Evidence> queue;
+    private final Semaphore flushSlots;
+    private final ExecutorService flushExecutor;
+    private final Thread dispatcher;
+    private final AtomicLong stored = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final Timer flushSuccess;
+    private final Timer flushFailure;
+    private volatile boolean running = true;
+
+    public EvidenceStorageClient(ComplianceCollectorConfig config, EvidenceSink sink, MeterRegistry meterRegistry) {
+        this.config = config.getStorage();
+        this.sink = sink;
+        this.queue = new ArrayBlockingQueue<>(this.config.getQueueCapacity());
+        this.flushSuccess = Timer.builder("evidence.storage.flush").tag("outcome", "success").register(meterRegistry);
+        this.flushFailure = Timer.builder("evidence.storage.flush").tag("outcome", "error").register(meterRegistry);
+        Gauge.builder("evidence.storage.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        FunctionCounter.builder("evidence.storage.items", stored, AtomicLong::get).tag("result", "stored").register(meterRegistry);
+        FunctionCounter.builder("evidence.storage.items", dropped, AtomicLong::get).tag("result", "dropped").register(meterRegistry);
+        FunctionCounter.builder("evidence.storage.items", failed, AtomicLong::get).tag("result", "failed").register(meterRegistry);
+        this.flushSlots = new Semaphore(this.config.getFlushThreads());
+        this.flushExecutor = Executors.newFixedThreadPool(this.config.getFlushThreads(), new CustomizableThreadFactory("evidence-flush-"));
+        this.dispatcher = new CustomizableThreadFactory("evidence-dispatch-").newThread(this::dispatch);
+        this.dispatcher.start();
+    }
+
+    // Returns once the evidence is queued; it is written to the sink asynchronously.
     public void storeEvidence(List<Evidence> evidenceList) {
-        // In a real implementation, this would use WebClient or RestTemplate
-        // to send the evidence to another API endpoint.
-        logger.info("Storing evidence (simulation):");
-        evidenceList.forEach(evidence -> logger.info(" - {}", evidence));
+        if (!running) {
+            throw new IllegalStateException("Evidence storage is shutting down");
+        }
+        long deadline = System.nanoTime() + config.getOfferTimeout().toNanos();
+        for (int i = 0; i < evidenceList.size(); i++) {
+            if (!offer(evidenceList.get(i), deadline)) {
+                int remaining = evidenceList.size() - i;
+                if (config.getOverflowPolicy() == StorageConfig.OverflowPolicy.DROP) {
+                    dropped.addAndGet(remaining);
+                    logger.warn("Evidence queue is full, dropped {} evidence items", remaining);
+                    return;
+                }
+                throw new EvidenceQueueFullException("Evidence queue is full, " + remaining + " of " + evidenceList.size() + " evidence items were not stored");
+            }
+        }
+    }
+
+    // Queues what fits without waiting, whatever the overflow policy, and returns how many items did not fit;
+    // those are counted as dropped. For callers that can neither wait nor fail halfway, such as a streaming response.
+    public int offerEvidence(List<Evidence> evidenceList) {
+        int queued = 0;
+        while (running && queued < evidenceList.size() && queue.offer(evidenceList.get(queued))) {
+            queued++;
+        }
+        int remaining = evidenceList.size() - queued;
+        if (remaining > 0) {
+            dropped.addAndGet(remaining);
+            logger.warn("Evidence queue is full, {} of {} streamed evidence items were not stored", remaining, evidenceList.size());
+        }
+        return remaining;
+    }
+
+    private boolean offer(Evidence evidence, long deadline) {
+        if (config.getOverflowPolicy() != StorageConfig.OverflowPolicy.BLOCK) {
+            return queue.offer(evidence);
+        }
+        try {
+            return queue.offer(evidence, deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void dispatch() {
+        long flushIntervalNanos = config.getFlushInterval().toNanos();
+        while (running || !queue.isEmpty()) {
+            try {
+                Evidence first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<Evidence> batch = new ArrayList<>(config.getBatchSize());
+                batch.add(first);
+                long flushAt = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < config.getBatchSize()) {
+                    if (queue.drainTo(batch, config.getBatchSize() - batch.size()) > 0) {
+                        continue;
+                    }
+                    Evidence next = running ? queue.poll(flushAt - System.nanoTime(), TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flushSlots.acquire();
+                flushExecutor.execute(() -> {
+                    try {
+                        flush(batch);
+                    } finally {
+                        flushSlots.release();
+                    }
+                });
+            } catch (InterruptedException e) {
+                logger.warn("Evidence dispatcher interrupted with {} evidence items still queued", queue.size());
+                return;
+            }
+        }
+    }
+
+    // The flush timer covers all attempts of a batch, including backoff.
+    private void flush(List<Evidence> batch) {
+        long start = System.nanoTime();
+        boolean success = write(batch);
+        (success ? flushSuccess : flushFailure).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private boolean write(List<Evidence> batch) {
+        long backoff = config.getInitialBackoff().toMillis();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                sink.write(batch);
+                stored.addAndGet(batch.size());
+                return true;
+            } catch (Exception e) {
+                if (attempt >= config.getMaxAttempts()) {
+                    failed.addAndGet(batch.size());
+                    logger.error("Failed to store {} evidence items after {} attempts", batch.size(), attempt, e);
+                    return false;
+                }
+                logger.warn("Storing {} evidence items failed (attempt {} of {}): {}", batch.size(), attempt, config.getMaxAttempts(), e.getMessage());
+            }
+            try {
+                // Jitter keeps concurrent flush threads from retrying in lockstep.
+                Thread.sleep(ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed.addAndGet(batch.size());
+                logger.error("Interrupted while retrying, {} evidence items were not stored", batch.size());
+                return false;
+            }
+            backoff = Math.min(backoff * 2, config.getMaxBackoff().toMillis());
+        }
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    public long getStoredCount() {
+        return stored.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    // Stops accepting evidence and flushes what is queued, bounded by the shutdown timeout.
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        long deadline = System.nanoTime() + config.getShutdownTimeout().toNanos();
+        dispatcher.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+        if (dispatcher.isAlive()) {
+            dispatcher.interrupt();
+        }
+        flushExecutor.shutdown();
+        if (!flushExecutor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+            flushExecutor.shutdownNow();
+        }
+        if (!queue.isEmpty()) {
+            logger.warn("Shut down with {} evidence items not stored", queue.size());
+        }
     }
 }
@@ -0,0 +1,215 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.config.ComplianceCollectorConfig;
+import com.example.complianceapi.config.PlatformInstanceConfig;
+import com.example.complianceapi.dto.CollectRequest;
+import com.example.complianceapi.model.ComplianceStatus;
+import com.example.complianceapi.model.Evidence;
+import com.example.complianceapi.model.EvidenceSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+// Collects one request from several platform instances. Each identifier is routed to the instance it names
+// (see PlatformHandler.routingScore), and every instance collects its share on its own thread, within its own
+// concurrency permits and request timeout, so a slow instance only delays its own evidence.
+@Service
+public class FanOutCollector implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(FanOutCollector.class);
+
+    private final ComplianceCollectorConfig config;
+    private final PlatformHandlerFactory platformHandlerFactory;
+    private final EvidenceProvider evidenceProvider;
+    private final ExecutorService executor = Executors.newCachedThreadPool(new CustomizableThreadFactory("collect-fanout-"));
+
+    public FanOutCollector(ComplianceCollectorConfig config, PlatformHandlerFactory platformHandlerFactory, EvidenceProvider evidenceProvider) {
+        this.config = config;
+        this.platformHandlerFactory = platformHandlerFactory;
+        this.evidenceProvider = evidenceProvider;
+    }
+
+    // Evidence is grouped by instance in target order, followed by error evidence for unroutable identifiers.
+    public List<Evidence> collect(CollectRequest request) {
+        List<Evidence> unrouted = new ArrayList<>();
+        List<Share> shares = route(request, unrouted);
+        Map<Share, List<Evidence>> results = new ConcurrentHashMap<>();
+        runAll(shares, share -> {
+            try {
+                results.put(share, evidenceProvider.collect(share.request(), share.instance()));
+            } catch (RuntimeException e) {
+                results.put(share, failures(share, e));
+            }
+        });
+
+        List<Evidence> evidence = new ArrayList<>();
+        shares.forEach(share -> evidence.addAll(results.get(share)));
+        evidence.addAll(unrouted);
+        return evidence;
+    }
+
+    // Evidence from all instances is handed to the consumer one at a time, in completion order.
+    public void collect(CollectRequest request, Consumer<Evidence> consumer) {
+        Object lock = new Object();
+        AtomicReference<RuntimeException> consumerFailure = new AtomicReference<>();
+        Consumer<Evidence> serialized = evidence -> {
+            synchronized (lock) {
+                try {
+                    consumer.accept(evidence);
+                } catch (RuntimeException e) {
+                    consumerFailure.compareAndSet(null, e);
+                    throw e;
+                }
+            }
+        };
+
+        List<Evidence> unrouted = new ArrayList<>();
+        List<Share> shares = route(request, unrouted);
+        unrouted.forEach(serialized);
+        runAll(shares, share -> {
+            try {
+                evidenceProvider.collect(share.request(), share.instance(), serialized);
+            } catch (RuntimeException e) {
+                // A failing consumer (e.g. the client went away) ends the whole request, not just this instance.
+                if (consumerFailure.get() != null) {
+                    throw e;
+                }
+                failures(share, e).forEach(serialized);
+            }
+        });
+    }
+
+    private List<Share> route(CollectRequest request, List<Evidence> unrouted) {
+        Map<PlatformInstanceConfig, PlatformHandler> targets = targets(request);
+        Map<PlatformInstanceConfig, List<String>> identifiers = new HashMap<>();
+        for (String identifier : request.getResourceArns()) {
+            List<PlatformInstanceConfig> best = new ArrayList<>();
+            int bestScore = -1;
+            for (Map.Entry<PlatformInstanceConfig, PlatformHandler> target : targets.entrySet()) {
+                int score = target.getValue().routingScore(identifier, target.getKey());
+                if (score > bestScore) {
+                    best.clear();
+                    bestScore = score;
+                }
+                if (score >= 0 && score == bestScore) {
+                    best.add(target.getKey());
+                }
+            }
+            if (best.size() == 1) {
+                identifiers.computeIfAbsent(best.get(0), key -> new ArrayList<>()).add(identifier);
+            } else if (best.isEmpty()) {
+                unrouted.addAll(failures(request, List.of(identifier), null, "Error routing " + identifier, "No platform instance serves " + identifier));
+            } else {
+                unrouted.addAll(failures(request, List.of(identifier), null, "Error routing " + identifier, "Identifier " + identifier
+                        + " matches more than one instance: " + String.join(", ", best.stream().map(PlatformInstanceConfig::getName).toList())));
+            }
+        }
+
+        List<Share> shares = new ArrayList<>();
+        targets.forEach((instance, handler) -> {
+            List<String> instanceIdentifiers = identifiers.get(instance);
+            if (instanceIdentifiers == null) {
+                return;
+            }
+            CollectRequest instanceRequest = new CollectRequest();
+            instanceRequest.setApplicationId(request.getApplicationId());
+            instanceRequest.setPlatformName(instance.getName());
+            instanceRequest.setResourceArns(instanceIdentifiers);
+            instanceRequest.setRuleSetFields(request.getRuleSetFields());
+            instanceRequest.setRefresh(request.isRefresh());
+            shares.add(new Share(instance, handler, instanceRequest));
+        });
+        return shares;
+    }
+
+    // The named instances, or every configured instance of a platform with a handler.
+    private Map<PlatformInstanceConfig, PlatformHandler> targets(CollectRequest request) {
+        Map<PlatformInstanceConfig, PlatformHandler> targets = new LinkedHashMap<>();
+        if (request.getPlatformNames() != null && !request.getPlatformNames().isEmpty()) {
+            for (String name : request.getPlatformNames()) {
+                PlatformInstanceConfig instance = config.findInstance(name)
+                        .orElseThrow(() -> new IllegalArgumentException("Configuration not found for instance: " + name));
+                targets.put(instance, platformHandlerFactory.getHandler(platformHandlerFactory.getPlatformType(instance)));
+            }
+            return targets;
+        }
+        config.getPlatforms().getInstances().forEach((platformType, instances) -> {
+            if (platformHandlerFactory.hasHandler(platformType)) {
+                PlatformHandler handler = platformHandlerFactory.getHandler(platformType);
+                instances.forEach(instance -> targets.put(instance, handler));
+            }
+        });
+        return targets;
+    }
+
+    // The first share runs on the calling thread. The first failure cancels the other shares.
+    private void runAll(List<Share> shares, Consumer<Share> action) {
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (Share share : shares.subList(Math.min(1, shares.size()), shares.size())) {
+                futures.add(executor.submit(() -> action.accept(share)));
+            }
+            if (!shares.isEmpty()) {
+                action.accept(shares.get(0));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while collecting evidence", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : new IllegalStateException(e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private List<Evidence> failures(Share share, RuntimeException error) {
+        logger.error("Collection from instance {} failed: {}", share.instance().getName(), error.getMessage(), error);
+        return failures(share.request(), share.request().getResourceArns(), share.handler().getPlatformName().toUpperCase(), "Error collecting from " + share.instance().getName(),
+                "Failed for instance " + share.instance().getName() + ": " + error.getMessage());
+    }
+
+    // One error evidence item per identifier and requested rule, like a failed rule execution. Without listed rules
+    // (all rules of the service) the rules are not known here, so each identifier gets one item without a rule.
+    private static List<Evidence> failures(CollectRequest request, List<String> identifiers, String platform, String dataSource, String error) {
+        List<String> ruleNames = request.getRuleSetFields() == null || request.getRuleSetFields().isEmpty()
+                ? Collections.singletonList(null) : request.getRuleSetFields();
+        List<EvidenceSource> sources = ruleNames.stream()
+                .map(ruleName -> new EvidenceSource(request.getApplicationId(), "Security", ruleName, platform, dataSource))
+                .toList();
+        Map<String, String> collectedData = Map.of("error", error);
+        List<Evidence> failures = new ArrayList<>(identifiers.size() * sources.size());
+        for (String identifier : identifiers) {
+            for (EvidenceSource source : sources) {
+                failures.add(new Evidence(source, identifier, collectedData, ComplianceStatus.ERROR));
+            }
+        }
+        return failures;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private record Share(PlatformInstanceConfig instance, PlatformHandler handler, CollectRequest request) {
+    }
+}
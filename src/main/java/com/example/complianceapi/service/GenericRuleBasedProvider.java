@@ -2,123 +2,286 @@ package com.example.complianceapi.service;
 
 import com.example.complianceapi.config.PlatformInstanceConfig;
 import com.example.complianceapi.dto.CollectRequest;
+import com.example.complianceapi.model.ComplianceStatus;
 import com.example.complianceapi.model.Evidence;
+import com.example.complianceapi.model.EvidenceSource;
 import com.example.complianceapi.rules.Rule;
-import com.jayway.jsonpath.JsonPath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.BeanWrapper;
-import org.springframework.beans.PropertyAccessorFactory;
 import org.springframework.stereotype.Service;
 
-import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Service
 public class GenericRuleBasedProvider implements EvidenceProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(GenericRuleBasedProvider.class);
+    static final String ASYNC = "async";
 
-    private final Map<String, Rule> ruleMap;
+    private final RuleRegistry ruleRegistry;
     private final PlatformHandlerFactory platformHandlerFactory;
+    private final CollectionExecutor collectionExecutor;
+    private final EvidenceCache evidenceCache;
+    private final RateGovernor rateGovernor;
+    private final CircuitBreakers circuitBreakers;
+    private final CollectionMetrics metrics;
 
-    public GenericRuleBasedProvider(Map<String, Rule> ruleMap, PlatformHandlerFactory platformHandlerFactory) {
-        this.ruleMap = ruleMap;
+    public GenericRuleBasedProvider(RuleRegistry ruleRegistry, PlatformHandlerFactory platformHandlerFactory,
+                                    CollectionExecutor collectionExecutor, EvidenceCache evidenceCache, RateGovernor rateGovernor,
+                                    CircuitBreakers circuitBreakers, CollectionMetrics metrics) {
+        this.ruleRegistry = ruleRegistry;
         this.platformHandlerFactory = platformHandlerFactory;
+        this.collectionExecutor = collectionExecutor;
+        this.evidenceCache = evidenceCache;
+        this.rateGovernor = rateGovernor;
+        this.circuitBreakers = circuitBreakers;
+        this.metrics = metrics;
     }
 
     @Override
     public List<Evidence> collect(CollectRequest request, PlatformInstanceConfig instanceConfig) {
-        String platformType = platformHandlerFactory.getPlatformType(instanceConfig);
-        PlatformHandler handler = platformHandlerFactory.getHandler(platformType);
-
-        return request.getResourceArns().stream()
-                .flatMap(arn -> request.getRuleSetFields().stream()
-                        .map(ruleName -> {
-                            Rule rule = ruleMap.get(ruleName);
-                            if (rule == null || !rule.getService().equals(handler.parseServiceFromIdentifier(arn))) {
-                                return null;
-                            }
-                            return executeRule(rule, request, instanceConfig, arn, handler);
-                        }))
-                .filter(java.util.Objects::nonNull)
-                .collect(Collectors.toList());
-    }
-
-    private Evidence executeRule(Rule rule, CollectRequest request, PlatformInstanceConfig config, String identifier, PlatformHandler handler) {
-        try {
-            Object client = handler.getClient(rule.getService(), config);
-            Object apiRequest = handler.buildApiRequest(rule, identifier);
-
-            Object response;
-            if (apiRequest instanceof Map) {
-                // Handle parameter-based API calls (like Kubernetes)
-                Map<String, Object> params = (Map<String, Object>) apiRequest;
-                // This is a simplification; a real implementation would need a more robust method matching logic
-                Method method = findMethodByName(client.getClass(), rule.getCollection().getApiCall());
-                response = method.invoke(client, params.get("name"), params.get("namespace"), null, null, null, null, null, null, null, null, null);
-            } else {
-                // Handle request-object-based API calls (like AWS)
-                Method method = findMethod(client.getClass(), rule.getCollection().getApiCall(), apiRequest.getClass());
-                response = method.invoke(client, apiRequest);
+        // One snapshot per request: a ruleset reload mid-collection does not mix old and new rules.
+        RuleSnapshot rules = ruleRegistry.current();
+        PlatformHandler handler = handlerFor(instanceConfig);
+        long deadline = collectionExecutor.deadline();
+        List<Evidence> evidenceList = collectionExecutor.invokeAll(instanceConfig, createTasks(rules, request, instanceConfig, handler, deadline), deadline);
+        assess(rules, evidenceList);
+        return evidenceList;
+    }
+
+    @Override
+    public void collect(CollectRequest request, PlatformInstanceConfig instanceConfig, Consumer<Evidence> consumer) {
+        RuleSnapshot rules = ruleRegistry.current();
+        PlatformHandler handler = handlerFor(instanceConfig);
+        Consumer<Evidence> assessing = evidence -> {
+            if (evidence.getComplianceStatus() == null) {
+                evidence.setComplianceStatus(rules.assessmentFor(evidence.getRuleSetField()).assess(evidence.getCollectedData()));
+            }
+            consumer.accept(evidence);
+        };
+        long deadline = collectionExecutor.deadline();
+        collectionExecutor.invokeEach(instanceConfig, createTasks(rules, request, instanceConfig, handler, deadline), deadline, assessing);
+    }
+
+    private PlatformHandler handlerFor(PlatformInstanceConfig instanceConfig) {
+        return platformHandlerFactory.getHandler(platformHandlerFactory.getPlatformType(instanceConfig));
+    }
+
+    private List<CollectionTask> createTasks(RuleSnapshot rules, CollectRequest request, PlatformInstanceConfig instanceConfig,
+                                             PlatformHandler handler, long deadline) {
+        // Each identifier's service is parsed once and joined only with the requested rules of that service.
+        Map<String, List<RuleExecutionPlan>> plansByService = rules.getIndex().selectByService(handler.getPlatformName(), request.getRuleSetFields());
+        Map<String, Integer> identifiersPerRule = new HashMap<>();
+        List<RuleExecutionPlan> plansInOrder = new ArrayList<>();
+        List<String> identifiersInOrder = new ArrayList<>();
+        for (String arn : request.getResourceArns()) {
+            if (handler.isSelector(arn)) {
+                continue;
             }
+            for (RuleExecutionPlan plan : plansByService.getOrDefault(handler.parseServiceFromIdentifier(arn), List.of())) {
+                plansInOrder.add(plan);
+                identifiersInOrder.add(arn);
+                identifiersPerRule.merge(plan.getRule().getName(), 1, Integer::sum);
+            }
+        }
+
+        // Rules with a batch mode share one paginated sweep per request when it costs fewer calls than the identifiers.
+        BatchSweeps sweeps = new BatchSweeps();
+        // All evidence of a rule in this request shares one set of metadata strings.
+        Map<String, Sources> sourcesByRule = new HashMap<>();
+        boolean async = instanceConfig.getProperties() != null && Boolean.parseBoolean(instanceConfig.getProperties().get(ASYNC));
+        List<CollectionTask> tasks = new ArrayList<>();
+        for (int i = 0; i < plansInOrder.size(); i++) {
+            RuleExecutionPlan plan = plansInOrder.get(i);
+            String arn = identifiersInOrder.get(i);
+            Rule rule = plan.getRule();
+            Sources sources = sourcesByRule.computeIfAbsent(rule.getName(), name -> sources(request, instanceConfig, rule));
+            BatchPlan batchPlan = plan.getBatchPlan() != null
+                    && plan.getBatchPlan().worthSweeping(instanceConfig.getName(), identifiersPerRule.get(rule.getName())) ? plan.getBatchPlan() : null;
+            // Sweeps page through a listing on the blocking client and stay on the pool.
+            Supplier<CompletableFuture<Evidence>> asyncAction = async && batchPlan == null && plan.supportsAsync()
+                    ? () -> executeRuleAsync(rules, plan, deadline, request, sources, instanceConfig, arn, handler) : null;
+            tasks.add(new CollectionTask(rule.getService(),
+                    () -> executeRule(rules, plan, batchPlan, sweeps, deadline, request, sources, instanceConfig, arn, handler),
+                    asyncAction,
+                    error -> createErrorEvidence(sources, arn, "Failed for identifier " + arn + ": " + error)));
+        }
+
+        // Selector identifiers follow the others, one task per selector and rule that pages through the listing
+        // on the instance's pool, concurrently with other tasks.
+        for (String selector : request.getResourceArns()) {
+            if (!handler.isSelector(selector)) {
+                continue;
+            }
+            for (RuleExecutionPlan plan : plansByService.getOrDefault(handler.parseServiceFromIdentifier(selector), List.of())) {
+                Rule rule = plan.getRule();
+                Sources sources = sourcesByRule.computeIfAbsent(rule.getName(), name -> sources(request, instanceConfig, rule));
+                SelectorPlan selectorPlan = plan.getSelectorPlan();
+                if (selectorPlan == null) {
+                    Evidence unsupported = createErrorEvidence(sources, selector, "Rule '" + rule.getName() + "' cannot be collected for a selector");
+                    tasks.add(new CollectionTask(rule.getService(), () -> unsupported, null, error -> unsupported));
+                } else if (selectorPlan.matches(selector)) {
+                    tasks.add(CollectionTask.sweep(rule.getService(),
+                            pages -> sweep(plan, selectorPlan, sources, instanceConfig, selector, handler, deadline, pages),
+                            error -> createErrorEvidence(sources, selector, "Failed for selector " + selector + ": " + error)));
+                }
+            }
+        }
+        return tasks;
+    }
 
-            Object collectedData = extractDataFromResponse(response, rule);
-            return createSuccessEvidence(request, config, rule, collectedData);
+    // One list call per page. Each page is extracted and handed on before the next is requested, so memory stays
+    // bounded by the page size however many resources a selector matches. A failing page ends the sweep with one
+    // error evidence item for the selector; earlier pages are kept. Sweep results bypass the evidence cache.
+    private Evidence sweep(RuleExecutionPlan plan, SelectorPlan selectorPlan, Sources sources, PlatformInstanceConfig config, String selector,
+                           PlatformHandler handler, long deadline, Consumer<List<Evidence>> pages) {
+        Rule rule = plan.getRule();
+        long start = System.nanoTime();
+        try {
+            Object client = getClient(handler, rule, config, selector, false);
+            String continueToken = null;
+            do {
+                String pageToken = continueToken;
+                SelectorPlan.Page page = circuitBreakers.call(config, handler, () -> rateGovernor.call(config, rule.getService(),
+                        selectorPlan.getApiCall(), handler, deadline, () -> selectorPlan.list(client, selector, pageToken, collectionExecutor.getSelectorPageSize())));
+                List<Evidence> evidence = new ArrayList<>(page.items().size());
+                for (Object item : page.items()) {
+                    evidence.add(createSuccessEvidence(sources, selectorPlan.identifierOf(selector, item),
+                            CompactValues.compact(selectorPlan.extractData(item))));
+                }
+                pages.accept(evidence);
+                continueToken = page.continueToken();
+            } while (continueToken != null);
+            metrics.recordExecution(config.getName(), rule, System.nanoTime() - start, CollectionMetrics.SUCCESS);
+            return null;
         } catch (Exception e) {
-            logger.error("Rule execution failed for rule '{}' on identifier '{}': {}", rule.getName(), identifier, e.getMessage(), e);
-            return createErrorEvidence(request, config, rule, "Failed for identifier " + identifier + ": " + e.getMessage());
+            metrics.recordExecution(config.getName(), rule, System.nanoTime() - start, CollectionMetrics.ERROR);
+            logFailure(rule, selector, e);
+            return createErrorEvidence(sources, selector, "Failed for selector " + selector + ": " + e.getMessage());
         }
     }
 
-    private Method findMethod(Class<?> clientClass, String methodName, Class<?> requestClass) throws NoSuchMethodException {
-        return clientClass.getMethod(methodName, requestClass);
+    // Evaluates the collected values rule by rule, so each compiled assessment runs over its whole batch.
+    private void assess(RuleSnapshot rules, List<Evidence> evidenceList) {
+        Map<String, List<Evidence>> byRule = new LinkedHashMap<>();
+        for (Evidence evidence : evidenceList) {
+            byRule.computeIfAbsent(evidence.getRuleSetField(), key -> new ArrayList<>()).add(evidence);
+        }
+        byRule.forEach((ruleName, batch) -> rules.assessmentFor(ruleName).assessAll(batch));
     }
 
-    private Method findMethodByName(Class<?> clientClass, String methodName) throws NoSuchMethodException {
-        // WARNING: This is a major simplification. It assumes the method signature is always the same.
-        // A robust implementation would need to inspect parameter types and match them to the map.
-        for (Method method : clientClass.getMethods()) {
-            if (method.getName().equals(methodName)) {
-                return method;
-            }
+    private Evidence executeRule(RuleSnapshot rules, RuleExecutionPlan plan, BatchPlan batchPlan, BatchSweeps sweeps, long deadline,
+                                 CollectRequest request, Sources sources, PlatformInstanceConfig config, String identifier, PlatformHandler handler) {
+        Rule rule = plan.getRule();
+        long start = System.nanoTime();
+        try {
+            Object collectedData = evidenceCache.get(config.getName(), rule, identifier, rules.cacheTtl(rule), request.isRefresh(), deadline,
+                    () -> collectData(plan, batchPlan, sweeps, deadline, config, identifier, handler));
+            metrics.recordExecution(config.getName(), rule, System.nanoTime() - start, CollectionMetrics.SUCCESS);
+            return createSuccessEvidence(sources, identifier, collectedData);
+        } catch (Exception e) {
+            metrics.recordExecution(config.getName(), rule, System.nanoTime() - start, CollectionMetrics.ERROR);
+            logFailure(rule, identifier, e);
+            return createErrorEvidence(sources, identifier, "Failed for identifier " + identifier + ": " + e.getMessage());
         }
-        throw new NoSuchMethodException("No method found with name: " + methodName);
     }
 
-    private Object extractDataFromResponse(Object response, Rule rule) {
-        // For Kubernetes responses, we need to use JSONPath if the response is a complex object.
-        // This is a simple heuristic. A more robust solution would be handler-specific.
-        if (response.getClass().getPackageName().startsWith("io.kubernetes.client")) {
-            if (".".equals(rule.getCollection().getResponseField())) {
-                return response.toString(); // Or serialize to JSON
+    private CompletableFuture<Evidence> executeRuleAsync(RuleSnapshot rules, RuleExecutionPlan plan, long deadline, CollectRequest request, Sources sources,
+                                                         PlatformInstanceConfig config, String identifier, PlatformHandler handler) {
+        Rule rule = plan.getRule();
+        long start = System.nanoTime();
+        return evidenceCache.getAsync(config.getName(), rule, identifier, rules.cacheTtl(rule), request.isRefresh(),
+                        () -> collectDataAsync(plan, deadline, config, identifier, handler))
+                .handle((collectedData, error) -> {
+                    if (error == null) {
+                        metrics.recordExecution(config.getName(), rule, System.nanoTime() - start, CollectionMetrics.SUCCESS);
+                        return createSuccessEvidence(sources, identifier, collectedData);
+                    }
+                    Throwable cause = RateGovernor.causeOf(error);
+                    metrics.recordExecution(config.getName(), rule, System.nanoTime() - start, CollectionMetrics.ERROR);
+                    logFailure(rule, identifier, cause);
+                    return createErrorEvidence(sources, identifier, "Failed for identifier " + identifier + ": " + cause.getMessage());
+                });
+    }
+
+    private CompletableFuture<Object> collectDataAsync(RuleExecutionPlan plan, long deadline, PlatformInstanceConfig config, String identifier,
+                                                       PlatformHandler handler) throws Exception {
+        Rule rule = plan.getRule();
+        Object client = getClient(handler, rule, config, identifier, true);
+        long buildStart = System.nanoTime();
+        Object apiRequest = plan.buildRequest(identifier);
+        metrics.recordBuildRequest(config.getName(), rule, System.nanoTime() - buildStart);
+        return circuitBreakers.callAsync(config, handler, () -> rateGovernor.callAsync(config, rule.getService(), rule.getCollection().getApiCall(),
+                handler, deadline, () -> plan.executeAsync(client, apiRequest))).thenApply(response -> CompactValues.compact(plan.extractData(response)));
+    }
+
+    private Object collectData(RuleExecutionPlan plan, BatchPlan batchPlan, BatchSweeps sweeps, long deadline, PlatformInstanceConfig config,
+                               String identifier, PlatformHandler handler) throws Exception {
+        Rule rule = plan.getRule();
+        Object client = getClient(handler, rule, config, identifier, false);
+        if (batchPlan != null) {
+            Object item = sweeps.get(rule.getName(), client, deadline, () -> circuitBreakers.call(config, handler, () -> rateGovernor.call(config,
+                    rule.getService(), rule.getCollection().getBatch().getApiCall(), handler, deadline, () -> batchPlan.sweep(config.getName(), client))))
+                    .get(batchPlan.keyFor(identifier));
+            if (item != null) {
+                return CompactValues.compact(batchPlan.extractData(item));
             }
-            // This requires the response object to be serializable to JSON.
-            // The Kubernetes client objects are.
-            return JsonPath.read(response.toString(), "$." + rule.getCollection().getResponseField());
+            // Not covered by the sweep (e.g. another account's resource): fall back to the per-identifier call.
         }
+        long buildStart = System.nanoTime();
+        Object apiRequest = plan.buildRequest(identifier);
+        metrics.recordBuildRequest(config.getName(), rule, System.nanoTime() - buildStart);
+        Object response = handler.lookupCached(plan, apiRequest, config);
+        if (response == null) {
+            response = circuitBreakers.call(config, handler, () -> rateGovernor.call(config, rule.getService(),
+                    rule.getCollection().getApiCall(), handler, deadline, () -> plan.execute(client, apiRequest)));
+        }
+        return CompactValues.compact(plan.extractData(response));
+    }
 
-        BeanWrapper responseWrapper = PropertyAccessorFactory.forBeanPropertyAccess(response);
-        if (rule.getCollection().getResponseField() != null) {
-            return responseWrapper.getPropertyValue(rule.getCollection().getResponseField());
+    // An open circuit fails every identifier of the instance the same way; one line each is enough.
+    private void logFailure(Rule rule, String identifier, Throwable error) {
+        if (error instanceof CircuitOpenException) {
+            logger.debug("Rule '{}' on identifier '{}' not collected: {}", rule.getName(), identifier, error.getMessage());
+        } else {
+            logger.error("Rule execution failed for rule '{}' on identifier '{}': {}", rule.getName(), identifier, error.getMessage(), error);
         }
-        if (rule.getCollection().getResponseFields() != null) {
-            return rule.getCollection().getResponseFields().stream()
-                    .collect(Collectors.toMap(field -> field, responseWrapper::getPropertyValue));
+    }
+
+    private Object getClient(PlatformHandler handler, Rule rule, PlatformInstanceConfig config, String identifier, boolean async) {
+        long start = System.nanoTime();
+        try {
+            Object client = async ? handler.getAsyncClient(rule.getService(), config, identifier)
+                    : handler.getClient(rule.getService(), config, identifier);
+            metrics.recordGetClient(config.getName(), rule, System.nanoTime() - start, CollectionMetrics.SUCCESS);
+            return client;
+        } catch (RuntimeException e) {
+            metrics.recordGetClient(config.getName(), rule, System.nanoTime() - start, CollectionMetrics.ERROR);
+            throw e;
         }
-        return "No response field specified";
     }
 
-    private Evidence createSuccessEvidence(CollectRequest request, PlatformInstanceConfig config, Rule rule, Object data) {
-        return new Evidence(request.getApplicationId(), "Security", rule.getName(), rule.getPlatform().toUpperCase(),
-                rule.getService() + " in " + config.getName(), data);
+    private static Sources sources(CollectRequest request, PlatformInstanceConfig config, Rule rule) {
+        String platform = rule.getPlatform().toUpperCase();
+        return new Sources(
+                new EvidenceSource(request.getApplicationId(), "Security", rule.getName(), platform, rule.getService() + " in " + config.getName()),
+                new EvidenceSource(request.getApplicationId(), "Security", rule.getName(), platform, "Error collecting from " + config.getName()));
     }
 
-    private Evidence createErrorEvidence(CollectRequest request, PlatformInstanceConfig config, Rule rule, String errorMessage) {
-        return new Evidence(request.getApplicationId(), "Security", rule.getName(), rule.getPlatform().toUpperCase(),
-                "Error collecting from " + config.getName(), Map.of("error", errorMessage));
+    // The compliance status is left empty here and filled in per rule batch by assess().
+    private Evidence createSuccessEvidence(Sources sources, String identifier, Object data) {
+        return new Evidence(sources.success(), identifier, data, null);
+    }
+
+    private Evidence createErrorEvidence(Sources sources, String identifier, String errorMessage) {
+        return new Evidence(sources.failure(), identifier, Map.of("error", errorMessage), ComplianceStatus.ERROR);
     }
 
     @Override
@@ -127,4 +290,7 @@ public class GenericRuleBasedProvider implements EvidenceProvider {
         // The factory will determine which handler to use.
         return "generic";
     }
-}
\ No newline at end of file
+
+    private record Sources(EvidenceSource success, EvidenceSource failure) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.config.StorageConfig;
+import com.example.complianceapi.model.Evidence;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.net.URI;
+import java.util.List;
+
+// Posts each batch as a JSON array. Non-2xx responses raise a RestClientException and are retried.
+public class HttpEvidenceSink implements EvidenceSink {
+
+    private final RestClient restClient;
+    private final URI uri;
+
+    public HttpEvidenceSink(RestClient.Builder restClientBuilder, StorageConfig.Http config) {
+        if (config.getUrl() == null || config.getUrl().isBlank()) {
+            throw new IllegalArgumentException("compliance-collector.storage.http.url is required for the http evidence sink");
+        }
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(config.getTimeout());
+        requestFactory.setReadTimeout(config.getTimeout());
+        this.restClient = restClientBuilder
+                .requestFactory(requestFactory)
+                .defaultHeaders(headers -> config.getHeaders().forEach(headers::add))
+                .build();
+        this.uri = URI.create(config.getUrl());
+    }
+
+    @Override
+    public void write(List<Evidence> batch) {
+        restClient.post()
+                .uri(uri)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(batch)
+                .retrieve()
+                .toBodilessEntity();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.model.CollectionJob;
+import com.example.complianceapi.model.Evidence;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// File-backed job store: <directory>/<jobId>/job.json plus one chunk-<n>.json per finished chunk. Files are
+// written to a temporary name and moved into place, so a crash never leaves a partial chunk behind.
+public class JobStore {
+
+    private static final String JOB_FILE = "job.json";
+    private static final TypeReference<List<Evidence>> EVIDENCE_LIST = new TypeReference<>() {
+    };
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+
+    public JobStore(Path directory, ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+    }
+
+    public void saveJob(CollectionJob job) {
+        write(directory.resolve(job.getId()).resolve(JOB_FILE), job);
+    }
+
+    public List<CollectionJob> loadJobs() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        List<CollectionJob> jobs = new ArrayList<>();
+        try (Stream<Path> jobDirectories = Files.list(directory)) {
+            for (Path jobFile : jobDirectories.map(dir -> dir.resolve(JOB_FILE)).filter(Files::isRegularFile).toList()) {
+                jobs.add(objectMapper.readValue(jobFile.toFile(), CollectionJob.class));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load jobs from " + directory, e);
+        }
+        return jobs;
+    }
+
+    public void saveChunk(String jobId, int chunk, List<Evidence> evidence) {
+        write(chunkFile(jobId, chunk), evidence);
+    }
+
+    public boolean hasChunk(String jobId, int chunk) {
+        return Files.isRegularFile(chunkFile(jobId, chunk));
+    }
+
+    public List<Evidence> loadChunk(String jobId, int chunk) {
+        try {
+            return objectMapper.readValue(chunkFile(jobId, chunk).toFile(), EVIDENCE_LIST);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read chunk " + chunk + " of job " + jobId, e);
+        }
+    }
+
+    public void delete(String jobId) {
+        try (Stream<Path> files = Files.walk(directory.resolve(jobId))) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to delete job " + jobId, e);
+        }
+    }
+
+    private Path chunkFile(String jobId, int chunk) {
+        return directory.resolve(jobId).resolve(String.format("chunk-%05d.json", chunk));
+    }
+
+    private void write(Path file, Object value) {
+        try {
+            Files.createDirectories(file.getParent());
+            Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            objectMapper.writeValue(temporary.toFile(), value);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write " + file, e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.complianceapi.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import io.kubernetes.client.openapi.JSON;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Converts Kubernetes client models into Jackson trees. The client's own Gson adapters (IntOrString,
+// Quantity, OffsetDateTime, ...) produce the element tree, which is copied node by node without an
+// intermediate JSON string.
+public final class KubernetesModelTree {
+
+    private static final Gson GSON = new JSON().getGson();
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    private KubernetesModelTree() {
+    }
+
+    // Scalars are returned as they are and maps keep their keys; models and lists become trees.
+    public static Object toValue(Object value) {
+        if (value == null || value instanceof String || value instanceof Number || value instanceof Boolean) {
+            return value;
+        }
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> converted = new LinkedHashMap<>();
+            map.forEach((key, item) -> converted.put(key, toValue(item)));
+            return converted;
+        }
+        return toTree(value);
+    }
+
+    public static JsonNode toTree(Object model) {
+        return copy(GSON.toJsonTree(model));
+    }
+
+    private static JsonNode copy(JsonElement element) {
+        if (element == null || element.isJsonNull()) {
+            return NODES.nullNode();
+        }
+        if (element.isJsonObject()) {
+            JsonObject source = element.getAsJsonObject();
+            ObjectNode target = NODES.objectNode();
+            for (Map.Entry<String, JsonElement> entry : source.entrySet()) {
+                target.set(entry.getKey(), copy(entry.getValue()));
+            }
+            return target;
+        }
+        if (element.isJsonArray()) {
+            JsonArray source = element.getAsJsonArray();
+            ArrayNode target = NODES.arrayNode(source.size());
+            for (JsonElement item : source) {
+                target.add(copy(item));
+            }
+            return target;
+        }
+        JsonPrimitive primitive = element.getAsJsonPrimitive();
+        if (primitive.isBoolean()) {
+            return NODES.booleanNode(primitive.getAsBoolean());
+        }
+        if (primitive.isNumber()) {
+            String number = primitive.getAsString();
+            if (number.indexOf('.') < 0 && number.indexOf('e') < 0 && number.indexOf('E') < 0) {
+                return NODES.numberNode(primitive.getAsLong());
+            }
+            return NODES.numberNode(primitive.getAsDouble());
+        }
+        return NODES.textNode(primitive.getAsString());
+    }
+}
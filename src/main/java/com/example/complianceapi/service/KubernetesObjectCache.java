@@ -0,0 +1,175 @@
+package com.example.complianceapi.service;
+
+import io.kubernetes.client.Discovery;
+import io.kubernetes.client.common.KubernetesListObject;
+import io.kubernetes.client.common.KubernetesObject;
+import io.kubernetes.client.informer.ListerWatcher;
+import io.kubernetes.client.informer.SharedIndexInformer;
+import io.kubernetes.client.informer.SharedInformerFactory;
+import io.kubernetes.client.informer.exception.ObjectTransformException;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.util.CallGeneratorParams;
+import io.kubernetes.client.util.Watchable;
+import io.kubernetes.client.util.generic.GenericKubernetesApi;
+import io.kubernetes.client.util.generic.options.ListOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Informer-backed, per-instance cache of the Kubernetes kinds that rules read. Each kind gets a shared
+// list-watch informer on first use; lookups are answered from memory once it has synced and stays fresh.
+public class KubernetesObjectCache implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(KubernetesObjectCache.class);
+
+    private final ApiClient apiClient;
+    private final Duration resyncPeriod;
+    private final long maxStalenessNanos;
+    private final SharedInformerFactory informerFactory;
+    private final ExecutorService informerThreads;
+    private final Map<Class<?>, CachedKind> kinds = new ConcurrentHashMap<>();
+    private final Set<Class<?>> uncacheableKinds = ConcurrentHashMap.newKeySet();
+
+    public KubernetesObjectCache(String instanceName, ApiClient apiClient, Duration resyncPeriod, Duration maxStaleness) {
+        this.apiClient = apiClient;
+        this.resyncPeriod = resyncPeriod;
+        this.maxStalenessNanos = maxStaleness.toNanos();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("k8s-informer-" + instanceName + "-");
+        threadFactory.setDaemon(true);
+        this.informerThreads = Executors.newCachedThreadPool(threadFactory);
+        this.informerFactory = new SharedInformerFactory(apiClient, informerThreads);
+    }
+
+    // Returns the cached object, or null when the caller should read from the API server instead: the kind's
+    // informer has not synced yet, its list/watch has been failing for longer than the staleness bound, or the
+    // object is not cached (it may have been created after the last event the informer saw).
+    public Object get(Class<?> type, String apiVersion, String namespace, String name) {
+        if (uncacheableKinds.contains(type)) {
+            return null;
+        }
+        CachedKind kind = kinds.computeIfAbsent(type, key -> startInformer(type, apiVersion));
+        if (kind == null || !kind.informer.hasSynced()) {
+            return null;
+        }
+        if (kind.isStale(maxStalenessNanos)) {
+            logger.debug("Cache for {} is stale, reading from the API server", type.getSimpleName());
+            return null;
+        }
+        return kind.informer.getIndexer().getByKey(namespace + "/" + name);
+    }
+
+    public boolean hasSynced(Class<?> type) {
+        CachedKind kind = kinds.get(type);
+        return kind != null && kind.informer.hasSynced();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private CachedKind startInformer(Class<?> type, String apiVersion) {
+        try {
+            Class listType = Class.forName(type.getName() + "List");
+            String group = apiVersion.contains("/") ? apiVersion.substring(0, apiVersion.indexOf('/')) : "";
+            String version = apiVersion.substring(apiVersion.indexOf('/') + 1);
+            String kindName = kindOf(type);
+            GenericKubernetesApi api = new GenericKubernetesApi(type, listType, group, version, resourceOf(group, version, kindName), apiClient);
+
+            CachedKind kind = new CachedKind();
+            // Health comes from the reflector's own calls: a successful list clears a failure, and any list or
+            // watch error starts one. Handler callbacks cannot tell, as resyncs replay the local store.
+            ListerWatcher<KubernetesObject, KubernetesListObject> listerWatcher = new ListerWatcher<>() {
+                @Override
+                public KubernetesListObject list(CallGeneratorParams params) throws ApiException {
+                    KubernetesListObject list = (KubernetesListObject) api.list(listOptions(params)).throwsApiException().getObject();
+                    kind.listed();
+                    return list;
+                }
+
+                @Override
+                public Watchable<KubernetesObject> watch(CallGeneratorParams params) throws ApiException {
+                    return api.watch(listOptions(params));
+                }
+            };
+            SharedIndexInformer informer = informerFactory.sharedIndexInformerFor(listerWatcher, (Class) type, resyncPeriod.toMillis(),
+                    (failedType, error) -> kind.failed(error));
+            // List responses leave apiVersion and kind of their items empty; fill them in as a read returns them.
+            MethodHandle setApiVersion = KubernetesSelectorPlan.setter(type, "setApiVersion");
+            MethodHandle setKind = KubernetesSelectorPlan.setter(type, "setKind");
+            informer.setTransform(object -> {
+                try {
+                    setApiVersion.invokeExact((Object) object, apiVersion);
+                    setKind.invokeExact((Object) object, kindName);
+                } catch (Throwable t) {
+                    throw new ObjectTransformException("Cannot set apiVersion and kind: " + t);
+                }
+                return object;
+            });
+            kind.informer = informer;
+            informerFactory.startAllRegisteredInformers();
+            logger.info("Started informer cache for {} ({})", type.getSimpleName(), apiVersion);
+            return kind;
+        } catch (ReflectiveOperationException | ApiException | RuntimeException e) {
+            logger.warn("Cannot cache {}, reading it from the API server: {}", type.getSimpleName(), e.getMessage());
+            uncacheableKinds.add(type);
+            return null;
+        }
+    }
+
+    // The kind's resource name as the API server publishes it (NetworkPolicy -> networkpolicies, Endpoints -> endpoints).
+    private String resourceOf(String group, String version, String kind) throws ApiException {
+        String path = group.isEmpty() ? "/api/" + version : "/apis/" + group + "/" + version;
+        return new Discovery(apiClient).findAll(group, List.of(version), version, path).stream()
+                .filter(resource -> kind.equals(resource.getKind()))
+                .map(Discovery.APIResource::getResourcePlural)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("The API server does not serve " + kind + " in " + path));
+    }
+
+    private static ListOptions listOptions(CallGeneratorParams params) {
+        ListOptions options = new ListOptions();
+        options.setResourceVersion(params.resourceVersion);
+        options.setTimeoutSeconds(params.timeoutSeconds);
+        return options;
+    }
+
+    // V1NetworkPolicy -> NetworkPolicy
+    static String kindOf(Class<?> type) {
+        return type.getSimpleName().replaceFirst("^V\\d+((alpha|beta)\\d+)?", "");
+    }
+
+    @Override
+    public void close() {
+        informerFactory.stopAllRegisteredInformers(false);
+        informerThreads.shutdownNow();
+    }
+
+    private static final class CachedKind {
+        private volatile SharedIndexInformer<? extends KubernetesObject> informer;
+        // 0 while the last list/watch call succeeded, else when the current run of failures began.
+        private volatile long failingSinceNanos;
+
+        private void listed() {
+            failingSinceNanos = 0;
+        }
+
+        private void failed(Throwable error) {
+            if (failingSinceNanos == 0) {
+                logger.warn("Informer list/watch failed, cached objects age from now: {}", error.toString());
+                failingSinceNanos = System.nanoTime();
+            }
+        }
+
+        private boolean isStale(long maxStalenessNanos) {
+            long failingSince = failingSinceNanos;
+            return failingSince != 0 && System.nanoTime() - failingSince > maxStalenessNanos;
+        }
+    }
+}
@@ -3,22 +3,40 @@ package com.example.complianceapi.service;
 import com.example.complianceapi.config.PlatformInstanceConfig;
 import com.example.complianceapi.rules.Rule;
 import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.ApiException;
 import io.kubernetes.client.openapi.apis.AppsV1Api;
 import io.kubernetes.client.openapi.apis.CoreV1Api;
 import io.kubernetes.client.openapi.apis.NetworkingV1Api;
 import io.kubernetes.client.util.ClientBuilder;
 import io.kubernetes.client.util.KubeConfig;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.convert.DurationStyle;
 import org.springframework.stereotype.Component;
 
 import java.io.FileReader;
-import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
-public class KubernetesPlatformHandler implements PlatformHandler {
+public class KubernetesPlatformHandler implements PlatformHandler, DisposableBean {
+
+    private static final String CACHE = "cache";
+    private static final String CONTEXT = "context";
+    static final String WILDCARD = "*";
+    private static final Duration DEFAULT_RESYNC_PERIOD = Duration.ofMinutes(5);
+    private static final Duration DEFAULT_MAX_STALENESS = Duration.ofMinutes(15);
+
+    private static final Map<String, Class<?>> API_TYPES = Map.of(
+            "v1", CoreV1Api.class,
+            "apps/v1", AppsV1Api.class,
+            "networking.k8s.io/v1", NetworkingV1Api.class);
 
     private final Map<String, ApiClient> clientCache = new ConcurrentHashMap<>();
+    private final Map<String, KubernetesObjectCache> objectCaches = new ConcurrentHashMap<>();
+    private final AtomicLong clientsCreated = new AtomicLong();
 
     @Override
     public String getPlatformName() {
@@ -26,7 +44,7 @@ public class KubernetesPlatformHandler implements PlatformHandler {
     }
 
     @Override
-    public Object getClient(String service, PlatformInstanceConfig config) {
+    public Object getClient(String service, PlatformInstanceConfig config, String identifier) {
         ApiClient apiClient = getApiClient(config);
         return switch (service) {
             case "v1" -> new CoreV1Api(apiClient);
@@ -37,29 +55,80 @@ public class KubernetesPlatformHandler implements PlatformHandler {
     }
 
     private ApiClient getApiClient(PlatformInstanceConfig config) {
-        String cacheKey = config.getName();
-        return clientCache.computeIfAbsent(cacheKey, key -> {
-            try {
-                String kubeconfigPath = config.getProperties().get("kubeconfig");
-                KubeConfig kubeConfig = KubeConfig.loadKubeConfig(new FileReader(kubeconfigPath));
-                kubeConfig.setContext(config.getProperties().get("context"));
-                return ClientBuilder.kubeconfig(kubeConfig).build();
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to create Kubernetes client for instance: " + key, e);
-            }
+        return clientCache.computeIfAbsent(config.getName(), key -> buildApiClient(config));
+    }
+
+    private ApiClient buildApiClient(PlatformInstanceConfig config) {
+        clientsCreated.incrementAndGet();
+        try {
+            String kubeconfigPath = config.getProperties().get("kubeconfig");
+            KubeConfig kubeConfig = KubeConfig.loadKubeConfig(new FileReader(kubeconfigPath));
+            kubeConfig.setContext(config.getProperties().get(CONTEXT));
+            return ClientBuilder.kubeconfig(kubeConfig).build();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to create Kubernetes client for instance: " + config.getName(), e);
+        }
+    }
+
+    @Override
+    public long getClientsCreated() {
+        return clientsCreated.get();
+    }
+
+    // One API client per instance, plus one watch client per instance with an object cache.
+    @Override
+    public int getClientCount() {
+        return clientCache.size() + objectCaches.size();
+    }
+
+    // Opt-in per instance with "cache: true"; "cache.resyncPeriod" and "cache.maxStaleness" tune the informers.
+    @Override
+    public Object lookupCached(RuleExecutionPlan plan, Object request, PlatformInstanceConfig config) {
+        if (config.getProperties() == null || !Boolean.parseBoolean(config.getProperties().get(CACHE))) {
+            return null;
+        }
+        KubernetesObjectCache cache = objectCaches.computeIfAbsent(config.getName(), key -> {
+            ApiClient watchClient = buildApiClient(config);
+            // Watches are long-lived requests and must not hit the client's read timeout.
+            watchClient.setReadTimeout(0);
+            return new KubernetesObjectCache(key, watchClient,
+                    durationProperty(config, CACHE + ".resyncPeriod", DEFAULT_RESYNC_PERIOD),
+                    durationProperty(config, CACHE + ".maxStaleness", DEFAULT_MAX_STALENESS));
         });
+        Map<?, ?> params = (Map<?, ?>) request;
+        return cache.get(((KubernetesRuleExecutionPlan) plan).getResponseType(), plan.getRule().getService(),
+                (String) params.get("namespace"), (String) params.get("name"));
+    }
+
+    private Duration durationProperty(PlatformInstanceConfig config, String key, Duration defaultValue) {
+        String value = config.getProperties().get(key);
+        return value == null ? defaultValue : DurationStyle.detectAndParse(value);
     }
 
     @Override
-    public Object buildApiRequest(Rule rule, String resourceIdentifier) {
-        // For the Kubernetes client, the request is not a single object but rather the parameters to the method call.
-        // This method will return a map of parameters to be used with reflection.
-        Map<String, String> parsedId = parseIdentifierParts(resourceIdentifier);
+    public void destroy() {
+        objectCaches.values().forEach(KubernetesObjectCache::close);
+    }
 
-        return Map.of(
-            "namespace", parsedId.get("namespace"),
-            "name", parsedId.get("name")
-        );
+    @Override
+    public RuleExecutionPlan compileRule(Rule rule) {
+        Class<?> apiType = API_TYPES.get(rule.getService());
+        if (apiType == null) {
+            throw new IllegalArgumentException("Rule '" + rule.getId() + "': unsupported Kubernetes API group " + rule.getService());
+        }
+        return KubernetesRuleExecutionPlan.compile(rule, apiType);
+    }
+
+    @Override
+    public boolean isThrottling(Throwable error) {
+        return error instanceof ApiException apiException && apiException.getCode() == 429;
+    }
+
+    // Code 0 means the request never got a response (connection reset, timeout).
+    @Override
+    public boolean isRetryable(Throwable error) {
+        return error instanceof ApiException apiException
+                && (apiException.getCode() == 0 || apiException.getCode() == 429 || apiException.getCode() >= 500);
     }
 
     @Override
@@ -67,27 +136,63 @@ public class KubernetesPlatformHandler implements PlatformHandler {
         return parseIdentifierParts(resourceIdentifier).get("apiVersion");
     }
 
-    private Map<String, String> parseIdentifierParts(String identifier) {
+    // "apps/v1/Deployment/payments/*" is every Deployment in payments, "apps/v1/Deployment/*/*" every Deployment
+    // in the cluster; either may end in "?labelSelector", e.g. "v1/Pod/*/*?app=web,tier!=canary".
+    @Override
+    public boolean isSelector(String resourceIdentifier) {
+        return pathOf(resourceIdentifier).endsWith("/" + WILDCARD);
+    }
+
+    // Identifiers may be prefixed with the instance's context or name, e.g. "eks-prod:apps/v1/Deployment/ns/app",
+    // to route them in requests that span instances.
+    @Override
+    public int routingScore(String resourceIdentifier, PlatformInstanceConfig config) {
+        if (resourceIdentifier.startsWith("arn:")) {
+            return -1;
+        }
+        String path = pathOf(resourceIdentifier);
+        int prefixEnd = path.indexOf(':');
+        if (prefixEnd < 0) {
+            return 0;
+        }
+        String prefix = path.substring(0, prefixEnd);
+        return prefix.equals(config.getName()) || prefix.equals(config.getProperties().get(CONTEXT)) ? 1 : -1;
+    }
+
+    static Map<String, String> parseIdentifierParts(String identifier) {
         try {
-            String[] parts = identifier.split("/");
-            if (parts.length == 4) { // e.g., apps/v1/Deployment/my-app-ns/my-app
-                return Map.of(
-                        "apiVersion", parts[0] + "/" + parts[1],
-                        "kind", parts[2],
-                        "namespace", parts[3],
-                        "name", parts[4]
-                );
-            } else if (parts.length == 3) { // e.g., v1/Pod/my-app-ns/my-pod
-                return Map.of(
-                        "apiVersion", parts[0],
-                        "kind", parts[1],
-                        "namespace", parts[2],
-                        "name", parts[3]
-                );
+            String path = pathOf(identifier);
+            String[] parts = path.substring(path.indexOf(':') + 1).split("/");
+            Map<String, String> parsed = new HashMap<>();
+            if (parts.length == 5) { // e.g., apps/v1/Deployment/my-app-ns/my-app
+                parsed.put("apiVersion", parts[0] + "/" + parts[1]);
+                parsed.put("kind", parts[2]);
+                parsed.put("namespace", parts[3]);
+                parsed.put("name", parts[4]);
+            } else if (parts.length == 4) { // e.g., v1/Pod/my-app-ns/my-pod
+                parsed.put("apiVersion", parts[0]);
+                parsed.put("kind", parts[1]);
+                parsed.put("namespace", parts[2]);
+                parsed.put("name", parts[3]);
+            } else {
+                throw new IllegalArgumentException();
+            }
+            if (WILDCARD.equals(parsed.get("namespace")) && !WILDCARD.equals(parsed.get("name"))) {
+                throw new IllegalArgumentException();
+            }
+            if (path.length() < identifier.length()) {
+                parsed.put("labelSelector", identifier.substring(path.length() + 1));
             }
-            throw new IllegalArgumentException();
+            return parsed;
         } catch (Exception e) {
-            throw new IllegalArgumentException("Invalid Kubernetes identifier format. Expected [apiVersion]/[kind]/[namespace]/[name], but got: " + identifier);
+            throw new IllegalArgumentException("Invalid Kubernetes identifier format. Expected [context:][apiVersion]/[kind]/[namespace]/[name]"
+                    + " or [context:][apiVersion]/[kind]/[namespace|*]/*[?labelSelector], but got: " + identifier);
         }
     }
+
+    // The identifier without its label selector.
+    static String pathOf(String identifier) {
+        int query = identifier.indexOf('?');
+        return query < 0 ? identifier : identifier.substring(0, query);
+    }
 }
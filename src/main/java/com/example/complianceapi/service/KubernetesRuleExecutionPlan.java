@@ -0,0 +1,106 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.rules.Rule;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+
+public class KubernetesRuleExecutionPlan implements RuleExecutionPlan {
+
+    private final Rule rule;
+    // (api, name, namespace) -> response, with every optional trailing parameter bound to null.
+    private final MethodHandle apiCall;
+    private final Class<?> responseType;
+    // Compiled against the typed model (spec.replicas -> getSpec().getReplicas()); null returns the whole object.
+    private final ResponseExtractor responseExtractor;
+    private final SelectorPlan selectorPlan;
+
+    private KubernetesRuleExecutionPlan(Rule rule, MethodHandle apiCall, Class<?> responseType, ResponseExtractor responseExtractor,
+                                        Class<?> apiType) {
+        this.rule = rule;
+        this.apiCall = apiCall;
+        this.responseType = responseType;
+        this.responseExtractor = responseExtractor;
+        this.selectorPlan = KubernetesSelectorPlan.compile(rule.getCollection().getApiCall(), apiType, responseType, this::extractData);
+    }
+
+    public static KubernetesRuleExecutionPlan compile(Rule rule, Class<?> apiType) {
+        String apiCallName = rule.getCollection().getApiCall();
+        Method method = Arrays.stream(apiType.getMethods())
+                .filter(m -> m.getName().equals(apiCallName))
+                .filter(m -> m.getParameterCount() >= 2
+                        && m.getParameterTypes()[0] == String.class && m.getParameterTypes()[1] == String.class)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Rule '" + rule.getId() + "': no method " + apiCallName
+                        + "(name, namespace, ...) on " + apiType.getSimpleName()));
+        try {
+            MethodHandle handle = MethodHandles.publicLookup().unreflect(method);
+            Object[] optionalArguments = new Object[method.getParameterCount() - 2];
+            handle = MethodHandles.insertArguments(handle, 3, optionalArguments)
+                    .asType(MethodType.methodType(Object.class, Object.class, String.class, String.class));
+
+            ResponseExtractor responseExtractor = ".".equals(rule.getCollection().getResponseField()) ? null
+                    : ResponseExtractor.compile(method.getGenericReturnType(), rule.getCollection());
+            return new KubernetesRuleExecutionPlan(rule, handle, method.getReturnType(), responseExtractor, apiType);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Rule '" + rule.getId() + "': inaccessible method " + apiCallName, e);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Rule '" + rule.getId() + "': " + e.getMessage());
+        }
+    }
+
+    @Override
+    public Rule getRule() {
+        return rule;
+    }
+
+    // The model class the API call returns, e.g. V1Deployment.
+    public Class<?> getResponseType() {
+        return responseType;
+    }
+
+    @Override
+    public Object buildRequest(String resourceIdentifier) {
+        // For the Kubernetes client, the request is not a single object but rather the parameters to the method call.
+        Map<String, String> parsedId = KubernetesPlatformHandler.parseIdentifierParts(resourceIdentifier);
+        return Map.of(
+                "namespace", parsedId.get("namespace"),
+                "name", parsedId.get("name")
+        );
+    }
+
+    @Override
+    public Object execute(Object client, Object request) throws Exception {
+        Map<?, ?> params = (Map<?, ?>) request;
+        try {
+            return (Object) apiCall.invokeExact(client, (String) params.get("name"), (String) params.get("namespace"));
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    @Override
+    public Object extractData(Object response) {
+        if (responseExtractor == null) {
+            return KubernetesModelTree.toTree(response);
+        }
+        return KubernetesModelTree.toValue(responseExtractor.extract(response));
+    }
+
+    @Override
+    public void warmUp() throws Exception {
+        buildRequest(rule.getService() + "/" + responseType.getSimpleName() + "/warmup/warmup");
+        CompactValues.compact(extractData(responseType.getConstructor().newInstance()));
+    }
+
+    @Override
+    public SelectorPlan getSelectorPlan() {
+        return selectorPlan;
+    }
+}
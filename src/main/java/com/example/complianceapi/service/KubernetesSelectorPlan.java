@@ -0,0 +1,152 @@
+package com.example.complianceapi.service;
+
+import io.kubernetes.client.common.KubernetesListObject;
+import io.kubernetes.client.common.KubernetesObject;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+
+// Sweeps "[context:]apiVersion/Kind/namespace/*" and "[context:]apiVersion/Kind/*/*" selectors, optionally
+// followed by "?labelSelector", with the kind's listNamespaced* and list*ForAllNamespaces calls, chunked with
+// limit/continue. Items are the same models the read call returns, so the rule's extraction applies as is.
+public class KubernetesSelectorPlan implements SelectorPlan {
+
+    // Positions in the generated list methods' parameter lists.
+    private static final int NAMESPACED_PARAMETERS = 12;
+    private static final int NAMESPACED_NAMESPACE = 0;
+    private static final int NAMESPACED_CONTINUE = 3;
+    private static final int NAMESPACED_LABEL_SELECTOR = 5;
+    private static final int NAMESPACED_LIMIT = 6;
+    private static final int ALL_NAMESPACES_PARAMETERS = 11;
+    private static final int ALL_NAMESPACES_CONTINUE = 1;
+    private static final int ALL_NAMESPACES_LABEL_SELECTOR = 3;
+    private static final int ALL_NAMESPACES_LIMIT = 4;
+
+    private final String kind;
+    private final String apiCall;
+    // (api, arguments) -> list response
+    private final MethodHandle listNamespaced;
+    private final MethodHandle listAllNamespaces;
+    // List responses leave apiVersion and kind of their items empty; these fill them in as a read would return them.
+    private final MethodHandle setApiVersion;
+    private final MethodHandle setKind;
+    private final Function<Object, Object> extractor;
+
+    private KubernetesSelectorPlan(String kind, String apiCall, MethodHandle listNamespaced, MethodHandle listAllNamespaces,
+                                   MethodHandle setApiVersion, MethodHandle setKind, Function<Object, Object> extractor) {
+        this.kind = kind;
+        this.apiCall = apiCall;
+        this.listNamespaced = listNamespaced;
+        this.listAllNamespaces = listAllNamespaces;
+        this.setApiVersion = setApiVersion;
+        this.setKind = setKind;
+        this.extractor = extractor;
+    }
+
+    // Null when the read call has no matching list calls (e.g. cluster-scoped kinds).
+    static KubernetesSelectorPlan compile(String readCall, Class<?> apiType, Class<?> itemType, Function<Object, Object> extractor) {
+        if (!readCall.startsWith("readNamespaced")) {
+            return null;
+        }
+        String kind = readCall.substring("readNamespaced".length());
+        Method namespaced = listMethod(apiType, "listNamespaced" + kind, NAMESPACED_PARAMETERS, NAMESPACED_CONTINUE, NAMESPACED_LIMIT);
+        Method allNamespaces = listMethod(apiType, "list" + kind + "ForAllNamespaces", ALL_NAMESPACES_PARAMETERS, ALL_NAMESPACES_CONTINUE,
+                ALL_NAMESPACES_LIMIT);
+        if (namespaced == null || allNamespaces == null) {
+            return null;
+        }
+        try {
+            return new KubernetesSelectorPlan(kind, namespaced.getName(), spread(namespaced), spread(allNamespaces),
+                    setter(itemType, "setApiVersion"), setter(itemType, "setKind"), extractor);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static Method listMethod(Class<?> apiType, String name, int parameters, int continuePosition, int limitPosition) {
+        return Arrays.stream(apiType.getMethods())
+                .filter(m -> m.getName().equals(name) && m.getParameterCount() == parameters)
+                .filter(m -> KubernetesListObject.class.isAssignableFrom(m.getReturnType()))
+                .filter(m -> m.getParameterTypes()[continuePosition] == String.class && m.getParameterTypes()[limitPosition] == Integer.class)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static MethodHandle spread(Method method) throws IllegalAccessException {
+        return MethodHandles.publicLookup().unreflect(method)
+                .asSpreader(Object[].class, method.getParameterCount())
+                .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+    }
+
+    static MethodHandle setter(Class<?> itemType, String name) throws ReflectiveOperationException {
+        return MethodHandles.publicLookup().unreflect(itemType.getMethod(name, String.class))
+                .asType(MethodType.methodType(void.class, Object.class, String.class));
+    }
+
+    @Override
+    public String getApiCall() {
+        return apiCall;
+    }
+
+    @Override
+    public boolean matches(String selector) {
+        return kind.equals(KubernetesPlatformHandler.parseIdentifierParts(selector).get("kind"));
+    }
+
+    @Override
+    public Page list(Object client, String selector, String continueToken, int limit) throws Exception {
+        Map<String, String> parts = KubernetesPlatformHandler.parseIdentifierParts(selector);
+        String namespace = parts.get("namespace");
+        Object[] arguments;
+        MethodHandle call;
+        if (KubernetesPlatformHandler.WILDCARD.equals(namespace)) {
+            arguments = new Object[ALL_NAMESPACES_PARAMETERS];
+            arguments[ALL_NAMESPACES_CONTINUE] = continueToken;
+            arguments[ALL_NAMESPACES_LABEL_SELECTOR] = parts.get("labelSelector");
+            arguments[ALL_NAMESPACES_LIMIT] = limit;
+            call = listAllNamespaces;
+        } else {
+            arguments = new Object[NAMESPACED_PARAMETERS];
+            arguments[NAMESPACED_NAMESPACE] = namespace;
+            arguments[NAMESPACED_CONTINUE] = continueToken;
+            arguments[NAMESPACED_LABEL_SELECTOR] = parts.get("labelSelector");
+            arguments[NAMESPACED_LIMIT] = limit;
+            call = listNamespaced;
+        }
+
+        KubernetesListObject response;
+        try {
+            response = (KubernetesListObject) (Object) call.invokeExact(client, arguments);
+            for (KubernetesObject item : response.getItems()) {
+                setApiVersion.invokeExact((Object) item, parts.get("apiVersion"));
+                setKind.invokeExact((Object) item, kind);
+            }
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+        String next = response.getMetadata() == null ? null : response.getMetadata().getContinue();
+        return new Page(response.getItems(), next == null || next.isEmpty() ? null : next);
+    }
+
+    @Override
+    public String identifierOf(String selector, Object item) {
+        String path = KubernetesPlatformHandler.pathOf(selector);
+        String prefix = path.substring(0, path.indexOf(':') + 1);
+        Map<String, String> parts = KubernetesPlatformHandler.parseIdentifierParts(selector);
+        V1ObjectMeta metadata = ((KubernetesObject) item).getMetadata();
+        return prefix + parts.get("apiVersion") + "/" + kind + "/" + metadata.getNamespace() + "/" + metadata.getName();
+    }
+
+    @Override
+    public Object extractData(Object item) {
+        return extractor.apply(item);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.model.Evidence;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+public class LoggingEvidenceSink implements EvidenceSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingEvidenceSink.class);
+
+    @Override
+    public void write(List<Evidence> batch) {
+        logger.info("Storing {} evidence items (simulation):", batch.size());
+        batch.forEach(evidence -> logger.info(" - {}", evidence));
+    }
+}
@@ -5,7 +5,54 @@ import com.example.complianceapi.rules.Rule;
 
 public interface PlatformHandler {
     String getPlatformName();
-    Object getClient(String service, PlatformInstanceConfig config);
-    Object buildApiRequest(Rule rule, String resourceIdentifier);
+
+    // The identifier is the resource the client is for; handlers may route on it, e.g. to the ARN's region.
+    // It is null when the client is built at startup, ahead of any request.
+    Object getClient(String service, PlatformInstanceConfig config, String identifier);
+
+    // The non-blocking client used for instances with "async: true"; only called for plans that support async.
+    default Object getAsyncClient(String service, PlatformInstanceConfig config, String identifier) {
+        throw new UnsupportedOperationException(getPlatformName() + " has no async clients");
+    }
+    RuleExecutionPlan compileRule(Rule rule);
     String parseServiceFromIdentifier(String resourceIdentifier);
+
+    // Selector identifiers stand for every resource they match and are collected through the rules' SelectorPlan.
+    default boolean isSelector(String resourceIdentifier) {
+        return false;
+    }
+
+    // Routes identifiers of requests that span instances. Negative: the instance cannot serve the identifier;
+    // 0: the identifier does not name an instance; positive: it names this one, higher for a closer match.
+    default int routingScore(String resourceIdentifier, PlatformInstanceConfig config) {
+        return 0;
+    }
+
+    // Lets a handler answer a request from local state instead of a live API call; null means call the API.
+    default Object lookupCached(RuleExecutionPlan plan, Object request, PlatformInstanceConfig config) {
+        return null;
+    }
+
+    // Throttling responses slow the RateGovernor down for the call; retryable errors are retried by it.
+    default boolean isThrottling(Throwable error) {
+        return false;
+    }
+
+    default boolean isRetryable(Throwable error) {
+        return isThrottling(error);
+    }
+
+    // Failures that say the instance itself is unreachable or unhealthy; they count towards its circuit breaker.
+    default boolean isUnavailable(Throwable error) {
+        return isRetryable(error) && !isThrottling(error);
+    }
+
+    // Client pool statistics for metrics: clients built since startup, and clients currently held.
+    default long getClientsCreated() {
+        return 0;
+    }
+
+    default int getClientCount() {
+        return 0;
+    }
 }
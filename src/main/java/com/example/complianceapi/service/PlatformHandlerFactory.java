@@ -30,6 +30,10 @@ public class PlatformHandlerFactory {
         return handler;
     }
 
+    public boolean hasHandler(String platformName) {
+        return handlerMap.containsKey(platformName.toLowerCase());
+    }
+
     public String getPlatformType(PlatformInstanceConfig instanceConfig) {
         return config.getPlatforms().getInstances().entrySet().stream()
                 .filter(entry -> entry.getValue().stream().anyMatch(c -> c.getName().equals(instanceConfig.getName())))
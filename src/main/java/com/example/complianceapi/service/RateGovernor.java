@@ -0,0 +1,169 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.config.ComplianceCollectorConfig;
+import com.example.complianceapi.config.PlatformInstanceConfig;
+import com.example.complianceapi.config.RateLimitConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Paces upstream calls per (instance, service, apiCall) with an adaptive token bucket and retries retryable
+// failures with jittered exponential backoff. Throttling responses lower the bucket's rate; successes raise it
+// again, so each API settles near the highest rate it accepts. No wait reaches past the request's deadline:
+// a call that would have to wait longer fails instead.
+@Component
+public class RateGovernor {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateGovernor.class);
+    static final String MAX_RATE = "maxRate";
+
+    private final RateLimitConfig config;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AdaptiveRateLimiter> limiters = new ConcurrentHashMap<>();
+
+    public RateGovernor(ComplianceCollectorConfig config, MeterRegistry meterRegistry) {
+        this.config = config.getRateLimits();
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T call(PlatformInstanceConfig instance, String service, String apiCall, PlatformHandler handler, long deadline,
+                      Callable<T> call) throws Exception {
+        if (!config.isEnabled()) {
+            return call.call();
+        }
+        AdaptiveRateLimiter limiter = limiter(instance, service, apiCall);
+        long backoff = config.getInitialBackoff().toMillis();
+        for (int attempt = 1; ; attempt++) {
+            long waitNanos = limiter.reserve(deadline);
+            if (waitNanos < 0) {
+                throw pastDeadline(instance, apiCall);
+            }
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+            long delay;
+            try {
+                T result = call.call();
+                limiter.onSuccess();
+                return result;
+            } catch (Exception e) {
+                if (handler.isThrottling(e)) {
+                    limiter.onThrottle();
+                }
+                delay = ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1);
+                if (attempt >= config.getMaxAttempts() || !handler.isRetryable(e)
+                        || System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay) >= deadline) {
+                    throw e;
+                }
+                logger.debug("{} on {} failed (attempt {} of {}), retrying: {}", apiCall, instance.getName(), attempt, config.getMaxAttempts(), e.getMessage());
+            }
+            Thread.sleep(delay);
+            backoff = Math.min(backoff * 2, config.getMaxBackoff().toMillis());
+        }
+    }
+
+    // Non-blocking variant of call for calls that return a future. Waiting for a token and backing off before a
+    // retry are scheduled delays rather than sleeps, so no thread is held while a call is paced or retried.
+    public <T> CompletableFuture<T> callAsync(PlatformInstanceConfig instance, String service, String apiCall,
+                                              PlatformHandler handler, long deadline, Callable<CompletableFuture<T>> call) {
+        if (!config.isEnabled()) {
+            return start(call);
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attemptAsync(limiter(instance, service, apiCall), instance, apiCall, handler, deadline, call, 1,
+                config.getInitialBackoff().toMillis(), result);
+        return result;
+    }
+
+    private <T> void attemptAsync(AdaptiveRateLimiter limiter, PlatformInstanceConfig instance, String apiCall,
+                                  PlatformHandler handler, long deadline, Callable<CompletableFuture<T>> call, int attempt, long backoff,
+                                  CompletableFuture<T> result) {
+        long waitNanos = limiter.reserve(deadline);
+        if (waitNanos < 0) {
+            result.completeExceptionally(pastDeadline(instance, apiCall));
+            return;
+        }
+        Executor executor = waitNanos > 0 ? CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS) : Runnable::run;
+        executor.execute(() -> start(call).whenComplete((value, error) -> {
+            if (error == null) {
+                limiter.onSuccess();
+                result.complete(value);
+                return;
+            }
+            Throwable cause = causeOf(error);
+            if (handler.isThrottling(cause)) {
+                limiter.onThrottle();
+            }
+            long delay = ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1);
+            if (attempt >= config.getMaxAttempts() || !handler.isRetryable(cause)
+                    || System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay) >= deadline) {
+                result.completeExceptionally(cause);
+                return;
+            }
+            logger.debug("{} on {} failed (attempt {} of {}), retrying: {}", apiCall, instance.getName(), attempt, config.getMaxAttempts(), cause.getMessage());
+            CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS).execute(() -> attemptAsync(limiter, instance, apiCall,
+                    handler, deadline, call, attempt + 1, Math.min(backoff * 2, config.getMaxBackoff().toMillis()), result));
+        }));
+    }
+
+    private static TimeoutException pastDeadline(PlatformInstanceConfig instance, String apiCall) {
+        return new TimeoutException("Rate limit of " + apiCall + " on " + instance.getName() + " leaves no time before the request deadline");
+    }
+
+    static <T> CompletableFuture<T> start(Callable<CompletableFuture<T>> call) {
+        try {
+            return call.call();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // Futures report failures wrapped in CompletionException; handlers classify the underlying error.
+    static Throwable causeOf(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    // Current calls per second by "instance/service/apiCall"; Infinity while an API has not throttled yet.
+    public Map<String, Double> getRates() {
+        Map<String, Double> rates = new TreeMap<>();
+        limiters.forEach((key, limiter) -> rates.put(key, limiter.getRate()));
+        return rates;
+    }
+
+    private AdaptiveRateLimiter limiter(PlatformInstanceConfig instance, String service, String apiCall) {
+        return limiters.computeIfAbsent(instance.getName() + "/" + service + "/" + apiCall, key -> {
+            AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(config, maxRate(instance, service));
+            Gauge.builder("collector.rate.limit", limiter, AdaptiveRateLimiter::getRate)
+                    .description("Current calls per second allowed by the rate governor")
+                    .tags("instance", instance.getName(), "service", service, "apiCall", apiCall)
+                    .register(meterRegistry);
+            return limiter;
+        });
+    }
+
+    private double maxRate(PlatformInstanceConfig instance, String service) {
+        Map<String, String> properties = instance.getProperties() == null ? Map.of() : instance.getProperties();
+        String value = properties.getOrDefault(MAX_RATE + "." + service, properties.get(MAX_RATE));
+        if (value == null) {
+            return config.getMaxRate();
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for '" + MAX_RATE + "' on instance " + instance.getName() + ": " + value);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.rules.Collection;
+
+import java.lang.reflect.Type;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Pre-compiled form of a rule's responseField / responseFields against a typed response.
+public final class ResponseExtractor {
+
+    private final ResponseFieldPath field;
+    private final List<ResponseFieldPath> fields;
+
+    private ResponseExtractor(ResponseFieldPath field, List<ResponseFieldPath> fields) {
+        this.field = field;
+        this.fields = fields;
+    }
+
+    public static ResponseExtractor compile(Type responseType, Collection collection) {
+        return compile(responseType, collection.getResponseField(), collection.getResponseFields());
+    }
+
+    public static ResponseExtractor compile(Type responseType, String responseField, List<String> responseFields) {
+        if (responseField != null) {
+            return new ResponseExtractor(ResponseFieldPath.compile(responseType, responseField), null);
+        }
+        if (responseFields != null) {
+            return new ResponseExtractor(null, responseFields.stream()
+                    .map(path -> ResponseFieldPath.compile(responseType, path))
+                    .toList());
+        }
+        return new ResponseExtractor(null, null);
+    }
+
+    public Object extract(Object response) {
+        if (field != null) {
+            return field.read(response);
+        }
+        if (fields != null) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (ResponseFieldPath path : fields) {
+                values.put(path.getPath(), path.read(response));
+            }
+            return values;
+        }
+        return "No response field specified";
+    }
+}
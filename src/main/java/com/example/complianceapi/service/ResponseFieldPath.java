@@ -0,0 +1,132 @@
+package com.example.complianceapi.service;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// A dotted response path such as "rules[0].applyServerSideEncryptionByDefault.sseAlgorithm", resolved to
+// accessor handles against the statically known response type.
+public final class ResponseFieldPath {
+
+    private static final Pattern SEGMENT = Pattern.compile("([A-Za-z_$][A-Za-z0-9_$]*)(?:\\[(\\d+)])?");
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodHandle ELEMENT_AT;
+
+    static {
+        try {
+            ELEMENT_AT = MethodHandles.lookup().findStatic(ResponseFieldPath.class, "elementAt",
+                    MethodType.methodType(Object.class, Object.class, int.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final String path;
+    private final MethodHandle[] steps;
+    private final Type type;
+
+    private ResponseFieldPath(String path, MethodHandle[] steps, Type type) {
+        this.path = path;
+        this.steps = steps;
+        this.type = type;
+    }
+
+    public static ResponseFieldPath compile(Type rootType, String path) {
+        List<MethodHandle> steps = new ArrayList<>();
+        Type current = rootType;
+        for (String segment : path.split("\\.")) {
+            Matcher matcher = SEGMENT.matcher(segment);
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("Invalid response field segment '" + segment + "' in '" + path + "'");
+            }
+            Method getter = findGetter(rawType(current), matcher.group(1), path);
+            try {
+                steps.add(MethodHandles.publicLookup().unreflect(getter).asType(ACCESSOR_TYPE));
+            } catch (IllegalAccessException e) {
+                throw new IllegalArgumentException("Accessor '" + getter + "' is not accessible for '" + path + "'", e);
+            }
+            current = getter.getGenericReturnType();
+
+            if (matcher.group(2) != null) {
+                if (!List.class.isAssignableFrom(rawType(current))) {
+                    throw new IllegalArgumentException("Field '" + matcher.group(1) + "' in '" + path + "' is not a list");
+                }
+                steps.add(MethodHandles.insertArguments(ELEMENT_AT, 1, Integer.parseInt(matcher.group(2))));
+                current = current instanceof ParameterizedType parameterized
+                        ? parameterized.getActualTypeArguments()[0]
+                        : Object.class;
+            }
+        }
+        return new ResponseFieldPath(path, steps.toArray(new MethodHandle[0]), current);
+    }
+
+    public Object read(Object root) {
+        Object value = root;
+        try {
+            for (MethodHandle step : steps) {
+                if (value == null) {
+                    return null;
+                }
+                value = (Object) step.invokeExact(value);
+            }
+            return value;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Failed to read response field '" + path + "'", t);
+        }
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    // The declared type of the value this path reads, e.g. List<SecretListEntry>.
+    public Type getType() {
+        return type;
+    }
+
+    public Type getElementType() {
+        if (type instanceof ParameterizedType parameterized && List.class.isAssignableFrom(rawType(type))) {
+            return parameterized.getActualTypeArguments()[0];
+        }
+        throw new IllegalArgumentException("Response field '" + path + "' is not a list");
+    }
+
+    private static Method findGetter(Class<?> type, String field, String path) {
+        String capitalized = Character.toUpperCase(field.charAt(0)) + field.substring(1);
+        for (String candidate : List.of(field, "get" + capitalized, "is" + capitalized)) {
+            try {
+                Method method = type.getMethod(candidate);
+                if (method.getReturnType() != void.class) {
+                    return method;
+                }
+            } catch (NoSuchMethodException ignored) {
+                // try the next naming convention
+            }
+        }
+        throw new IllegalArgumentException("No accessor for field '" + field + "' of " + type.getSimpleName() + " in '" + path + "'");
+    }
+
+    private static Class<?> rawType(Type type) {
+        if (type instanceof Class<?> clazz) {
+            return clazz;
+        }
+        if (type instanceof ParameterizedType parameterized) {
+            return (Class<?>) parameterized.getRawType();
+        }
+        return Object.class;
+    }
+
+    private static Object elementAt(Object list, int index) {
+        List<?> elements = (List<?>) list;
+        return index < elements.size() ? elements.get(index) : null;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.rules.Rule;
+
+import java.util.concurrent.CompletableFuture;
+
+// A rule resolved against its platform SDK once at startup, so executing it needs no reflective lookups.
+public interface RuleExecutionPlan {
+    Rule getRule();
+    Object buildRequest(String resourceIdentifier);
+    Object execute(Object client, Object request) throws Exception;
+    Object extractData(Object response);
+
+    // True when the platform SDK has a non-blocking variant of the api call.
+    default boolean supportsAsync() {
+        return false;
+    }
+
+    // Starts the call on the handler's async client; the future completes with the same response as execute.
+    default CompletableFuture<Object> executeAsync(Object asyncClient, Object request) throws Exception {
+        throw new UnsupportedOperationException("Rule '" + getRule().getId() + "' has no async api call");
+    }
+
+    // Present when the rule declares a bulk collection mode that its platform supports.
+    default BatchPlan getBatchPlan() {
+        return null;
+    }
+
+    // Present when the platform can list the resources a selector identifier matches.
+    default SelectorPlan getSelectorPlan() {
+        return null;
+    }
+
+    // Builds a request for a placeholder identifier and extracts from an empty response, without calling the
+    // platform, so the SDK classes and code paths of the first real request are loaded before traffic arrives.
+    default void warmUp() throws Exception {
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.rules.Rule;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Compiled rules indexed by name, by id, and by (platform, service), so a request only joins each identifier
+// with the rules of its own service.
+public class RuleIndex {
+
+    private final Map<String, RuleExecutionPlan> byNameOrId = new HashMap<>();
+    private final Map<String, Map<String, List<RuleExecutionPlan>>> byPlatformAndService = new HashMap<>();
+
+    public RuleIndex(Collection<RuleExecutionPlan> plans) {
+        List<RuleExecutionPlan> ordered = new ArrayList<>(plans);
+        ordered.sort(Comparator.comparing(plan -> plan.getRule().getId()));
+        for (RuleExecutionPlan plan : ordered) {
+            Rule rule = plan.getRule();
+            byNameOrId.put(rule.getName(), plan);
+            byNameOrId.putIfAbsent(rule.getId(), plan);
+            byPlatformAndService.computeIfAbsent(rule.getPlatform().toLowerCase(), key -> new HashMap<>())
+                    .computeIfAbsent(rule.getService(), key -> new ArrayList<>())
+                    .add(plan);
+        }
+    }
+
+    // Accepts the rule name (the ruleSetField) or the rule id.
+    public RuleExecutionPlan find(String nameOrId) {
+        return byNameOrId.get(nameOrId);
+    }
+
+    public List<RuleExecutionPlan> forService(String platform, String service) {
+        return byPlatformAndService.getOrDefault(platform.toLowerCase(), Map.of()).getOrDefault(service, List.of());
+    }
+
+    // The requested rules grouped by service, in request order; no requested rules means every rule of the platform.
+    public Map<String, List<RuleExecutionPlan>> selectByService(String platform, List<String> ruleSetFields) {
+        Map<String, List<RuleExecutionPlan>> selected = new LinkedHashMap<>();
+        if (ruleSetFields == null || ruleSetFields.isEmpty()) {
+            byPlatformAndService.getOrDefault(platform.toLowerCase(), Map.of())
+                    .forEach((service, plans) -> selected.put(service, plans));
+            return selected;
+        }
+        for (String ruleSetField : ruleSetFields) {
+            RuleExecutionPlan plan = find(ruleSetField);
+            if (plan != null && plan.getRule().getPlatform().equalsIgnoreCase(platform)) {
+                List<RuleExecutionPlan> plans = selected.computeIfAbsent(plan.getRule().getService(), key -> new ArrayList<>());
+                if (!plans.contains(plan)) {
+                    plans.add(plan);
+                }
+            }
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.config.RulesConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+// Holds the current RuleSnapshot and replaces it atomically when the ruleset directory changes. A reload that
+// fails validation or compilation is rejected and the previous snapshot stays active; at startup it fails the boot.
+public class RuleRegistry implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(RuleRegistry.class);
+
+    private final RulesConfig config;
+    private final PlatformHandlerFactory platformHandlerFactory;
+    private final RuleSetLoader loader;
+    private volatile RuleSnapshot current;
+    private WatchService watchService;
+    private Thread watcher;
+
+    public RuleRegistry(RulesConfig config, PlatformHandlerFactory platformHandlerFactory) {
+        this.config = config;
+        this.platformHandlerFactory = platformHandlerFactory;
+        Path directory = StringUtils.hasText(config.getDirectory()) ? Path.of(config.getDirectory()) : null;
+        this.loader = new RuleSetLoader(directory);
+        this.current = RuleSnapshot.compile(loader.load(), platformHandlerFactory);
+        logger.info("Loaded {} rules", current.getRules().size());
+        if (directory != null && config.isWatch()) {
+            startWatcher(directory);
+        }
+    }
+
+    public RuleSnapshot current() {
+        return current;
+    }
+
+    // Returns false, keeping the current snapshot, when the rulesets on disk are invalid or fail to compile.
+    public synchronized boolean reload() {
+        try {
+            RuleSnapshot next = RuleSnapshot.compile(loader.load(), platformHandlerFactory);
+            current = next;
+            logger.info("Reloaded rulesets, {} rules active", next.getRules().size());
+            return true;
+        } catch (IllegalStateException e) {
+            logger.error("Ruleset reload rejected, keeping the previous {} rules. {}", current.getRules().size(), e.getMessage());
+            return false;
+        } catch (RuntimeException e) {
+            logger.error("Ruleset reload failed, keeping the previous {} rules", current.getRules().size(), e);
+            return false;
+        }
+    }
+
+    private void startWatcher(Path directory) {
+        try {
+            watchService = directory.getFileSystem().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to watch ruleset directory " + directory, e);
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("ruleset-watcher-");
+        threadFactory.setDaemon(true);
+        watcher = threadFactory.newThread(this::watch);
+        watcher.start();
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                boolean changed = rulesetChanged(watchService.take());
+                // Editors and deploy tools write in several steps; let the burst settle and reload once.
+                Thread.sleep(config.getReloadDelay().toMillis());
+                for (WatchKey key = watchService.poll(); key != null; key = watchService.poll()) {
+                    changed |= rulesetChanged(key);
+                }
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Shutting down.
+        }
+    }
+
+    private boolean rulesetChanged(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            changed |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || event.context().toString().endsWith(RuleSetLoader.FILE_SUFFIX);
+        }
+        key.reset();
+        return changed;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (watcher != null) {
+            watcher.interrupt();
+            watchService.close();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.rules.Rule;
+import com.example.complianceapi.rules.RuleSet;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.networknt.schema.JsonSchema;
+import com.networknt.schema.JsonSchemaFactory;
+import com.networknt.schema.SpecVersion;
+import com.networknt.schema.ValidationMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+// Reads the classpath rulesets and, optionally, the rulesets in a directory. Every file is validated against
+// schemas/ruleset.schema.json, and rule names or ids defined twice are reported with both files. A directory
+// rule with the name of a bundled rule replaces it, so deployments can adjust bundled rules without a rebuild.
+public class RuleSetLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(RuleSetLoader.class);
+
+    static final String FILE_SUFFIX = "-ruleset.yml";
+    private static final String CLASSPATH_PATTERN = "classpath*:**/*" + FILE_SUFFIX;
+    private static final String SCHEMA = "schemas/ruleset.schema.json";
+
+    private final ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+    private final JsonSchema schema;
+    private final Path directory;
+
+    public RuleSetLoader(Path directory) {
+        this.directory = directory;
+        try (InputStream schemaStream = new ClassPathResource(SCHEMA).getInputStream()) {
+            this.schema = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V7).getSchema(schemaStream);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read " + SCHEMA, e);
+        }
+    }
+
+    public List<Rule> load() {
+        List<String> errors = new ArrayList<>();
+        Map<String, Rule> rulesByName = new LinkedHashMap<>();
+        Map<String, String> sourceByName = new HashMap<>();
+        Map<String, String> sourceById = new HashMap<>();
+        // Names still defined by their bundled rule, which a directory rule may replace once.
+        Set<String> bundled = new HashSet<>();
+        List<Resource> resources = classpathResources();
+        int bundledFiles = resources.size();
+        resources.addAll(directoryResources());
+        for (int i = 0; i < resources.size(); i++) {
+            Resource resource = resources.get(i);
+            String source = resource.getDescription();
+            boolean fromDirectory = i >= bundledFiles;
+            try (InputStream in = resource.getInputStream()) {
+                JsonNode tree = mapper.readTree(in);
+                if (tree == null || tree.isMissingNode()) {
+                    errors.add(source + ": empty ruleset file");
+                    continue;
+                }
+                Set<ValidationMessage> violations = schema.validate(tree);
+                if (!violations.isEmpty()) {
+                    violations.forEach(violation -> errors.add(source + ": " + violation.getMessage()));
+                    continue;
+                }
+                for (Rule rule : mapper.treeToValue(tree, RuleSet.class).getRules()) {
+                    String nameSource = sourceByName.get(rule.getName());
+                    boolean overrides = nameSource != null && fromDirectory && bundled.remove(rule.getName());
+                    if (nameSource != null && !overrides) {
+                        errors.add(source + ": rule name '" + rule.getName() + "' is already defined in " + nameSource);
+                        continue;
+                    }
+                    if (overrides) {
+                        sourceById.remove(rulesByName.get(rule.getName()).getId());
+                    }
+                    String idSource = sourceById.putIfAbsent(rule.getId(), source);
+                    if (idSource != null) {
+                        errors.add(source + ": rule id '" + rule.getId() + "' is already defined in " + idSource);
+                        continue;
+                    }
+                    if (overrides) {
+                        logger.info("Rule '{}' from {} overrides the bundled rule from {}", rule.getName(), source, nameSource);
+                    } else if (!fromDirectory) {
+                        bundled.add(rule.getName());
+                    }
+                    sourceByName.put(rule.getName(), source);
+                    rulesByName.put(rule.getName(), rule);
+                }
+            } catch (IOException e) {
+                errors.add(source + ": " + e.getMessage());
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException("Invalid ruleset files:\n - " + String.join("\n - ", errors));
+        }
+        return new ArrayList<>(rulesByName.values());
+    }
+
+    private static List<Resource> classpathResources() {
+        try {
+            return new ArrayList<>(Arrays.asList(new PathMatchingResourcePatternResolver().getResources(CLASSPATH_PATTERN)));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to scan the classpath for rulesets", e);
+        }
+    }
+
+    private List<Resource> directoryResources() {
+        List<Resource> resources = new ArrayList<>();
+        if (directory != null) {
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(file -> file.getFileName().toString().endsWith(FILE_SUFFIX))
+                        .sorted()
+                        .forEach(file -> resources.add(new FileSystemResource(file)));
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to list ruleset directory " + directory, e);
+            }
+        }
+        return resources;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.rules.Rule;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// An immutable, fully compiled set of rules. A collection takes the current snapshot once and uses it to the
+// end, so a reload never changes the rules under a running request and readers need no locks.
+public final class RuleSnapshot {
+
+    private final Map<String, Rule> rules;
+    private final RuleIndex index;
+    private final Map<String, CompiledAssessment> assessments;
+    private final Map<String, Duration> cacheTtls;
+
+    private RuleSnapshot(Map<String, Rule> rules, RuleIndex index, Map<String, CompiledAssessment> assessments,
+                         Map<String, Duration> cacheTtls) {
+        this.rules = rules;
+        this.index = index;
+        this.assessments = assessments;
+        this.cacheTtls = cacheTtls;
+    }
+
+    // Resolves every rule against its platform SDK, so misconfigured apiCall, parameter, assessment or cacheTtl
+    // values are all reported together instead of failing requests later.
+    public static RuleSnapshot compile(List<Rule> rules, PlatformHandlerFactory platformHandlerFactory) {
+        Map<String, Rule> byName = new HashMap<>();
+        List<RuleExecutionPlan> plans = new ArrayList<>();
+        Map<String, CompiledAssessment> assessments = new HashMap<>();
+        Map<String, Duration> cacheTtls = new HashMap<>();
+        List<String> errors = new ArrayList<>();
+        for (Rule rule : rules) {
+            byName.put(rule.getName(), rule);
+            try {
+                plans.add(platformHandlerFactory.getHandler(rule.getPlatform()).compileRule(rule));
+                assessments.put(rule.getName(), CompiledAssessment.compile(rule));
+                String cacheTtl = rule.getCollection() == null ? null : rule.getCollection().getCacheTtl();
+                if (cacheTtl != null) {
+                    cacheTtls.put(rule.getId(), parseCacheTtl(rule, cacheTtl));
+                }
+            } catch (IllegalArgumentException e) {
+                errors.add(e.getMessage());
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException("Invalid rule definitions:\n - " + String.join("\n - ", errors));
+        }
+        return new RuleSnapshot(Map.copyOf(byName), new RuleIndex(plans), Map.copyOf(assessments), Map.copyOf(cacheTtls));
+    }
+
+    private static Duration parseCacheTtl(Rule rule, String cacheTtl) {
+        try {
+            return DurationStyle.detectAndParse(cacheTtl);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Rule '" + rule.getId() + "': invalid cacheTtl '" + cacheTtl + "'");
+        }
+    }
+
+    public Map<String, Rule> getRules() {
+        return rules;
+    }
+
+    public RuleIndex getIndex() {
+        return index;
+    }
+
+    public CompiledAssessment assessmentFor(String ruleName) {
+        return assessments.getOrDefault(ruleName, CompiledAssessment.NONE);
+    }
+
+    // Null when the rule has no cacheTtl of its own.
+    public Duration cacheTtl(Rule rule) {
+        return cacheTtls.get(rule.getId());
+    }
+}
@@ -0,0 +1,456 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.config.StorageConfig;
+import com.example.complianceapi.dto.StoredEvidence;
+import com.example.complianceapi.model.Evidence;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// The embedded evidence store (storage.sink: local). Every stored batch is appended as one EvidenceBlock to the
+// active segment file under storage.local.directory. Each item's application, rule and resource are indexed in
+// memory, rebuilt from the segments at startup, so a query only reads the blocks holding its answer. Segments
+// whose evidence is all older than storage.local.retention are compacted to the latest evidence per
+// (application, rule, resource), so the latest evidence stays queryable after its history has expired.
+public class SegmentEvidenceStore implements EvidenceSink, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentEvidenceStore.class);
+
+    private static final Pattern SEGMENT_FILE = Pattern.compile("segment-(\\d+)\\.evs");
+    private static final String COMPACTING_SUFFIX = ".compacting";
+    // Sealed segments are memory-mapped whole, which caps their size.
+    private static final long MAX_SEGMENT_BYTES = 1L << 30;
+
+    private final StorageConfig.Local config;
+    private final ObjectMapper objectMapper;
+    private final LongSupplier clock;
+    private final Path directory;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<EvidenceSegment> segments = new ArrayList<>();
+    // Every stored version of a key, oldest first.
+    private final Map<Key, List<Ref>> versions = new HashMap<>();
+    private final Map<String, Set<Key>> byApplication = new HashMap<>();
+    private final Map<String, Set<Key>> byRule = new HashMap<>();
+    private final Map<String, Set<Key>> byResource = new HashMap<>();
+    private EvidenceSegment active;
+    private ScheduledExecutorService compactor;
+
+    public SegmentEvidenceStore(StorageConfig.Local config, ObjectMapper objectMapper) {
+        this(config, objectMapper, System::currentTimeMillis);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("evidence-compactor-");
+        threadFactory.setDaemon(true);
+        compactor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        long interval = config.getCompactionInterval().toMillis();
+        compactor.scheduleWithFixedDelay(this::compactQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    SegmentEvidenceStore(StorageConfig.Local config, ObjectMapper objectMapper, LongSupplier clock) {
+        if (config.getSegmentSize().toBytes() > MAX_SEGMENT_BYTES) {
+            throw new IllegalArgumentException("compliance-collector.storage.local.segment-size must not exceed 1GB");
+        }
+        this.config = config;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.directory = Path.of(config.getDirectory());
+        try {
+            open();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to open the evidence store in " + directory, e);
+        }
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.toList();
+        }
+        Map<Long, Path> segmentFiles = new TreeMap<>();
+        for (Path file : files) {
+            Matcher matcher = SEGMENT_FILE.matcher(file.getFileName().toString());
+            if (matcher.matches()) {
+                segmentFiles.put(Long.parseLong(matcher.group(1)), file);
+            } else if (file.getFileName().toString().endsWith(COMPACTING_SUFFIX)) {
+                // A compaction interrupted before its swap; the original segment is still in place.
+                Files.delete(file);
+            }
+        }
+
+        long items = 0;
+        for (Map.Entry<Long, Path> file : segmentFiles.entrySet()) {
+            EvidenceSegment segment = EvidenceSegment.open(file.getValue(), file.getKey());
+            items += indexSegment(segment);
+            segments.add(segment);
+        }
+        if (segments.isEmpty()) {
+            segments.add(EvidenceSegment.create(segmentPath(1), 1));
+        }
+        for (EvidenceSegment segment : segments.subList(0, segments.size() - 1)) {
+            segment.seal();
+        }
+        active = segments.get(segments.size() - 1);
+        logger.info("Opened evidence store in {}: {} segments, {} evidence items for {} resources", directory, segments.size(), items,
+                byResource.size());
+    }
+
+    private long indexSegment(EvidenceSegment segment) throws IOException {
+        long[] items = {0};
+        segment.forEachBlock((offset, storedAt, block) -> {
+            BlockAt blockAt = new BlockAt(segment, offset, storedAt);
+            for (int row = 0; row < block.rows(); row++) {
+                index(keyOf(block, row), new Ref(blockAt, row));
+            }
+            items[0] += block.rows();
+        });
+        return items[0];
+    }
+
+    @Override
+    public void write(List<Evidence> batch) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        byte[] raw = EvidenceBlock.encode(batch, objectMapper);
+        byte[] compressed = EvidenceBlock.deflate(raw);
+        long storedAt = clock.getAsLong();
+        lock.writeLock().lock();
+        try {
+            if (active.size() > 0 && active.size() + compressed.length > config.getSegmentSize().toBytes()) {
+                roll();
+            }
+            BlockAt blockAt = new BlockAt(active, active.append(compressed, raw.length, storedAt), storedAt);
+            for (int row = 0; row < batch.size(); row++) {
+                Evidence evidence = batch.get(row);
+                index(new Key(evidence.getApplicationId(), evidence.getRuleSetField(), evidence.getResourceId()), new Ref(blockAt, row));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void roll() throws IOException {
+        active.seal();
+        active = EvidenceSegment.create(segmentPath(active.getSequence() + 1), active.getSequence() + 1);
+        segments.add(active);
+    }
+
+    // The latest evidence of every (application, rule, resource) matching the filters; a null filter matches
+    // everything, but at least one is required.
+    public List<StoredEvidence> latest(String applicationId, String ruleSetField, String resourceId) {
+        lock.readLock().lock();
+        try {
+            List<Ref> refs = new ArrayList<>();
+            for (Key key : keys(applicationId, ruleSetField, resourceId)) {
+                List<Ref> keyVersions = versions.get(key);
+                refs.add(keyVersions.get(keyVersions.size() - 1));
+            }
+            return read(refs);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Every stored version of a resource's evidence, newest first, optionally for one rule and from a point in time.
+    public List<StoredEvidence> history(String resourceId, String ruleSetField, Instant since, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1, was " + limit);
+        }
+        long sinceMillis = since == null ? Long.MIN_VALUE : since.toEpochMilli();
+        lock.readLock().lock();
+        try {
+            List<Ref> refs = new ArrayList<>();
+            for (Key key : keys(null, ruleSetField, resourceId)) {
+                versions.get(key).stream().filter(ref -> ref.block().storedAt() >= sinceMillis).forEach(refs::add);
+            }
+            refs.sort(Comparator.comparingLong((Ref ref) -> ref.block().storedAt()).reversed());
+            return read(refs.subList(0, Math.min(limit, refs.size())));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Set<Key> keys(String applicationId, String ruleSetField, String resourceId) {
+        List<Set<Key>> filters = new ArrayList<>();
+        if (applicationId != null) {
+            filters.add(byApplication.getOrDefault(applicationId, Set.of()));
+        }
+        if (ruleSetField != null) {
+            filters.add(byRule.getOrDefault(ruleSetField, Set.of()));
+        }
+        if (resourceId != null) {
+            filters.add(byResource.getOrDefault(resourceId, Set.of()));
+        }
+        if (filters.isEmpty()) {
+            throw new IllegalArgumentException("At least one of applicationId, ruleSetField or resourceId is required");
+        }
+        filters.sort(Comparator.comparingInt(Set::size));
+        Set<Key> keys = new HashSet<>(filters.get(0));
+        filters.subList(1, filters.size()).forEach(keys::retainAll);
+        return keys;
+    }
+
+    // Each block is read and inflated once, however many of the refs point into it.
+    private List<StoredEvidence> read(List<Ref> refs) {
+        Map<BlockAt, EvidenceBlock> blocks = new HashMap<>();
+        List<StoredEvidence> evidence = new ArrayList<>(refs.size());
+        try {
+            for (Ref ref : refs) {
+                EvidenceBlock block = blocks.get(ref.block());
+                if (block == null) {
+                    block = ref.block().segment().read(ref.block().offset());
+                    blocks.put(ref.block(), block);
+                }
+                evidence.add(new StoredEvidence(Instant.ofEpochMilli(ref.block().storedAt()), block.evidence(ref.row(), objectMapper)));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read from the evidence store in " + directory, e);
+        }
+        return evidence;
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (RuntimeException | IOException e) {
+            logger.error("Evidence store compaction failed: {}", e.getMessage(), e);
+        }
+    }
+
+    // Sealed segments whose newest block is older than the retention keep only the evidence that is still the
+    // latest for its key; a segment left with none is deleted. A segment whose rows are all still the latest has
+    // nothing to drop and is left alone, unless it is small enough to merge with its expired neighbours into one
+    // segment of at most storage.local.segment-size. The active segment is never compacted.
+    synchronized void compact() throws IOException {
+        long cutoff = clock.getAsLong() - config.getRetention().toMillis();
+        List<List<EvidenceSegment>> groups = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Map<EvidenceSegment, long[]> rows = new IdentityHashMap<>();
+            for (EvidenceSegment segment : segments) {
+                if (segment.isSealed() && segment.getNewestStoredAt() < cutoff) {
+                    rows.put(segment, new long[2]);
+                }
+            }
+            // segment -> {rows, rows still the latest for their key}
+            for (List<Ref> keyVersions : versions.values()) {
+                for (int i = 0; i < keyVersions.size(); i++) {
+                    long[] counts = rows.get(keyVersions.get(i).block().segment());
+                    if (counts != null) {
+                        counts[0]++;
+                        counts[1] += i == keyVersions.size() - 1 ? 1 : 0;
+                    }
+                }
+            }
+            List<EvidenceSegment> group = new ArrayList<>();
+            long groupBytes = 0;
+            boolean stale = false;
+            for (EvidenceSegment segment : segments) {
+                long[] counts = rows.get(segment);
+                long liveBytes = counts == null || counts[0] == 0 ? 0 : segment.size() * counts[1] / counts[0];
+                if (counts == null || groupBytes + liveBytes > config.getSegmentSize().toBytes()) {
+                    addIfWorthCompacting(groups, group, stale);
+                    group = new ArrayList<>();
+                    groupBytes = 0;
+                    stale = false;
+                }
+                if (counts != null) {
+                    group.add(segment);
+                    groupBytes += liveBytes;
+                    stale |= counts[1] < counts[0] || counts[0] == 0;
+                }
+            }
+            addIfWorthCompacting(groups, group, stale);
+        } finally {
+            lock.readLock().unlock();
+        }
+        for (List<EvidenceSegment> group : groups) {
+            compact(group);
+        }
+    }
+
+    private static void addIfWorthCompacting(List<List<EvidenceSegment>> groups, List<EvidenceSegment> group, boolean stale) {
+        if (stale || group.size() > 1) {
+            groups.add(group);
+        }
+    }
+
+    // Rewrites the latest evidence of adjacent segments into the file of the first one and deletes the rest.
+    private void compact(List<EvidenceSegment> group) throws IOException {
+        EvidenceSegment first = group.get(0);
+        Path compacted = first.getFile().resolveSibling(first.getFile().getFileName() + COMPACTING_SUFFIX);
+        Set<Key> keys = new HashSet<>();
+        // key -> (offset, row, storedAt) of its evidence in the compacted file
+        Map<Key, long[]> kept = new LinkedHashMap<>();
+        long before = 0;
+        Files.deleteIfExists(compacted);
+        try (EvidenceSegment output = EvidenceSegment.create(compacted, first.getSequence())) {
+            for (EvidenceSegment segment : group) {
+                before += segment.size();
+                // Blocks are immutable, so only the index lookups need the lock; a key written to meanwhile is newer
+                // elsewhere and its evidence here is merely kept one compaction longer.
+                segment.forEachBlock((offset, storedAt, block) -> {
+                    List<Evidence> latest = new ArrayList<>();
+                    List<Key> latestKeys = new ArrayList<>();
+                    lock.readLock().lock();
+                    try {
+                        for (int row = 0; row < block.rows(); row++) {
+                            Key key = keyOf(block, row);
+                            keys.add(key);
+                            List<Ref> keyVersions = versions.get(key);
+                            Ref newest = keyVersions.get(keyVersions.size() - 1);
+                            if (newest.block().segment() == segment && newest.block().offset() == offset && newest.row() == row) {
+                                latest.add(block.evidence(row, objectMapper));
+                                latestKeys.add(key);
+                            }
+                        }
+                    } finally {
+                        lock.readLock().unlock();
+                    }
+                    if (!latest.isEmpty()) {
+                        byte[] raw = EvidenceBlock.encode(latest, objectMapper);
+                        long newOffset = output.append(EvidenceBlock.deflate(raw), raw.length, storedAt);
+                        for (int row = 0; row < latestKeys.size(); row++) {
+                            kept.put(latestKeys.get(row), new long[]{newOffset, row, storedAt});
+                        }
+                    }
+                });
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            int position = segments.indexOf(first);
+            for (EvidenceSegment segment : group) {
+                segment.close();
+            }
+            EvidenceSegment replacement = null;
+            if (kept.isEmpty()) {
+                Files.delete(compacted);
+                Files.delete(first.getFile());
+                segments.remove(position);
+            } else {
+                Files.move(compacted, first.getFile(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                replacement = EvidenceSegment.open(first.getFile(), first.getSequence());
+                replacement.seal();
+                segments.set(position, replacement);
+            }
+            // A crash before these are deleted leaves their evidence twice; the copies that are not the latest are
+            // dropped by the next compaction.
+            for (EvidenceSegment segment : group.subList(1, group.size())) {
+                Files.delete(segment.getFile());
+                segments.remove(segment);
+            }
+            Map<Long, BlockAt> replacementBlocks = new HashMap<>();
+            for (Key key : keys) {
+                List<Ref> keyVersions = versions.get(key);
+                keyVersions.removeIf(ref -> group.contains(ref.block().segment()));
+                long[] location = kept.get(key);
+                if (location != null) {
+                    EvidenceSegment target = replacement;
+                    BlockAt blockAt = replacementBlocks.computeIfAbsent(location[0], offset -> new BlockAt(target, offset, location[2]));
+                    keyVersions.add(new Ref(blockAt, (int) location[1]));
+                    keyVersions.sort(Comparator.comparingLong(ref -> ref.block().storedAt()));
+                }
+                if (keyVersions.isEmpty()) {
+                    unindex(key);
+                }
+            }
+            if (replacement == null) {
+                logger.info("Deleted {} expired evidence segments from {}; none of their evidence is the latest any more", group.size(),
+                        first.getFile());
+            } else {
+                logger.info("Compacted {} evidence segments into {} from {} to {} bytes, keeping the latest evidence of {} keys", group.size(),
+                        first.getFile(), before, replacement.size(), kept.size());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void index(Key key, Ref ref) {
+        List<Ref> keyVersions = versions.get(key);
+        if (keyVersions == null) {
+            keyVersions = new ArrayList<>(1);
+            versions.put(key, keyVersions);
+            byApplication.computeIfAbsent(key.applicationId(), k -> new HashSet<>()).add(key);
+            byRule.computeIfAbsent(key.ruleSetField(), k -> new HashSet<>()).add(key);
+            byResource.computeIfAbsent(key.resourceId(), k -> new HashSet<>()).add(key);
+        }
+        keyVersions.add(ref);
+    }
+
+    private void unindex(Key key) {
+        versions.remove(key);
+        removeFrom(byApplication, key.applicationId(), key);
+        removeFrom(byRule, key.ruleSetField(), key);
+        removeFrom(byResource, key.resourceId(), key);
+    }
+
+    private static void removeFrom(Map<String, Set<Key>> index, String value, Key key) {
+        Set<Key> keys = index.get(value);
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            index.remove(value);
+        }
+    }
+
+    private static Key keyOf(EvidenceBlock block, int row) {
+        return new Key(block.value(EvidenceBlock.Column.APPLICATION_ID, row), block.value(EvidenceBlock.Column.RULE_SET_FIELD, row),
+                block.value(EvidenceBlock.Column.RESOURCE_ID, row));
+    }
+
+    private Path segmentPath(long sequence) {
+        return directory.resolve(String.format("segment-%010d.evs", sequence));
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (compactor != null) {
+            compactor.shutdownNow();
+        }
+        lock.writeLock().lock();
+        try {
+            for (EvidenceSegment segment : segments) {
+                segment.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private record Key(String applicationId, String ruleSetField, String resourceId) {
+    }
+
+    // Shared by the refs of all rows of one block.
+    private record BlockAt(EvidenceSegment segment, long offset, long storedAt) {
+    }
+
+    private record Ref(BlockAt block, int row) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.complianceapi.service;
+
+import java.util.List;
+
+// Expands a selector identifier (e.g. every Deployment in a namespace) into the resources it matches with a
+// paginated list call, so a sweep over many resources takes a few calls instead of one read per resource.
+public interface SelectorPlan {
+    // The list call, for rate limiting.
+    String getApiCall();
+
+    // False when the selector names a different kind than the rule reads; the rule is then skipped for it.
+    boolean matches(String selector);
+
+    // One page of at most limit items; continueToken is null for the first page.
+    Page list(Object client, String selector, String continueToken, int limit) throws Exception;
+
+    // The identifier the item would have been requested with on its own.
+    String identifierOf(String selector, Object item);
+
+    Object extractData(Object item);
+
+    // The continue token is null on the last page.
+    record Page(List<?> items, String continueToken) {
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.dto.SlowRule;
+import com.example.complianceapi.rules.Rule;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Per-rule latency over a sliding window. Each rule keeps a ring of time buckets, so recording is a few
+// uncontended adds and old samples age out as their bucket is reused, without a cleanup thread.
+final class SlowRuleWindow {
+
+    private final long bucketNanos;
+    private final int bucketCount;
+    private final LongSupplier nanoClock;
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+
+    SlowRuleWindow(Duration window, int bucketCount, LongSupplier nanoClock) {
+        if (bucketCount < 1 || window.toNanos() < bucketCount) {
+            throw new IllegalArgumentException("Invalid slow rule window " + window + " with " + bucketCount + " buckets");
+        }
+        this.bucketNanos = window.toNanos() / bucketCount;
+        this.bucketCount = bucketCount;
+        this.nanoClock = nanoClock;
+    }
+
+    void record(Rule rule, long nanos, boolean error) {
+        long epoch = nanoClock.getAsLong() / bucketNanos;
+        Series ruleSeries = series.computeIfAbsent(rule.getId(), id -> new Series(bucketCount));
+        // Keep the latest definition so the report shows reloaded names and api calls.
+        ruleSeries.rule = rule;
+        ruleSeries.buckets[(int) Math.floorMod(epoch, (long) bucketCount)].add(epoch, nanos, error);
+    }
+
+    // Rules without executions in the window are left out.
+    List<SlowRule> slowest(int limit) {
+        long currentEpoch = nanoClock.getAsLong() / bucketNanos;
+        List<SlowRule> result = new ArrayList<>();
+        series.forEach((ruleId, ruleSeries) -> {
+            long count = 0;
+            long errors = 0;
+            long totalNanos = 0;
+            long maxNanos = 0;
+            for (Bucket bucket : ruleSeries.buckets) {
+                if (bucket.epoch.get() > currentEpoch - bucketCount) {
+                    count += bucket.count.sum();
+                    errors += bucket.errors.sum();
+                    totalNanos += bucket.totalNanos.sum();
+                    maxNanos = Math.max(maxNanos, bucket.maxNanos.get());
+                }
+            }
+            if (count > 0) {
+                Rule rule = ruleSeries.rule;
+                String apiCall = rule.getCollection() == null ? null : rule.getCollection().getApiCall();
+                result.add(new SlowRule(ruleId, rule.getName(), rule.getPlatform(), rule.getService(), apiCall,
+                        count, errors, totalNanos / (double) count / 1e6, maxNanos / 1e6));
+            }
+        });
+        result.sort(Comparator.comparingDouble(SlowRule::getMeanMillis).reversed());
+        return result.size() > limit ? List.copyOf(result.subList(0, limit)) : result;
+    }
+
+    private static final class Series {
+        private final Bucket[] buckets;
+        private volatile Rule rule;
+
+        private Series(int bucketCount) {
+            buckets = new Bucket[bucketCount];
+            for (int i = 0; i < bucketCount; i++) {
+                buckets[i] = new Bucket();
+            }
+        }
+    }
+
+    private static final class Bucket {
+        private final AtomicLong epoch = new AtomicLong(Long.MIN_VALUE);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private void add(long sampleEpoch, long nanos, boolean error) {
+            if (epoch.get() != sampleEpoch) {
+                // First sample of a new period in this slot: clear what the slot held a full window ago.
+                synchronized (this) {
+                    if (epoch.get() != sampleEpoch) {
+                        count.reset();
+                        errors.reset();
+                        totalNanos.reset();
+                        maxNanos.reset();
+                        epoch.set(sampleEpoch);
+                    }
+                }
+            }
+            count.increment();
+            if (error) {
+                errors.increment();
+            }
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+    }
+}
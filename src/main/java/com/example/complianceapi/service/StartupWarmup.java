@@ -0,0 +1,130 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.config.ComplianceCollectorConfig;
+import com.example.complianceapi.config.PlatformInstanceConfig;
+import com.example.complianceapi.config.WarmupConfig;
+import com.example.complianceapi.model.ComplianceStatus;
+import com.example.complianceapi.model.Evidence;
+import com.example.complianceapi.model.EvidenceSource;
+import com.example.complianceapi.rules.Rule;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Takes the first-request costs at startup: every compiled rule plan runs once against a stub response, and the
+// clients of every configured instance are built for the services its platform's rules use. Nothing calls a
+// platform. Runners finish before Spring Boot reports the application ready, so readiness waits for warm-up.
+@Component
+public class StartupWarmup implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupWarmup.class);
+
+    private final WarmupConfig config;
+    private final ComplianceCollectorConfig collectorConfig;
+    private final PlatformHandlerFactory platformHandlerFactory;
+    private final RuleRegistry ruleRegistry;
+    private final ObjectMapper objectMapper;
+
+    public StartupWarmup(ComplianceCollectorConfig collectorConfig, PlatformHandlerFactory platformHandlerFactory,
+                         RuleRegistry ruleRegistry, ObjectMapper objectMapper) {
+        this.config = collectorConfig.getWarmup();
+        this.collectorConfig = collectorConfig;
+        this.platformHandlerFactory = platformHandlerFactory;
+        this.ruleRegistry = ruleRegistry;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!config.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        RuleSnapshot rules = ruleRegistry.current();
+        int plans = warmUpPlans(rules);
+        objectMapper.writeValueAsBytes(new Evidence(new EvidenceSource("warmup", "Security", "warmup", "AWS", "warmup"),
+                "warmup", Map.of("warmup", true), ComplianceStatus.COMPLIANT));
+        int clients = warmUpClients(rules);
+        logger.info("Warm-up finished in {} ms: {} rule plans, {} clients", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                plans, clients);
+    }
+
+    private int warmUpPlans(RuleSnapshot rules) {
+        int warmed = 0;
+        for (Rule rule : rules.getRules().values()) {
+            try {
+                rules.getIndex().find(rule.getId()).warmUp();
+                warmed++;
+            } catch (Exception e) {
+                // Placeholder identifiers do not satisfy every rule's parameters; the rule then warms up on first use.
+                logger.debug("Rule '{}' skipped warm-up: {}", rule.getId(), e.getMessage());
+            }
+        }
+        return warmed;
+    }
+
+    // Instances warm up in parallel; one that is slow to build clients (e.g. a kubeconfig on a slow mount) is
+    // given up on at the timeout and builds its clients on first use instead of holding readiness back.
+    private int warmUpClients(RuleSnapshot rules) throws InterruptedException {
+        AtomicInteger built = new AtomicInteger();
+        List<Callable<Void>> instances = new ArrayList<>();
+        collectorConfig.getPlatforms().getInstances().forEach((platformType, platformInstances) -> {
+            if (!platformHandlerFactory.hasHandler(platformType)) {
+                return;
+            }
+            PlatformHandler handler = platformHandlerFactory.getHandler(platformType);
+            Map<String, List<RuleExecutionPlan>> services = rules.getIndex().selectByService(handler.getPlatformName(), null);
+            for (PlatformInstanceConfig instance : platformInstances) {
+                instances.add(() -> {
+                    warmUpClients(handler, instance, services, built);
+                    return null;
+                });
+            }
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(instances.size(), 8)),
+                new CustomizableThreadFactory("warmup-"));
+        try {
+            List<Future<Void>> results = executor.invokeAll(instances, config.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            long timedOut = results.stream().filter(Future::isCancelled).count();
+            if (timedOut > 0) {
+                logger.warn("Warm-up timed out after {} for {} instances; they build their clients on first use", config.getTimeout(), timedOut);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return built.get();
+    }
+
+    private void warmUpClients(PlatformHandler handler, PlatformInstanceConfig instance, Map<String, List<RuleExecutionPlan>> services,
+                               AtomicInteger built) {
+        boolean async = instance.getProperties() != null
+                && Boolean.parseBoolean(instance.getProperties().get(GenericRuleBasedProvider.ASYNC));
+        try {
+            for (Map.Entry<String, List<RuleExecutionPlan>> service : services.entrySet()) {
+                handler.getClient(service.getKey(), instance, null);
+                built.incrementAndGet();
+                if (async && service.getValue().stream().anyMatch(RuleExecutionPlan::supportsAsync)) {
+                    handler.getAsyncClient(service.getKey(), instance, null);
+                    built.incrementAndGet();
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Warm-up could not build clients for instance {}: {}", instance.getName(), e.getMessage());
+        }
+    }
+}
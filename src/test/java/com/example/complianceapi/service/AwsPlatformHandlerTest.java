@@ -0,0 +1,24 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.config.PlatformInstanceConfig;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.regions.Region;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AwsPlatformHandlerTest {
+
+    @Test
+    void clientsAreRoutedToTheRegionOfTheArn() {
+        PlatformInstanceConfig instance = new PlatformInstanceConfig();
+        instance.setName("aws-prod");
+        instance.setProperties(Map.of(AwsPlatformHandler.REGION, "us-east-1"));
+
+        assertThat(AwsPlatformHandler.regionOf("arn:aws:kms:eu-west-2:123456789012:key/1", instance)).isEqualTo(Region.EU_WEST_2);
+        assertThat(AwsPlatformHandler.regionOf("arn:aws:s3:::my-bucket", instance)).isEqualTo(Region.US_EAST_1);
+        assertThat(AwsPlatformHandler.regionOf("arn:aws:iam::123456789012:user/alice", instance)).isEqualTo(Region.US_EAST_1);
+        assertThat(AwsPlatformHandler.regionOf("not-an-arn", instance)).isEqualTo(Region.US_EAST_1);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.complianceapi.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchSweepsTest {
+
+    private final Object client = new Object();
+
+    @Test
+    void identifiersWaitingOnASlowSweepGiveUpAtTheDeadline() throws Exception {
+        BatchSweeps sweeps = new BatchSweeps();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Map<String, Object>> sweeping = CompletableFuture.supplyAsync(() -> {
+            try {
+                return sweeps.get("secrets-rotation", client, System.nanoTime() + Duration.ofSeconds(5).toNanos(), () -> {
+                    started.countDown();
+                    release.await();
+                    return Map.of("secret-1", "item");
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        started.await();
+
+        long deadline = System.nanoTime() + Duration.ofMillis(100).toNanos();
+        assertThatThrownBy(() -> sweeps.get("secrets-rotation", client, deadline, Map::of)).isInstanceOf(TimeoutException.class);
+        assertThat(System.nanoTime() - deadline).isLessThan(Duration.ofSeconds(1).toNanos());
+
+        release.countDown();
+        assertThat(sweeping.get(5, TimeUnit.SECONDS)).containsKey("secret-1");
+        assertThat(sweeps.get("secrets-rotation", client, System.nanoTime(), Map::of)).containsKey("secret-1");
+    }
+
+    @Test
+    void aFailedSweepYieldsNoItems() throws Exception {
+        BatchSweeps sweeps = new BatchSweeps();
+
+        assertThat(sweeps.get("secrets-rotation", client, System.nanoTime() + Duration.ofSeconds(1).toNanos(), () -> {
+            throw new IllegalStateException("AccessDenied");
+        })).isEmpty();
+    }
+}
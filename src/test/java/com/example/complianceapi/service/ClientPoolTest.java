@@ -0,0 +1,58 @@
+package com.example.complianceapi.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientPoolTest {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.MINUTES.toNanos(60));
+    private final ClientPool<String, TestClient> pool = new ClientPool<>(now::get);
+    private final List<TestClient> closed = new ArrayList<>();
+
+    @Test
+    void idleClientsAreClosedAndRebuiltOnTheirNextUse() {
+        TestClient production = pool.get("aws-prod/us-east-1", TestClient::new);
+        TestClient development = pool.get("aws-dev/us-east-1", TestClient::new);
+        assertThat(pool.get("aws-prod/us-east-1", TestClient::new)).isSameAs(production);
+
+        now.addAndGet(TimeUnit.MINUTES.toNanos(20));
+        pool.get("aws-prod/us-east-1", TestClient::new);
+        now.addAndGet(TimeUnit.MINUTES.toNanos(20));
+
+        assertThat(pool.evictIdle(TimeUnit.MINUTES.toNanos(30))).isEqualTo(1);
+        assertThat(closed).containsExactly(development);
+        assertThat(pool.size()).isEqualTo(1);
+
+        TestClient rebuilt = pool.get("aws-dev/us-east-1", TestClient::new);
+        assertThat(rebuilt).isNotSameAs(development);
+        assertThat(pool.created()).isEqualTo(3L);
+
+        pool.closeAll();
+        assertThat(closed).hasSize(3);
+        assertThat(pool.size()).isEqualTo(0);
+    }
+
+    private final class TestClient implements AutoCloseable {
+        private final String key;
+
+        TestClient(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public void close() {
+            closed.add(this);
+        }
+
+        @Override
+        public String toString() {
+            return key;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.config.ComplianceCollectorConfig;
+import com.example.complianceapi.config.PlatformInstanceConfig;
+import com.example.complianceapi.model.ComplianceStatus;
+import com.example.complianceapi.model.Evidence;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CollectionExecutorTest {
+
+    private final ScheduledExecutorService upstream = Executors.newSingleThreadScheduledExecutor();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final ComplianceCollectorConfig config = new ComplianceCollectorConfig();
+    private CollectionExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        executor.destroy();
+        upstream.shutdownNow();
+    }
+
+    @Test
+    void asyncTasksAreBoundedByTheInstancePermitsNotByThreads() {
+        executor = new CollectionExecutor(config);
+        List<CollectionTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            tasks.add(asyncTask("arn-" + i, 20));
+        }
+        tasks.add(new CollectionTask("kms", () -> evidence("blocking"), null, this::failure));
+
+        long start = System.nanoTime();
+        List<Evidence> results = executor.invokeAll(instance("10"), tasks);
+
+        // 60 calls of 20ms with 10 in flight take about 120ms; one thread running them in turn would take 1.2s.
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1000L);
+        assertThat(maxInFlight.get()).isEqualTo(10);
+        assertThat(results).hasSize(61);
+        assertThat(results.get(0).getResourceId()).isEqualTo("arn-0");
+        assertThat(results.get(59).getResourceId()).isEqualTo("arn-59");
+        assertThat(results.get(60).getResourceId()).isEqualTo("blocking");
+    }
+
+    @Test
+    void asyncTasksStillRunningAtTheRequestTimeoutBecomeErrorEvidence() {
+        config.getExecution().setRequestTimeout(Duration.ofMillis(200));
+        executor = new CollectionExecutor(config);
+        List<Evidence> streamed = new ArrayList<>();
+
+        executor.invokeEach(instance("2"), List.of(asyncTask("fast", 10),
+                new CollectionTask("kms", () -> evidence("unused"), CompletableFuture::new, this::failure),
+                asyncTask("queued", 10)), streamed::add);
+
+        assertThat(streamed).hasSize(3);
+        assertThat(streamed.get(0).getResourceId()).isEqualTo("fast");
+        assertThat(streamed.get(1).getResourceId()).isEqualTo("queued");
+        assertThat(streamed.get(2).getComplianceStatus()).isEqualTo(ComplianceStatus.ERROR);
+        assertThat(streamed.get(2).getCollectedData()).isEqualTo(Map.of("error", "Timed out after PT0.2S"));
+    }
+
+    @Test
+    void aHungInstanceOnlyTiesUpItsOwnThreads() throws Exception {
+        executor = new CollectionExecutor(config);
+        CountDownLatch hung = new CountDownLatch(1);
+        List<CollectionTask> hangingTasks = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            hangingTasks.add(new CollectionTask("kms", () -> {
+                await(hung);
+                return evidence("hung");
+            }, null, this::failure));
+        }
+        Future<List<Evidence>> hangingRequest = upstream.submit(() -> executor.invokeAll(instance("2"), hangingTasks));
+        for (int i = 0; i < 100 && executor.getActiveThreads("aws-2") < 2; i++) {
+            Thread.sleep(10);
+        }
+
+        List<CollectionTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            tasks.add(new CollectionTask("kms", () -> evidence("healthy"), null, this::failure));
+        }
+        assertThat(executor.invokeAll(instance("3"), tasks)).hasSize(4);
+        assertThat(executor.getActiveThreads("aws-2")).isEqualTo(2);
+        assertThat(executor.getQueuedTasks("aws-2")).isEqualTo(6);
+
+        hung.countDown();
+        assertThat(hangingRequest.get(5, TimeUnit.SECONDS)).hasSize(8);
+    }
+
+    @Test
+    void tasksWaitingForACappedServiceDoNotHoldBackOtherServices() {
+        executor = new CollectionExecutor(config);
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        List<CollectionTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            String name = "kms-" + i;
+            tasks.add(new CollectionTask("kms", () -> {
+                events.add(name);
+                sleep(100);
+                return evidence(name);
+            }, null, this::failure));
+        }
+        tasks.add(new CollectionTask("s3", () -> {
+            events.add("s3");
+            return evidence("s3");
+        }, null, this::failure));
+
+        PlatformInstanceConfig instance = instance("2");
+        instance.setProperties(Map.of(CollectionExecutor.MAX_CONCURRENCY, "2", CollectionExecutor.MAX_CONCURRENCY + ".kms", "1"));
+        List<Evidence> results = executor.invokeAll(instance, tasks);
+
+        // kms-0 and s3 start together; s3 does not queue behind the kms tasks waiting for their service permit.
+        assertThat(events.subList(0, 2)).containsExactlyInAnyOrder("kms-0", "s3");
+        assertThat(results.stream().map(Evidence::getResourceId).toList()).containsExactly("kms-0", "kms-1", "kms-2", "s3");
+    }
+
+    @Test
+    void sweepsRunOnThePoolAndHandOverTheirPagesInOrder() {
+        executor = new CollectionExecutor(config);
+        List<String> sweepThreads = Collections.synchronizedList(new ArrayList<>());
+        List<CollectionTask> tasks = new ArrayList<>();
+        tasks.add(new CollectionTask("kms", () -> evidence("arn-0"), null, this::failure));
+        for (String selector : List.of("a", "b")) {
+            tasks.add(CollectionTask.sweep("apps", pages -> {
+                sweepThreads.add(Thread.currentThread().getName());
+                for (int page = 0; page < 3; page++) {
+                    sleep(50);
+                    pages.accept(List.of(evidence(selector + "-" + page + "-0"), evidence(selector + "-" + page + "-1")));
+                }
+                return null;
+            }, this::failure));
+        }
+
+        long start = System.nanoTime();
+        List<Evidence> results = executor.invokeAll(instance("3"), tasks, executor.deadline());
+
+        // Two sweeps of three 50ms pages run side by side in about 150ms, not 300ms in turn.
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(280L);
+        assertThat(sweepThreads.stream().allMatch(name -> name.startsWith("rule-exec-"))).isTrue();
+        assertThat(results).hasSize(13);
+        assertThat(results.get(0).getResourceId()).isEqualTo("arn-0");
+        assertThat(results.subList(1, 7).stream().map(Evidence::getResourceId).toList())
+                .containsExactly("a-0-0", "a-0-1", "a-1-0", "a-1-1", "a-2-0", "a-2-1");
+        assertThat(results.get(12).getResourceId()).isEqualTo("b-2-1");
+    }
+
+    @Test
+    void aSweepStillRunningAtTheDeadlineKeepsItsPagesAndEndsWithAnError() {
+        executor = new CollectionExecutor(config);
+        CollectionTask sweep = CollectionTask.sweep("apps", pages -> {
+            pages.accept(List.of(evidence("page-0")));
+            sleep(5_000);
+            pages.accept(List.of(evidence("page-1")));
+            return null;
+        }, this::failure);
+
+        long start = System.nanoTime();
+        List<Evidence> results = executor.invokeAll(instance("2"), List.of(sweep), System.nanoTime() + Duration.ofMillis(200).toNanos());
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1000L);
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).getResourceId()).isEqualTo("page-0");
+        assertThat(results.get(1).getComplianceStatus()).isEqualTo(ComplianceStatus.ERROR);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private CollectionTask asyncTask(String arn, long latencyMillis) {
+        return new CollectionTask("kms", () -> evidence("unused"), () -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            CompletableFuture<Evidence> result = new CompletableFuture<>();
+            upstream.schedule(() -> {
+                inFlight.decrementAndGet();
+                result.complete(evidence(arn));
+            }, latencyMillis, TimeUnit.MILLISECONDS);
+            return result;
+        }, this::failure);
+    }
+
+    private Evidence failure(String error) {
+        return new Evidence("app", "Security", "Key Rotation Max", "AWS", "test", null, Map.of("error", error), ComplianceStatus.ERROR);
+    }
+
+    private static Evidence evidence(String arn) {
+        return new Evidence("app", "Security", "Key Rotation Max", "AWS", "test", arn, true, null);
+    }
+
+    private static PlatformInstanceConfig instance(String maxConcurrency) {
+        PlatformInstanceConfig instance = new PlatformInstanceConfig();
+        instance.setName("aws-" + maxConcurrency);
+        instance.setProperties(Map.of("region", "us-east-1", CollectionExecutor.MAX_CONCURRENCY, maxConcurrency));
+        return instance;
+    }
+}
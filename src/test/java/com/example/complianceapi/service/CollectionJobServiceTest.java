@@ -0,0 +1,150 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.config.ComplianceCollectorConfig;
+import com.example.complianceapi.config.PlatformConfig;
+import com.example.complianceapi.config.PlatformInstanceConfig;
+import com.example.complianceapi.dto.CollectRequest;
+import com.example.complianceapi.model.CollectionJob;
+import com.example.complianceapi.model.Evidence;
+import com.example.complianceapi.model.JobState;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CollectionJobServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final AtomicInteger chunksCollected = new AtomicInteger();
+    private final List<CollectRequest> chunkRequests = Collections.synchronizedList(new ArrayList<>());
+    private final EvidenceProvider provider = new EvidenceProvider() {
+        @Override
+        public List<Evidence> collect(CollectRequest request, PlatformInstanceConfig instanceConfig) {
+            chunksCollected.incrementAndGet();
+            chunkRequests.add(request);
+            List<Evidence> evidence = new ArrayList<>();
+            for (String arn : request.getResourceArns()) {
+                for (String rule : request.getRuleSetFields()) {
+                    evidence.add(new Evidence(request.getApplicationId(), "Security", rule, "AWS", "kms in aws-test", arn, "ok", null));
+                }
+            }
+            return evidence;
+        }
+
+        @Override
+        public String getPlatformName() {
+            return "generic";
+        }
+    };
+
+    private Path directory;
+    private ComplianceCollectorConfig config;
+    private EvidenceStorageClient storageClient;
+    private CollectionJobService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("jobs");
+        PlatformInstanceConfig instance = new PlatformInstanceConfig();
+        instance.setName("aws-test");
+        PlatformConfig platforms = new PlatformConfig();
+        platforms.setInstances(Map.of("aws", List.of(instance)));
+        config = new ComplianceCollectorConfig();
+        config.setPlatforms(platforms);
+        config.getJobs().setDirectory(directory.toString());
+        config.getJobs().setChunkSize(4);
+        storageClient = new EvidenceStorageClient(config, batch -> { }, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.destroy();
+        storageClient.destroy();
+    }
+
+    @Test
+    void jobIsSplitIntoChunksAndResultsAreKeptInOrder() throws InterruptedException {
+        service = new CollectionJobService(config, provider, storageClient, objectMapper);
+
+        CollectionJob job = service.submit(request("arn-1", "arn-2", "arn-3", "arn-4", "arn-5"));
+        awaitCompletion(job);
+
+        assertThat(job.getTotalChunks()).isEqualTo(3);
+        assertThat(job.getEvidenceCount()).isEqualTo(10L);
+        assertThat(chunksCollected.get()).isEqualTo(3);
+        List<Evidence> results = service.getResults(job);
+        assertThat(results).hasSize(10);
+        assertThat(results.get(0).getResourceId()).isEqualTo("arn-1");
+        assertThat(results.get(9).getResourceId()).isEqualTo("arn-5");
+    }
+
+    @Test
+    void chunksAreCollectedWithTheOptionsOfTheJobRequest() throws InterruptedException {
+        service = new CollectionJobService(config, provider, storageClient, objectMapper);
+        CollectRequest request = request("arn-1", "arn-2", "arn-3", "arn-4", "arn-5");
+        request.setRefresh(true);
+
+        awaitCompletion(service.submit(request));
+
+        assertThat(chunkRequests).hasSize(3);
+        for (CollectRequest chunkRequest : chunkRequests) {
+            assertThat(chunkRequest.isRefresh()).isTrue();
+            assertThat(chunkRequest.getPlatformName()).isEqualTo("aws-test");
+            assertThat(chunkRequest.getRuleSetFields()).containsExactly("Rule A", "Rule B");
+        }
+    }
+
+    @Test
+    void restartResumesOnlyUnfinishedChunks() throws InterruptedException {
+        JobStore store = new JobStore(directory, objectMapper);
+        CollectionJob interrupted = new CollectionJob();
+        interrupted.setId("job-1");
+        interrupted.setRequest(request("arn-1", "arn-2", "arn-3", "arn-4", "arn-5"));
+        interrupted.setState(JobState.RUNNING);
+        interrupted.setArnsPerChunk(2);
+        interrupted.setTotalChunks(3);
+        interrupted.setCreatedAt(Instant.now());
+        interrupted.setUpdatedAt(Instant.now());
+        store.saveJob(interrupted);
+        store.saveChunk("job-1", 1, provider.collect(request("arn-3", "arn-4"), null));
+        chunksCollected.set(0);
+
+        service = new CollectionJobService(config, provider, storageClient, objectMapper);
+        service.resumeUnfinishedJobs();
+        CollectionJob job = service.getJob("job-1").orElseThrow();
+        awaitCompletion(job);
+
+        assertThat(chunksCollected.get()).isEqualTo(2);
+        assertThat(job.getCompletedChunks()).isEqualTo(3);
+        assertThat(service.getResults(job)).hasSize(10);
+    }
+
+    private static CollectRequest request(String... arns) {
+        CollectRequest request = new CollectRequest();
+        request.setApplicationId("app");
+        request.setPlatformName("aws-test");
+        request.setResourceArns(List.of(arns));
+        request.setRuleSetFields(List.of("Rule A", "Rule B"));
+        return request;
+    }
+
+    private static void awaitCompletion(CollectionJob job) throws InterruptedException {
+        for (int i = 0; i < 100 && job.getState() != JobState.COMPLETED; i++) {
+            Thread.sleep(50);
+        }
+        assertThat(job.getState()).isEqualTo(JobState.COMPLETED);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.config.CollectionTarget;
+import com.example.complianceapi.config.ComplianceCollectorConfig;
+import com.example.complianceapi.config.PlatformConfig;
+import com.example.complianceapi.config.PlatformInstanceConfig;
+import com.example.complianceapi.dto.CollectRequest;
+import com.example.complianceapi.model.ComplianceStatus;
+import com.example.complianceapi.model.Evidence;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CollectionSchedulerTest {
+
+    // Rotation status per key; tests flip entries between runs.
+    private final Map<String, Boolean> rotationEnabled = new LinkedHashMap<>();
+    private final List<Evidence> stored = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    void onlyChangedEvidenceIsForwardedToStorage() throws InterruptedException {
+        rotationEnabled.put("arn:key/1", true);
+        rotationEnabled.put("arn:key/2", true);
+        rotationEnabled.put("arn:key/3", false);
+
+        ComplianceCollectorConfig config = config();
+        EvidenceStorageClient storageClient = new EvidenceStorageClient(config, stored::addAll, new SimpleMeterRegistry());
+        CollectionScheduler scheduler = new CollectionScheduler(config, new FakeProvider(), storageClient, new ObjectMapper());
+        CollectionTarget target = target();
+
+        assertThat(scheduler.run(target)).isEqualTo(3);
+        assertThat(scheduler.run(target)).isEqualTo(0);
+        rotationEnabled.put("arn:key/3", true);
+        assertThat(scheduler.run(target)).isEqualTo(1);
+        rotationEnabled.remove("arn:key/2");
+        rotationEnabled.put("arn:key/4", true);
+        assertThat(scheduler.run(target)).isEqualTo(1);
+
+        storageClient.destroy();
+        assertThat(stored).hasSize(5);
+        assertThat(stored.get(3).getResourceId()).isEqualTo("arn:key/3");
+        assertThat(stored.get(4).getResourceId()).isEqualTo("arn:key/4");
+    }
+
+    @Test
+    void aPersistingErrorIsOnlyForwardedOnceWhateverItsRequestId() {
+        EvidenceFingerprints fingerprints = new EvidenceFingerprints(new ObjectMapper());
+
+        assertThat(fingerprints.changed(List.of(error("Access denied (Request ID: 1f2e)")))).hasSize(1);
+        assertThat(fingerprints.changed(List.of(error("Access denied (Request ID: 9a8b)")))).isEmpty();
+        assertThat(fingerprints.changed(List.of(new Evidence("app", "Security", "Key Rotation Max", "AWS", "aws-test", "arn:key/1",
+                Map.of("keyRotationEnabled", true), ComplianceStatus.COMPLIANT)))).hasSize(1);
+    }
+
+    private static Evidence error(String message) {
+        return new Evidence("app", "Security", "Key Rotation Max", "AWS", "aws-test", "arn:key/1", Map.of("error", message),
+                ComplianceStatus.ERROR);
+    }
+
+    private ComplianceCollectorConfig config() {
+        PlatformInstanceConfig instance = new PlatformInstanceConfig();
+        instance.setName("aws-test");
+        PlatformConfig platforms = new PlatformConfig();
+        platforms.setInstances(Map.of("aws", List.of(instance)));
+        ComplianceCollectorConfig config = new ComplianceCollectorConfig();
+        config.setPlatforms(platforms);
+        return config;
+    }
+
+    private CollectionTarget target() {
+        CollectionTarget target = new CollectionTarget();
+        target.setName("kms-hourly");
+        target.setApplicationId("app");
+        target.setPlatformName("aws-test");
+        target.setRuleSetFields(List.of("Key Rotation Max"));
+        return target;
+    }
+
+    private class FakeProvider implements EvidenceProvider {
+        @Override
+        public List<Evidence> collect(CollectRequest request, PlatformInstanceConfig instanceConfig) {
+            List<Evidence> evidence = new ArrayList<>();
+            rotationEnabled.forEach((arn, enabled) -> {
+                Map<String, Object> data = new HashMap<>();
+                data.put("keyRotationEnabled", enabled);
+                data.put("keyId", arn);
+                evidence.add(new Evidence(request.getApplicationId(), "Security", "Key Rotation Max", "AWS", "kms in aws-test",
+                        arn, data, enabled ? ComplianceStatus.COMPLIANT : ComplianceStatus.NON_COMPLIANT));
+            });
+            return evidence;
+        }
+
+        @Override
+        public String getPlatformName() {
+            return "generic";
+        }
+    }
+}
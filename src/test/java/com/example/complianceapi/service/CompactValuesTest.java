@@ -0,0 +1,35 @@
+package com.example.complianceapi.service;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.s3.model.ServerSideEncryption;
+import software.amazon.awssdk.services.s3.model.ServerSideEncryptionByDefault;
+import software.amazon.awssdk.services.s3.model.ServerSideEncryptionConfiguration;
+import software.amazon.awssdk.services.s3.model.ServerSideEncryptionRule;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactValuesTest {
+
+    @Test
+    void sdkModelsBecomeMapsOfTheirSetFields() {
+        ServerSideEncryptionConfiguration configuration = ServerSideEncryptionConfiguration.builder()
+                .rules(ServerSideEncryptionRule.builder()
+                        .applyServerSideEncryptionByDefault(ServerSideEncryptionByDefault.builder().sseAlgorithm(ServerSideEncryption.AES256).build())
+                        .build())
+                .build();
+
+        assertThat(CompactValues.compact(configuration))
+                .isEqualTo(Map.of("Rules", List.of(Map.of("ApplyServerSideEncryptionByDefault", Map.of("SSEAlgorithm", "AES256")))));
+    }
+
+    @Test
+    void scalarsAndEnumsAreKeptAndCollectionsAreCopied() {
+        assertThat(CompactValues.compact(ServerSideEncryption.AES256)).isSameAs(ServerSideEncryption.AES256);
+        assertThat(CompactValues.compact(42)).isEqualTo(42);
+        assertThat(CompactValues.compact(Map.of("rules", List.of(ServerSideEncryptionRule.builder().bucketKeyEnabled(true).build()))))
+                .isEqualTo(Map.of("rules", List.of(Map.of("BucketKeyEnabled", true))));
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.model.ComplianceStatus;
+import com.example.complianceapi.model.Evidence;
+import com.example.complianceapi.rules.Assessment;
+import com.example.complianceapi.rules.ComplianceCondition;
+import com.example.complianceapi.rules.Rule;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompiledAssessmentTest {
+
+    @Test
+    void ruleWithoutAssessmentIsNotAssessed() {
+        assertThat(CompiledAssessment.compile(new Rule()).assess("anything")).isEqualTo(ComplianceStatus.NOT_ASSESSED);
+    }
+
+    @Test
+    void equalsComparesNumbersByValueAndOtherValuesByStringForm() {
+        CompiledAssessment numeric = compile(condition -> condition.setEquals(3));
+        assertThat(numeric.assess(3L)).isEqualTo(ComplianceStatus.COMPLIANT);
+        assertThat(numeric.assess(3.0)).isEqualTo(ComplianceStatus.COMPLIANT);
+        assertThat(numeric.assess(2)).isEqualTo(ComplianceStatus.NON_COMPLIANT);
+
+        CompiledAssessment text = compile(condition -> condition.setEquals("AES256"));
+        assertThat(text.assess(Algorithm.AES256)).isEqualTo(ComplianceStatus.COMPLIANT);
+        assertThat(text.assess(null)).isEqualTo(ComplianceStatus.NON_COMPLIANT);
+    }
+
+    @Test
+    void booleanAndContainsConditions() {
+        assertThat(compile(condition -> condition.setIsTrue(true)).assess(Boolean.TRUE)).isEqualTo(ComplianceStatus.COMPLIANT);
+        assertThat(compile(condition -> condition.setIsTrue(true)).assess(Boolean.FALSE)).isEqualTo(ComplianceStatus.NON_COMPLIANT);
+        assertThat(compile(condition -> condition.setIsFalse(true)).assess("false")).isEqualTo(ComplianceStatus.COMPLIANT);
+
+        CompiledAssessment contains = compile(condition -> condition.setContains("ReadOnlyAccess"));
+        assertThat(contains.assess(List.of("AdministratorAccess", "ReadOnlyAccess"))).isEqualTo(ComplianceStatus.COMPLIANT);
+        assertThat(contains.assess("arn:aws:iam::aws:policy/ReadOnlyAccess")).isEqualTo(ComplianceStatus.COMPLIANT);
+        assertThat(contains.assess(List.of("AdministratorAccess"))).isEqualTo(ComplianceStatus.NON_COMPLIANT);
+    }
+
+    @Test
+    void numericComparisons() {
+        CompiledAssessment atLeastThree = compile(condition -> condition.setGreaterThanOrEquals(3.0));
+        assertThat(atLeastThree.assess(3)).isEqualTo(ComplianceStatus.COMPLIANT);
+        assertThat(atLeastThree.assess(5)).isEqualTo(ComplianceStatus.COMPLIANT);
+        assertThat(atLeastThree.assess(2)).isEqualTo(ComplianceStatus.NON_COMPLIANT);
+        assertThat(atLeastThree.assess("not a number")).isEqualTo(ComplianceStatus.NON_COMPLIANT);
+
+        assertThat(compile(condition -> condition.setLessThan(90.0)).assess("30")).isEqualTo(ComplianceStatus.COMPLIANT);
+    }
+
+    @Test
+    void assessAllKeepsExistingStatuses() {
+        CompiledAssessment assessment = compile(condition -> condition.setIsTrue(true));
+        Evidence compliant = evidence(true, null);
+        Evidence nonCompliant = evidence(false, null);
+        Evidence failed = evidence(null, ComplianceStatus.ERROR);
+
+        assessment.assessAll(List.of(compliant, nonCompliant, failed));
+
+        assertThat(compliant.getComplianceStatus()).isEqualTo(ComplianceStatus.COMPLIANT);
+        assertThat(nonCompliant.getComplianceStatus()).isEqualTo(ComplianceStatus.NON_COMPLIANT);
+        assertThat(failed.getComplianceStatus()).isEqualTo(ComplianceStatus.ERROR);
+    }
+
+    @Test
+    void rejectsMoreThanOneCondition() {
+        assertThatThrownBy(() -> compile(condition -> {
+            condition.setIsTrue(true);
+            condition.setEquals("x");
+        })).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("exactly one condition");
+    }
+
+    private static CompiledAssessment compile(Consumer<ComplianceCondition> conditionSetup) {
+        ComplianceCondition condition = new ComplianceCondition();
+        conditionSetup.accept(condition);
+        Assessment assessment = new Assessment();
+        assessment.setCompliantWhen(condition);
+        Rule rule = new Rule();
+        rule.setId("test-rule");
+        rule.setAssessment(assessment);
+        return CompiledAssessment.compile(rule);
+    }
+
+    private static Evidence evidence(Object data, ComplianceStatus status) {
+        return new Evidence("app", "Security", "Rule", "AWS", "test", "arn:test", data, status);
+    }
+
+    private enum Algorithm { AES256 }
+}
@@ -0,0 +1,176 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.config.ComplianceCollectorConfig;
+import com.example.complianceapi.rules.Collection;
+import com.example.complianceapi.rules.Rule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EvidenceCacheTest {
+
+    private final Rule rule = rule("kms-rotation", null);
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @Test
+    void repeatedLookupsAreServedFromTheCacheUnlessRefreshed() throws Exception {
+        EvidenceCache cache = cache(new ComplianceCollectorConfig());
+
+        assertThat(cache.get("aws-prod", rule, "arn:key/1", null, false, deadline(), this::load)).isEqualTo(1);
+        assertThat(cache.get("aws-prod", rule, "arn:key/1", null, false, deadline(), this::load)).isEqualTo(1);
+        assertThat(cache.get("aws-dev", rule, "arn:key/1", null, false, deadline(), this::load)).isEqualTo(2);
+        assertThat(cache.get("aws-prod", rule, "arn:key/1", null, true, deadline(), this::load)).isEqualTo(3);
+        assertThat(cache.get("aws-prod", rule, "arn:key/1", null, false, deadline(), this::load)).isEqualTo(3);
+        assertThat(cache.getHits()).isEqualTo(2L);
+        assertThat(cache.getMisses()).isEqualTo(3L);
+    }
+
+    @Test
+    void concurrentLookupsShareOneUpstreamCall() throws Exception {
+        EvidenceCache cache = cache(new ComplianceCollectorConfig());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Object> first = CompletableFuture.supplyAsync(() -> uncheckedGet(cache, () -> {
+            started.countDown();
+            release.await();
+            return load();
+        }));
+        started.await();
+        CompletableFuture<Object> second = CompletableFuture.supplyAsync(() -> uncheckedGet(cache, this::load));
+        Thread.sleep(50);
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+        assertThat(cache.getCoalesced()).isEqualTo(1L);
+    }
+
+    @Test
+    void asyncLookupsShareTheEntryWithBlockingLookups() throws Exception {
+        EvidenceCache cache = cache(new ComplianceCollectorConfig());
+        CompletableFuture<Object> upstream = new CompletableFuture<>();
+
+        CompletableFuture<Object> first = cache.getAsync("aws-prod", rule, "arn:key/1", null, false, () -> upstream);
+        CompletableFuture<Object> second = cache.getAsync("aws-prod", rule, "arn:key/1", null, false, () -> upstream);
+        second.cancel(true);
+        assertThat(first.isDone()).isFalse();
+        upstream.complete(load());
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(cache.get("aws-prod", rule, "arn:key/1", null, false, deadline(), this::load)).isEqualTo(1);
+        assertThat(cache.getCoalesced()).isEqualTo(1L);
+        assertThat(cache.getHits()).isEqualTo(1L);
+
+        CompletableFuture<Object> failed = cache.getAsync("aws-prod", rule, "arn:key/2", null, false,
+                () -> CompletableFuture.failedFuture(new IllegalStateException("throttled")));
+        assertThatThrownBy(() -> failed.get(5, TimeUnit.SECONDS)).hasMessageContaining("throttled");
+        assertThat(cache.get("aws-prod", rule, "arn:key/2", null, false, deadline(), this::load)).isEqualTo(2);
+    }
+
+    @Test
+    void failuresAreNotCachedAndTheLeastRecentlyUsedEntryIsEvicted() throws Exception {
+        ComplianceCollectorConfig config = new ComplianceCollectorConfig();
+        config.getCache().setMaxEntries(2);
+        EvidenceCache cache = cache(config);
+
+        assertThatThrownBy(() -> cache.get("aws-prod", rule, "arn:key/1", null, false, deadline(), () -> {
+            throw new IllegalStateException("throttled");
+        })).hasMessageContaining("throttled");
+        assertThat(cache.get("aws-prod", rule, "arn:key/1", null, false, deadline(), this::load)).isEqualTo(1);
+
+        cache.get("aws-prod", rule, "arn:key/2", null, false, deadline(), this::load);
+        cache.get("aws-prod", rule, "arn:key/1", null, false, deadline(), this::load);
+        cache.get("aws-prod", rule, "arn:key/3", null, false, deadline(), this::load);
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("aws-prod", rule, "arn:key/1", null, false, deadline(), this::load)).isEqualTo(1);
+        assertThat(cache.get("aws-prod", rule, "arn:key/2", null, false, deadline(), this::load)).isEqualTo(4);
+    }
+
+    @Test
+    void aLoaderThrowingAnErrorDoesNotLeaveTheKeyLoading() throws Exception {
+        EvidenceCache cache = cache(new ComplianceCollectorConfig());
+
+        assertThatThrownBy(() -> cache.get("aws-prod", rule, "arn:key/1", null, false, deadline(), () -> {
+            throw new NoClassDefFoundError("software/amazon/awssdk/services/kms/model/GetKeyRotationStatusRequest");
+        })).isInstanceOf(NoClassDefFoundError.class);
+
+        assertThat(cache.get("aws-prod", rule, "arn:key/1", null, false, deadline(), this::load)).isEqualTo(1);
+    }
+
+    @Test
+    void aCoalescedLookupGivesUpAtItsOwnDeadline() throws Exception {
+        EvidenceCache cache = cache(new ComplianceCollectorConfig());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> slow = CompletableFuture.supplyAsync(() -> uncheckedGet(cache, () -> {
+            started.countDown();
+            release.await();
+            return load();
+        }));
+        started.await();
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> cache.get("aws-prod", rule, "arn:key/1", null, false,
+                System.nanoTime() + Duration.ofMillis(100).toNanos(), this::load)).isInstanceOf(TimeoutException.class);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1000L);
+
+        release.countDown();
+        assertThat(slow.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void zeroTtlDisablesCachingAndChangedRuleDefinitionsAreNotServedStale() throws Exception {
+        EvidenceCache cache = cache(new ComplianceCollectorConfig());
+        cache.get("aws-prod", rule, "arn:key/1", Duration.ZERO, false, deadline(), this::load);
+        cache.get("aws-prod", rule, "arn:key/1", Duration.ZERO, false, deadline(), this::load);
+        assertThat(upstreamCalls.get()).isEqualTo(2);
+
+        cache.get("aws-prod", rule, "arn:key/1", null, false, deadline(), this::load);
+        assertThat(cache.get("aws-prod", rule("kms-rotation", null), "arn:key/1", null, false, deadline(), this::load)).isEqualTo(3);
+        Rule reloaded = rule("kms-rotation", null);
+        reloaded.setDescription("changed");
+        assertThat(cache.get("aws-prod", reloaded, "arn:key/1", null, false, deadline(), this::load)).isEqualTo(4);
+    }
+
+    private Object load() {
+        return upstreamCalls.incrementAndGet();
+    }
+
+    private static Object uncheckedGet(EvidenceCache cache, EvidenceCache.Loader loader) {
+        try {
+            return cache.get("aws-prod", rule("kms-rotation", null), "arn:key/1", null, false, deadline(), loader);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long deadline() {
+        return System.nanoTime() + Duration.ofSeconds(30).toNanos();
+    }
+
+    private static EvidenceCache cache(ComplianceCollectorConfig config) {
+        return new EvidenceCache(config, new SimpleMeterRegistry());
+    }
+
+    private static Rule rule(String id, String cacheTtl) {
+        Collection collection = new Collection();
+        collection.setCacheTtl(cacheTtl);
+        Rule rule = new Rule();
+        rule.setId(id);
+        rule.setName(id);
+        rule.setCollection(collection);
+        return rule;
+    }
+}
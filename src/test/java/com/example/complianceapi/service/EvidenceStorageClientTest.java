@@ -0,0 +1,146 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.config.ComplianceCollectorConfig;
+import com.example.complianceapi.config.StorageConfig;
+import com.example.complianceapi.model.Evidence;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EvidenceStorageClientTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Integer> receivedBatchSizes = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger failuresToReturn = new AtomicInteger();
+    private HttpServer storageApi;
+    private EvidenceStorageClient client;
+
+    @BeforeEach
+    void startStorageStub() throws IOException {
+        storageApi = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        storageApi.createContext("/evidence", this::receive);
+        storageApi.start();
+    }
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        if (client != null) {
+            client.destroy();
+        }
+        storageApi.stop(0);
+    }
+
+    @Test
+    void evidenceIsPostedInBatchesAndRetriedOnServerErrors() throws InterruptedException {
+        failuresToReturn.set(1);
+        StorageConfig config = config();
+        config.getHttp().setUrl("http://localhost:" + storageApi.getAddress().getPort() + "/evidence");
+        client = new EvidenceStorageClient(collectorConfig(config), new HttpEvidenceSink(RestClient.builder(), config.getHttp()),
+                new SimpleMeterRegistry());
+
+        client.storeEvidence(evidence(5));
+        client.destroy();
+
+        assertThat(client.getStoredCount()).isEqualTo(5L);
+        assertThat(client.getFailedCount()).isZero();
+        assertThat(receivedBatchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(5);
+        assertThat(receivedBatchSizes.stream().allMatch(size -> size <= 2)).isTrue();
+    }
+
+    @Test
+    void fullQueueRejectsOrDropsNewEvidence() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        EvidenceSink stuckSink = batch -> release.await();
+
+        StorageConfig rejecting = config();
+        rejecting.setOverflowPolicy(StorageConfig.OverflowPolicy.REJECT);
+        client = new EvidenceStorageClient(collectorConfig(rejecting), stuckSink, new SimpleMeterRegistry());
+        // One batch in the flush thread, one held by the dispatcher, four in the queue.
+        assertThatThrownBy(() -> {
+            for (int i = 0; i < 10; i++) {
+                client.storeEvidence(evidence(1));
+                Thread.sleep(20);
+            }
+        }).isInstanceOf(EvidenceQueueFullException.class);
+        release.countDown();
+        client.destroy();
+
+        CountDownLatch releaseDropping = new CountDownLatch(1);
+        StorageConfig dropping = config();
+        dropping.setOverflowPolicy(StorageConfig.OverflowPolicy.DROP);
+        client = new EvidenceStorageClient(collectorConfig(dropping), batch -> releaseDropping.await(), new SimpleMeterRegistry());
+        client.storeEvidence(evidence(20));
+        assertThat(client.getDroppedCount() > 0).isTrue();
+        releaseDropping.countDown();
+    }
+
+    @Test
+    void offeringEvidenceNeverWaitsOrFailsAndReportsWhatDidNotFit() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        StorageConfig blocking = config();
+        blocking.setOfferTimeout(Duration.ofSeconds(10));
+        client = new EvidenceStorageClient(collectorConfig(blocking), batch -> release.await(), new SimpleMeterRegistry());
+
+        long start = System.nanoTime();
+        int notStored = client.offerEvidence(evidence(20));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start).toMillis()).isLessThan(1000L);
+        assertThat(notStored).isGreaterThan(0);
+        assertThat(client.getDroppedCount()).isEqualTo((long) notStored);
+        release.countDown();
+    }
+
+    private void receive(HttpExchange exchange) throws IOException {
+        List<?> batch = objectMapper.readValue(exchange.getRequestBody(), List.class);
+        if (failuresToReturn.getAndDecrement() > 0) {
+            exchange.sendResponseHeaders(500, -1);
+        } else {
+            receivedBatchSizes.add(batch.size());
+            exchange.sendResponseHeaders(204, -1);
+        }
+        exchange.close();
+    }
+
+    private static StorageConfig config() {
+        StorageConfig config = new StorageConfig();
+        config.setQueueCapacity(4);
+        config.setBatchSize(2);
+        config.setFlushInterval(Duration.ofMillis(50));
+        config.setFlushThreads(1);
+        config.setInitialBackoff(Duration.ofMillis(10));
+        config.setOfferTimeout(Duration.ofMillis(50));
+        config.setShutdownTimeout(Duration.ofSeconds(5));
+        return config;
+    }
+
+    private static ComplianceCollectorConfig collectorConfig(StorageConfig storage) {
+        ComplianceCollectorConfig config = new ComplianceCollectorConfig();
+        config.setStorage(storage);
+        return config;
+    }
+
+    private static List<Evidence> evidence(int count) {
+        List<Evidence> evidence = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            evidence.add(new Evidence("app-" + i, "Security", "Field", "aws", "kms in aws-test", "arn:" + i, "value", null));
+        }
+        return evidence;
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.config.ComplianceCollectorConfig;
+import com.example.complianceapi.config.PlatformConfig;
+import com.example.complianceapi.config.PlatformInstanceConfig;
+import com.example.complianceapi.dto.CollectRequest;
+import com.example.complianceapi.model.ComplianceStatus;
+import com.example.complianceapi.model.Evidence;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FanOutCollectorTest {
+
+    private static final String PROD_KEY = "arn:aws:kms:us-east-1:111111111111:key/1";
+    private static final String DEV_SECRET = "arn:aws:secretsmanager:eu-west-2:222222222222:secret:db";
+    private static final String EKS_DEPLOYMENT = "eks-prod:apps/v1/Deployment/payments/api";
+
+    private final ComplianceCollectorConfig config = new ComplianceCollectorConfig();
+    private final AwsPlatformHandler awsHandler = new AwsPlatformHandler(config);
+    private FanOutCollector fanOutCollector;
+    private final CountDownLatch slowInstance = new CountDownLatch(1);
+    private final Map<String, List<String>> collected = new LinkedHashMap<>();
+    private final EvidenceProvider provider = new EvidenceProvider() {
+        @Override
+        public List<Evidence> collect(CollectRequest request, PlatformInstanceConfig instanceConfig) {
+            if (instanceConfig.getName().equals("dev-cluster-k3s")) {
+                throw new IllegalStateException("kubeconfig not found");
+            }
+            if (instanceConfig.getName().equals("prod-cluster-eks")) {
+                await(slowInstance);
+            }
+            synchronized (collected) {
+                collected.put(instanceConfig.getName(), request.getResourceArns());
+            }
+            List<Evidence> evidence = new ArrayList<>();
+            for (String identifier : request.getResourceArns()) {
+                evidence.add(new Evidence(request.getApplicationId(), "Security", "Rule A", "AWS", instanceConfig.getName(), identifier, true, null));
+            }
+            return evidence;
+        }
+
+        @Override
+        public String getPlatformName() {
+            return "generic";
+        }
+    };
+
+    FanOutCollectorTest() {
+        Map<String, List<PlatformInstanceConfig>> instances = new LinkedHashMap<>();
+        instances.put("aws", List.of(
+                instance("aws-production-account", Map.of("region", "us-east-1", "accountId", "111111111111")),
+                instance("aws-development-account", Map.of("region", "eu-west-2", "accountId", "222222222222"))));
+        instances.put("kubernetes", List.of(
+                instance("prod-cluster-eks", Map.of("context", "eks-prod")),
+                instance("dev-cluster-k3s", Map.of("context", "default"))));
+        instances.put("vmware", List.of(instance("vcenter-main-dc", Map.of())));
+        PlatformConfig platforms = new PlatformConfig();
+        platforms.setInstances(instances);
+        config.setPlatforms(platforms);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fanOutCollector.destroy();
+        awsHandler.destroy();
+    }
+
+    @Test
+    void identifiersAreRoutedToTheInstanceTheyName() {
+        slowInstance.countDown();
+        List<Evidence> evidence = fanOut().collect(request(DEV_SECRET, PROD_KEY, EKS_DEPLOYMENT, "dev-cluster-k3s:v1/Pod/web/web-0",
+                "arn:aws:kms:us-east-1:999999999999:key/9", "arn:aws:s3:::audit-logs"));
+
+        assertThat(collected.get("aws-production-account")).containsExactly(PROD_KEY);
+        assertThat(collected.get("aws-development-account")).containsExactly(DEV_SECRET);
+        assertThat(collected.get("prod-cluster-eks")).containsExactly(EKS_DEPLOYMENT);
+        assertThat(evidence).hasSize(6);
+        assertThat(evidence.get(0).getDataSource()).isEqualTo("aws-production-account");
+        assertThat(evidence.get(3).getDataSource()).isEqualTo("Error collecting from dev-cluster-k3s");
+        assertThat(evidence.get(3).getPlatform()).isEqualTo("KUBERNETES");
+        assertThat(evidence.get(4).getCollectedData())
+                .isEqualTo(Map.of("error", "No platform instance serves arn:aws:kms:us-east-1:999999999999:key/9"));
+        assertThat(evidence.get(5).getComplianceStatus()).isEqualTo(ComplianceStatus.ERROR);
+        assertThat(evidence.get(5).getCollectedData()).isEqualTo(Map.of("error",
+                "Identifier arn:aws:s3:::audit-logs matches more than one instance: aws-production-account, aws-development-account"));
+    }
+
+    @Test
+    void aSlowInstanceDoesNotHoldBackTheOthersWhenStreaming() {
+        List<String> streamed = new ArrayList<>();
+        CollectRequest request = request(EKS_DEPLOYMENT, PROD_KEY, DEV_SECRET);
+        request.setPlatformNames(List.of("prod-cluster-eks", "aws-production-account", "aws-development-account"));
+
+        fanOut().collect(request, evidence -> {
+            streamed.add(evidence.getResourceId());
+            if (streamed.size() == 2) {
+                slowInstance.countDown();
+            }
+        });
+
+        assertThat(streamed).hasSize(3);
+        assertThat(streamed.get(2)).isEqualTo(EKS_DEPLOYMENT);
+    }
+
+    @Test
+    void unroutableIdentifiersAreReportedWhenNoRulesAreListed() {
+        slowInstance.countDown();
+        CollectRequest allRules = request(PROD_KEY, "arn:aws:kms:us-east-1:999999999999:key/9");
+        allRules.setRuleSetFields(null);
+        CollectRequest noRules = request(PROD_KEY, "arn:aws:kms:us-east-1:999999999999:key/9");
+        noRules.setRuleSetFields(List.of());
+
+        for (CollectRequest request : List.of(allRules, noRules)) {
+            List<Evidence> evidence = fanOut().collect(request);
+            fanOutCollector.destroy();
+
+            assertThat(evidence).hasSize(2);
+            assertThat(evidence.get(1).getResourceId()).isEqualTo("arn:aws:kms:us-east-1:999999999999:key/9");
+            assertThat(evidence.get(1).getComplianceStatus()).isEqualTo(ComplianceStatus.ERROR);
+            assertThat(evidence.get(1).getRuleSetField()).isNull();
+        }
+    }
+
+    @Test
+    void aFailingInstanceIsReportedPerIdentifierWhenNoRulesAreListed() {
+        CollectRequest request = request("dev-cluster-k3s:v1/Pod/web/web-0", "dev-cluster-k3s:v1/Pod/web/web-1");
+        request.setRuleSetFields(null);
+
+        List<Evidence> evidence = fanOut().collect(request);
+
+        assertThat(evidence).hasSize(2);
+        assertThat(evidence.get(0).getDataSource()).isEqualTo("Error collecting from dev-cluster-k3s");
+        assertThat(evidence.get(1).getCollectedData()).isEqualTo(Map.of("error", "Failed for instance dev-cluster-k3s: kubeconfig not found"));
+    }
+
+    private FanOutCollector fanOut() {
+        PlatformHandlerFactory handlers = new PlatformHandlerFactory(List.of(awsHandler, new KubernetesPlatformHandler()), config);
+        fanOutCollector = new FanOutCollector(config, handlers, provider);
+        return fanOutCollector;
+    }
+
+    private static CollectRequest request(String... identifiers) {
+        CollectRequest request = new CollectRequest();
+        request.setApplicationId("app");
+        request.setResourceArns(List.of(identifiers));
+        request.setRuleSetFields(List.of("Rule A"));
+        return request;
+    }
+
+    private static PlatformInstanceConfig instance(String name, Map<String, String> properties) {
+        PlatformInstanceConfig instance = new PlatformInstanceConfig();
+        instance.setName(name);
+        instance.setProperties(properties);
+        return instance;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.complianceapi.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.models.V1Deployment;
+import io.kubernetes.client.openapi.models.V1Endpoints;
+import io.kubernetes.client.util.ClientBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KubernetesObjectCacheTest {
+
+    private static final String DEPLOYMENT_LIST = """
+            {"apiVersion":"apps/v1","kind":"DeploymentList","metadata":{"resourceVersion":"100"},
+             "items":[{"metadata":{"name":"hello-world","namespace":"compliance-demo","resourceVersion":"99"},
+                       "spec":{"replicas":3}}]}
+            """;
+    private static final String APPS_V1_RESOURCES = """
+            {"kind":"APIResourceList","apiVersion":"v1","groupVersion":"apps/v1","resources":[
+              {"name":"deployments","singularName":"deployment","namespaced":true,"kind":"Deployment","verbs":["get","list","watch"]},
+              {"name":"deployments/scale","singularName":"","namespaced":true,"group":"autoscaling","version":"v1","kind":"Scale","verbs":["get"]}]}
+            """;
+    private static final String CORE_V1_RESOURCES = """
+            {"kind":"APIResourceList","groupVersion":"v1","resources":[
+              {"name":"endpoints","singularName":"endpoints","namespaced":true,"kind":"Endpoints","verbs":["get","list","watch"]}]}
+            """;
+    private static final String ENDPOINTS_LIST = """
+            {"apiVersion":"v1","kind":"EndpointsList","metadata":{"resourceVersion":"7"},
+             "items":[{"metadata":{"name":"hello-world","namespace":"compliance-demo","resourceVersion":"6"}}]}
+            """;
+
+    private final AtomicBoolean apiServerDown = new AtomicBoolean();
+    private final AtomicInteger directReads = new AtomicInteger();
+    private HttpServer apiServer;
+    private ExecutorService apiServerThreads;
+    private KubernetesObjectCache cache;
+
+    @BeforeEach
+    void startFakeApiServer() throws IOException {
+        apiServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        apiServerThreads = Executors.newCachedThreadPool();
+        apiServer.setExecutor(apiServerThreads);
+        apiServer.createContext("/apis/apps/v1", exchange -> respond(exchange, 200, APPS_V1_RESOURCES));
+        apiServer.createContext("/apis/apps/v1/deployments", exchange -> listOrWatch(exchange, DEPLOYMENT_LIST));
+        apiServer.createContext("/api/v1", exchange -> respond(exchange, 200, CORE_V1_RESOURCES));
+        apiServer.createContext("/api/v1/endpoints", exchange -> listOrWatch(exchange, ENDPOINTS_LIST));
+        apiServer.createContext("/apis/apps/v1/namespaces/", exchange -> {
+            directReads.incrementAndGet();
+            respond(exchange, 404, "{}");
+        });
+        apiServer.start();
+    }
+
+    @AfterEach
+    void stopFakeApiServer() {
+        if (cache != null) {
+            cache.close();
+        }
+        apiServer.stop(0);
+        apiServerThreads.shutdownNow();
+    }
+
+    @Test
+    void servesReadsFromTheInformerOnceSynced() throws Exception {
+        cache = new KubernetesObjectCache("test", apiClient(), Duration.ofMinutes(5), Duration.ofMinutes(5));
+
+        cache.get(V1Deployment.class, "apps/v1", "compliance-demo", "hello-world");
+        awaitSync(V1Deployment.class);
+
+        Object cached = cache.get(V1Deployment.class, "apps/v1", "compliance-demo", "hello-world");
+        assertThat(cached).isInstanceOf(V1Deployment.class);
+        assertThat(((V1Deployment) cached).getSpec().getReplicas()).isEqualTo(3);
+        // As a direct read returns it, although list items carry neither.
+        assertThat(((V1Deployment) cached).getApiVersion()).isEqualTo("apps/v1");
+        assertThat(((V1Deployment) cached).getKind()).isEqualTo("Deployment");
+        assertThat(cache.get(V1Deployment.class, "apps/v1", "compliance-demo", "missing")).isNull();
+        assertThat(directReads.get()).isZero();
+    }
+
+    @Test
+    void staysFreshWithoutEventsWhileTheWatchIsHealthy() throws Exception {
+        cache = new KubernetesObjectCache("test", apiClient(), Duration.ofMinutes(5), Duration.ofMillis(1));
+
+        cache.get(V1Deployment.class, "apps/v1", "compliance-demo", "hello-world");
+        awaitSync(V1Deployment.class);
+        Thread.sleep(50);
+
+        assertThat(cache.get(V1Deployment.class, "apps/v1", "compliance-demo", "hello-world")).isNotNull();
+    }
+
+    @Test
+    void fallsBackOnceListAndWatchHaveFailedForLongerThanTheStalenessBound() throws Exception {
+        cache = new KubernetesObjectCache("test", apiClient(), Duration.ofMinutes(5), Duration.ofMillis(200));
+        cache.get(V1Deployment.class, "apps/v1", "compliance-demo", "hello-world");
+        awaitSync(V1Deployment.class);
+
+        apiServerDown.set(true);
+        Thread.sleep(100);
+        assertThat(cache.get(V1Deployment.class, "apps/v1", "compliance-demo", "hello-world")).isNotNull();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (cache.get(V1Deployment.class, "apps/v1", "compliance-demo", "hello-world") != null && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(cache.get(V1Deployment.class, "apps/v1", "compliance-demo", "hello-world")).isNull();
+    }
+
+    @Test
+    void resolvesResourceNamesThroughDiscovery() throws Exception {
+        cache = new KubernetesObjectCache("test", apiClient(), Duration.ofMinutes(5), Duration.ofMinutes(5));
+
+        cache.get(V1Endpoints.class, "v1", "compliance-demo", "hello-world");
+        awaitSync(V1Endpoints.class);
+
+        Object cached = cache.get(V1Endpoints.class, "v1", "compliance-demo", "hello-world");
+        assertThat(cached).isInstanceOf(V1Endpoints.class);
+        assertThat(((V1Endpoints) cached).getKind()).isEqualTo("Endpoints");
+    }
+
+    private ApiClient apiClient() {
+        ApiClient client = new ClientBuilder().setBasePath("http://localhost:" + apiServer.getAddress().getPort()).build();
+        client.setReadTimeout(0);
+        return client;
+    }
+
+    private void awaitSync(Class<?> type) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!cache.hasSynced(type) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(cache.hasSynced(type)).isTrue();
+    }
+
+    private void listOrWatch(HttpExchange exchange, String list) throws IOException {
+        if (apiServerDown.get()) {
+            respond(exchange, 503, "{}");
+            return;
+        }
+        String query = exchange.getRequestURI().getQuery();
+        if (query != null && query.contains("watch=true")) {
+            // Keep the watch open without events until the server stops or goes down.
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, 0);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            try {
+                while (!apiServerDown.get() && System.nanoTime() < deadline) {
+                    Thread.sleep(20);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+            return;
+        }
+        respond(exchange, 200, list);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.rules.Collection;
+import com.example.complianceapi.rules.Rule;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.kubernetes.client.custom.IntOrString;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.apis.AppsV1Api;
+import io.kubernetes.client.openapi.models.V1Deployment;
+import io.kubernetes.client.openapi.models.V1DeploymentList;
+import io.kubernetes.client.openapi.models.V1DeploymentSpec;
+import io.kubernetes.client.openapi.models.V1DeploymentStrategy;
+import io.kubernetes.client.openapi.models.V1ListMeta;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1RollingUpdateDeployment;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KubernetesRuleExecutionPlanTest {
+
+    private final V1Deployment deployment = new V1Deployment()
+            .apiVersion("apps/v1")
+            .kind("Deployment")
+            .metadata(new V1ObjectMeta().name("web").namespace("prod").labels(Map.of("app", "web")))
+            .spec(new V1DeploymentSpec()
+                    .replicas(3)
+                    .strategy(new V1DeploymentStrategy()
+                            .type("RollingUpdate")
+                            .rollingUpdate(new V1RollingUpdateDeployment().maxSurge(new IntOrString("25%")))));
+
+    @Test
+    void scalarFieldIsReadFromTheTypedModel() {
+        assertThat(plan("spec.replicas", null).extractData(deployment)).isEqualTo(3);
+    }
+
+    @Test
+    void objectFieldsBecomeTreesUsingTheClientSerialization() {
+        Object strategy = plan("spec.strategy", null).extractData(deployment);
+        assertThat(strategy).isInstanceOf(JsonNode.class);
+        assertThat(((JsonNode) strategy).path("rollingUpdate").path("maxSurge").asText()).isEqualTo("25%");
+
+        JsonNode whole = (JsonNode) plan(".", null).extractData(deployment);
+        assertThat(whole.path("metadata").path("labels").path("app").asText()).isEqualTo("web");
+        assertThat(whole.path("spec").path("replicas").asInt()).isEqualTo(3);
+    }
+
+    @Test
+    void multipleFieldsAreKeyedByPath() {
+        Object data = plan(null, List.of("metadata.name", "spec.replicas")).extractData(deployment);
+        assertThat(data).isEqualTo(Map.of("metadata.name", "web", "spec.replicas", 3));
+    }
+
+    @Test
+    void selectorsArePagedThroughTheListCalls() throws Exception {
+        List<String> calls = new ArrayList<>();
+        AppsV1Api api = new AppsV1Api(new ApiClient()) {
+            @Override
+            public V1DeploymentList listNamespacedDeployment(String namespace, String pretty, Boolean allowWatchBookmarks, String _continue,
+                                                             String fieldSelector, String labelSelector, Integer limit, String resourceVersion,
+                                                             String resourceVersionMatch, Boolean sendInitialEvents, Integer timeoutSeconds,
+                                                             Boolean watch) {
+                calls.add(namespace + " " + _continue + " " + labelSelector + " " + limit);
+                V1Deployment item = new V1Deployment().metadata(new V1ObjectMeta().name(_continue == null ? "web" : "api").namespace(namespace));
+                return new V1DeploymentList().items(List.of(item)).metadata(new V1ListMeta()._continue(_continue == null ? "page-2" : ""));
+            }
+        };
+        SelectorPlan selectorPlan = plan(".", null).getSelectorPlan();
+        String selector = "eks-prod:apps/v1/Deployment/prod/*?app=web";
+
+        SelectorPlan.Page first = selectorPlan.list(api, selector, null, 100);
+        SelectorPlan.Page last = selectorPlan.list(api, selector, first.continueToken(), 100);
+
+        assertThat(calls).containsExactly("prod null app=web 100", "prod page-2 app=web 100");
+        assertThat(last.continueToken()).isNull();
+        assertThat(selectorPlan.identifierOf(selector, last.items().get(0))).isEqualTo("eks-prod:apps/v1/Deployment/prod/api");
+        assertThat(((JsonNode) selectorPlan.extractData(first.items().get(0))).path("kind").asText()).isEqualTo("Deployment");
+        assertThat(selectorPlan.matches(selector)).isTrue();
+        assertThat(selectorPlan.matches("apps/v1/StatefulSet/*/*")).isFalse();
+    }
+
+    @Test
+    void selectorIdentifiers() {
+        KubernetesPlatformHandler handler = new KubernetesPlatformHandler();
+        assertThat(handler.isSelector("apps/v1/Deployment/*/*?app.kubernetes.io/name=api")).isTrue();
+        assertThat(handler.isSelector("apps/v1/Deployment/prod/web")).isFalse();
+        assertThat(KubernetesPlatformHandler.parseIdentifierParts("v1/Pod/*/*?tier in (web,api)"))
+                .isEqualTo(Map.of("apiVersion", "v1", "kind", "Pod", "namespace", "*", "name", "*", "labelSelector", "tier in (web,api)"));
+        assertThatThrownBy(() -> KubernetesPlatformHandler.parseIdentifierParts("v1/Pod/*/web-0"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static KubernetesRuleExecutionPlan plan(String responseField, List<String> responseFields) {
+        Collection collection = new Collection();
+        collection.setApiCall("readNamespacedDeployment");
+        collection.setResponseField(responseField);
+        collection.setResponseFields(responseFields);
+        Rule rule = new Rule();
+        rule.setId("k8s-test");
+        rule.setPlatform("kubernetes");
+        rule.setService("apps/v1");
+        rule.setCollection(collection);
+        return KubernetesRuleExecutionPlan.compile(rule, AppsV1Api.class);
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.config.ComplianceCollectorConfig;
+import com.example.complianceapi.config.PlatformInstanceConfig;
+import com.example.complianceapi.rules.Rule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateGovernorTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final PlatformInstanceConfig instance = instance(Map.of("maxRate.kms", "20"));
+    private final ComplianceCollectorConfig config = new ComplianceCollectorConfig();
+    private final long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+
+    RateGovernorTest() {
+        config.getRateLimits().setInitialBackoff(Duration.ofMillis(1));
+        config.getRateLimits().setDecreaseCooldown(Duration.ZERO);
+    }
+
+    @Test
+    void throttledCallsAreRetriedAndLowerTheRate() throws Exception {
+        RateGovernor governor = new RateGovernor(config, new SimpleMeterRegistry());
+
+        Object result = governor.call(instance, "kms", "getKeyRotationStatus", new ThrottlingHandler(), deadline, () -> {
+            if (calls.incrementAndGet() <= 2) {
+                throw new ThrottledException();
+            }
+            return "ok";
+        });
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(calls.get()).isEqualTo(3);
+        // The 20/s instance cap halved twice, then one additive step of 1 / 5.
+        assertThat(governor.getRates()).containsEntry("aws-prod/kms/getKeyRotationStatus", 5.2);
+    }
+
+    @Test
+    void callsAreNotPacedUntilTheApiThrottlesThem() throws Exception {
+        RateGovernor governor = new RateGovernor(config, new SimpleMeterRegistry());
+        PlatformInstanceConfig uncapped = instance(Map.of());
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 200; i++) {
+            governor.call(uncapped, "kms", "getKeyRotationStatus", new ThrottlingHandler(), deadline, calls::incrementAndGet);
+        }
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1000L);
+        assertThat(Double.isInfinite(governor.getRates().get("aws-prod/kms/getKeyRotationStatus"))).isTrue();
+
+        governor.call(uncapped, "kms", "getKeyRotationStatus", new ThrottlingHandler(), deadline, () -> {
+            if (calls.incrementAndGet() == 201) {
+                throw new ThrottledException();
+            }
+            return "ok";
+        });
+        // From here on paced, at about half the rate the unpaced calls were made at.
+        double rate = governor.getRates().get("aws-prod/kms/getKeyRotationStatus");
+        assertThat(Double.isInfinite(rate)).isFalse();
+        assertThat(rate).isGreaterThan(config.getRateLimits().getMinRate());
+    }
+
+    @Test
+    void retriesStopWhenTheBackoffWouldPassTheDeadline() {
+        config.getRateLimits().setInitialBackoff(Duration.ofSeconds(2));
+        RateGovernor governor = new RateGovernor(config, new SimpleMeterRegistry());
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> governor.call(instance, "kms", "getKeyRotationStatus", new ThrottlingHandler(),
+                System.nanoTime() + Duration.ofMillis(500).toNanos(), () -> {
+                    calls.incrementAndGet();
+                    throw new ThrottledException();
+                })).isInstanceOf(ThrottledException.class);
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(500L);
+    }
+
+    @Test
+    void callsTurnedAwayAtTheDeadlineDoNotHoldBackLaterCalls() throws Exception {
+        RateGovernor governor = new RateGovernor(config, new SimpleMeterRegistry());
+        int rejected = 0;
+        // Far more demand than the 20/s cap, each caller allowing only 10ms.
+        for (int i = 0; i < 500; i++) {
+            try {
+                governor.call(instance, "kms", "getKeyRotationStatus", new ThrottlingHandler(),
+                        System.nanoTime() + Duration.ofMillis(10).toNanos(), calls::incrementAndGet);
+            } catch (TimeoutException e) {
+                rejected++;
+            }
+        }
+        assertThat(rejected).isGreaterThan(400);
+
+        // One token takes 50ms to refill, so a caller allowing 200ms gets through.
+        assertThat(governor.call(instance, "kms", "getKeyRotationStatus", new ThrottlingHandler(),
+                System.nanoTime() + Duration.ofMillis(200).toNanos(), () -> "ok")).isEqualTo("ok");
+    }
+
+    @Test
+    void nonRetryableErrorsFailImmediatelyAndSuccessesRaiseTheRateUpToTheInstanceCap() throws Exception {
+        RateGovernor governor = new RateGovernor(config, new SimpleMeterRegistry());
+
+        assertThatThrownBy(() -> governor.call(instance, "kms", "describeKey", new ThrottlingHandler(), deadline, () -> {
+            calls.incrementAndGet();
+            throw new IllegalArgumentException("access denied");
+        })).hasMessageContaining("access denied");
+        assertThat(calls.get()).isEqualTo(1);
+
+        config.getRateLimits().setBurst(1000);
+        config.getRateLimits().setAdditiveIncrease(50);
+        RateGovernor unthrottled = new RateGovernor(config, new SimpleMeterRegistry());
+        for (int i = 0; i < 50; i++) {
+            unthrottled.call(instance, "kms", "listKeys", new ThrottlingHandler(), deadline, () -> "ok");
+        }
+        assertThat(unthrottled.getRates()).containsEntry("aws-prod/kms/listKeys", 20.0);
+    }
+
+    @Test
+    void asyncCallsAreRetriedWithoutBlockingTheCaller() throws Exception {
+        RateGovernor governor = new RateGovernor(config, new SimpleMeterRegistry());
+
+        CompletableFuture<Object> result = governor.callAsync(instance, "kms", "getKeyRotationStatus", new ThrottlingHandler(), deadline,
+                () -> calls.incrementAndGet() <= 2
+                        ? CompletableFuture.failedFuture(new ThrottledException())
+                        : CompletableFuture.supplyAsync(() -> "ok"));
+
+        assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("ok");
+        assertThat(calls.get()).isEqualTo(3);
+        assertThat(governor.getRates()).containsEntry("aws-prod/kms/getKeyRotationStatus", 5.2);
+
+        CompletableFuture<Object> denied = governor.callAsync(instance, "kms", "describeKey", new ThrottlingHandler(), deadline,
+                () -> CompletableFuture.failedFuture(new IllegalArgumentException("access denied")));
+        assertThatThrownBy(() -> denied.get(5, TimeUnit.SECONDS)).hasMessageContaining("access denied");
+    }
+
+    private static PlatformInstanceConfig instance(Map<String, String> properties) {
+        PlatformInstanceConfig instance = new PlatformInstanceConfig();
+        instance.setName("aws-prod");
+        instance.setProperties(properties);
+        return instance;
+    }
+
+    private static class ThrottledException extends RuntimeException {
+    }
+
+    private static class ThrottlingHandler implements PlatformHandler {
+        @Override
+        public String getPlatformName() {
+            return "test";
+        }
+
+        @Override
+        public Object getClient(String service, PlatformInstanceConfig config, String identifier) {
+            return null;
+        }
+
+        @Override
+        public RuleExecutionPlan compileRule(Rule rule) {
+            return null;
+        }
+
+        @Override
+        public String parseServiceFromIdentifier(String resourceIdentifier) {
+            return null;
+        }
+
+        @Override
+        public boolean isThrottling(Throwable error) {
+            return error instanceof ThrottledException;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.rules.Rule;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RuleIndexTest {
+
+    private final RuleExecutionPlan kmsRotation = plan("aws-kms-key-rotation", "Key Rotation Max", "aws", "kms");
+    private final RuleExecutionPlan kmsPolicy = plan("aws-kms-key-policy", "Key Policy", "aws", "kms");
+    private final RuleExecutionPlan s3Encryption = plan("aws-s3-bucket-encryption", "S3 Bucket Encryption", "aws", "s3");
+    private final RuleExecutionPlan haTopology = plan("k8s-ha-topology", "HA Topology", "kubernetes", "apps/v1");
+    private final RuleIndex index = new RuleIndex(List.of(kmsRotation, kmsPolicy, s3Encryption, haTopology));
+
+    @Test
+    void requestedRulesAreGroupedByServiceAndResolvedByNameOrId() {
+        Map<String, List<RuleExecutionPlan>> selected = index.selectByService("aws",
+                List.of("S3 Bucket Encryption", "aws-kms-key-rotation", "Key Rotation Max", "HA Topology", "Unknown"));
+
+        assertThat(selected.get("s3")).containsExactly(s3Encryption);
+        assertThat(selected.get("kms")).containsExactly(kmsRotation);
+        assertThat(selected).hasSize(2);
+    }
+
+    @Test
+    void noRequestedRulesSelectsEveryRuleOfThePlatform() {
+        Map<String, List<RuleExecutionPlan>> selected = index.selectByService("aws", null);
+
+        assertThat(selected.get("kms")).containsExactly(kmsPolicy, kmsRotation);
+        assertThat(selected.get("s3")).containsExactly(s3Encryption);
+        assertThat(selected).hasSize(2);
+        assertThat(index.forService("kubernetes", "apps/v1")).containsExactly(haTopology);
+    }
+
+    private static RuleExecutionPlan plan(String id, String name, String platform, String service) {
+        Rule rule = new Rule();
+        rule.setId(id);
+        rule.setName(name);
+        rule.setPlatform(platform);
+        rule.setService(service);
+        return new RuleExecutionPlan() {
+            @Override
+            public Rule getRule() {
+                return rule;
+            }
+
+            @Override
+            public Object buildRequest(String resourceIdentifier) {
+                return resourceIdentifier;
+            }
+
+            @Override
+            public Object execute(Object client, Object request) {
+                return request;
+            }
+
+            @Override
+            public Object extractData(Object response) {
+                return response;
+            }
+        };
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.config.ComplianceCollectorConfig;
+import com.example.complianceapi.config.RulesConfig;
+import com.example.complianceapi.rules.Rule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RuleRegistryTest {
+
+    private final ComplianceCollectorConfig config = new ComplianceCollectorConfig();
+    // Fails to compile one rule with an unexpected exception, as a handler bug would.
+    private final PlatformHandlerFactory handlers = new PlatformHandlerFactory(List.of(new AwsPlatformHandler(config) {
+        @Override
+        public RuleExecutionPlan compileRule(Rule rule) {
+            if (rule.getName().equals("Broken Rotation")) {
+                throw new NullPointerException("collection");
+            }
+            return super.compileRule(rule);
+        }
+    }, new KubernetesPlatformHandler()), config);
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("rulesets");
+    }
+
+    @Test
+    void reloadSwapsInTheChangedRulesWithoutTouchingTheSnapshotInUse() throws IOException {
+        write("extra-ruleset.yml", kmsRule("extra-rotation", "Extra Rotation", "aws", "1m"));
+        RuleRegistry registry = registry();
+        RuleSnapshot before = registry.current();
+        assertThat(before.getIndex().find("Extra Rotation")).isNotNull();
+
+        write("extra-ruleset.yml", kmsRule("extra-rotation", "Extra Rotation", "aws", "2m")
+                + kmsRule("another-rotation", "Another Rotation", "aws", "1m"));
+
+        assertThat(registry.reload()).isTrue();
+        assertThat(registry.current()).isNotSameAs(before);
+        assertThat(registry.current().getIndex().find("another-rotation")).isNotNull();
+        assertThat(registry.current().cacheTtl(registry.current().getRules().get("Extra Rotation")).toMinutes()).isEqualTo(2);
+        assertThat(before.getIndex().find("another-rotation")).isNull();
+    }
+
+    @Test
+    void invalidChangesAreRejectedAndThePreviousRulesStayActive() throws IOException {
+        write("extra-ruleset.yml", kmsRule("extra-rotation", "Extra Rotation", "aws", "1m"));
+        RuleRegistry registry = registry();
+        RuleSnapshot before = registry.current();
+
+        write("extra-ruleset.yml", kmsRule("extra-rotation", "Extra Rotation", "azure", "1m"));
+        assertThat(registry.reload()).isFalse();
+        assertThat(registry.current()).isSameAs(before);
+
+        write("extra-ruleset.yml", kmsRule("extra-rotation", "Extra Rotation", "aws", "soon"));
+        assertThat(registry.reload()).isFalse();
+        assertThat(registry.current()).isSameAs(before);
+    }
+
+    @Test
+    void unexpectedCompileFailuresAreRejectedAndThePreviousRulesStayActive() throws IOException {
+        write("extra-ruleset.yml", kmsRule("extra-rotation", "Extra Rotation", "aws", "1m"));
+        RuleRegistry registry = registry();
+        RuleSnapshot before = registry.current();
+
+        write("extra-ruleset.yml", kmsRule("broken-rotation", "Broken Rotation", "aws", "1m"));
+        assertThat(registry.reload()).isFalse();
+        assertThat(registry.current()).isSameAs(before);
+    }
+
+    @Test
+    void directoryRulesOverrideBundledRulesOfTheSameName() throws IOException {
+        write("override-ruleset.yml", kmsRule("aws-kms-key-rotation", "Key Rotation Max", "aws", "7m"));
+
+        RuleSnapshot rules = registry().current();
+
+        assertThat(rules.cacheTtl(rules.getRules().get("Key Rotation Max")).toMinutes()).isEqualTo(7);
+        assertThat(rules.getIndex().find("aws-kms-key-rotation")).isNotNull();
+    }
+
+    @Test
+    void duplicateRulesFailTheStartupNamingBothFiles() throws IOException {
+        write("copy-ruleset.yml", kmsRule("aws-kms-key-rotation", "Copied Rotation", "aws", "1m"));
+
+        assertThatThrownBy(this::registry)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("copy-ruleset.yml")
+                .hasMessageContaining("rule id 'aws-kms-key-rotation' is already defined in")
+                .hasMessageContaining("aws-ruleset.yml");
+    }
+
+    @Test
+    void everyBundledRuleWarmsUpWithoutCallingItsPlatform() throws Exception {
+        RuleSnapshot rules = registry().current();
+
+        for (Rule rule : rules.getRules().values()) {
+            rules.getIndex().find(rule.getId()).warmUp();
+        }
+    }
+
+    private RuleRegistry registry() {
+        RulesConfig config = new RulesConfig();
+        config.setDirectory(directory.toString());
+        config.setWatch(false);
+        return new RuleRegistry(config, handlers);
+    }
+
+    private void write(String fileName, String rules) throws IOException {
+        Files.writeString(directory.resolve(fileName), "rules:\n" + rules);
+    }
+
+    private static String kmsRule(String id, String name, String platform, String cacheTtl) {
+        return """
+                  - id: "%s"
+                    name: "%s"
+                    platform: "%s"
+                    service: "kms"
+                    collection:
+                      apiCall: "getKeyRotationStatus"
+                      parameters:
+                        keyId: "${arn}"
+                      responseField: "keyRotationEnabled"
+                      cacheTtl: "%s"
+                """.formatted(id, name, platform, cacheTtl);
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.config.StorageConfig;
+import com.example.complianceapi.dto.StoredEvidence;
+import com.example.complianceapi.model.ComplianceStatus;
+import com.example.complianceapi.model.Evidence;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SegmentEvidenceStoreTest {
+
+    private static final String KEY = "arn:aws:kms:us-east-1:111111111111:key/1";
+    private static final String SECRET = "arn:aws:secretsmanager:us-east-1:111111111111:secret:db";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong clock = new AtomicLong(Duration.ofDays(1000).toMillis());
+    private final StorageConfig.Local config = new StorageConfig.Local();
+    private SegmentEvidenceStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        config.setDirectory(Files.createTempDirectory("evidence").toString());
+        config.setSegmentSize(DataSize.ofBytes(1));
+        config.setRetention(Duration.ofDays(30));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.destroy();
+    }
+
+    @Test
+    void latestAndHistoryAreAnsweredFromTheSegmentsAfterAReopen() throws IOException {
+        store = open();
+        store.write(List.of(evidence("app", "Key Rotation", KEY, false), evidence("app", "Secret Rotation", SECRET, true)));
+        clock.addAndGet(1000);
+        store.write(List.of(evidence("app", "Key Rotation", KEY, true), evidence("other-app", "Key Rotation", KEY, false)));
+        store.destroy();
+
+        store = open();
+        List<StoredEvidence> latest = store.latest("app", null, null);
+        assertThat(latest.stream().map(stored -> stored.getEvidence().getResourceId()).toList()).containsExactlyInAnyOrder(KEY, SECRET);
+        List<StoredEvidence> keyRotation = store.latest("app", "Key Rotation", KEY);
+        assertThat(keyRotation).hasSize(1);
+        assertThat(keyRotation.get(0).getEvidence().getComplianceStatus()).isEqualTo(ComplianceStatus.COMPLIANT);
+        assertThat(keyRotation.get(0).getEvidence().getCollectedData()).isEqualTo(Map.of("enabled", true));
+        assertThat(keyRotation.get(0).getStoredAt()).isEqualTo(Instant.ofEpochMilli(clock.get()));
+
+        assertThat(store.history(KEY, "Key Rotation", null, 10).stream()
+                .map(stored -> stored.getEvidence().getApplicationId() + ":" + stored.getEvidence().getComplianceStatus()).toList())
+                .containsExactlyInAnyOrder("app:COMPLIANT", "other-app:NON_COMPLIANT", "app:NON_COMPLIANT");
+        assertThat(store.history(KEY, null, Instant.ofEpochMilli(clock.get()), 10)).hasSize(2);
+        assertThat(store.history(KEY, null, null, 1)).hasSize(1);
+        assertThatThrownBy(() -> store.history(KEY, null, null, -1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void aBlockTornByACrashIsDroppedOnReopen() throws IOException {
+        store = open();
+        store.write(List.of(evidence("app", "Key Rotation", KEY, true)));
+        store.destroy();
+        Path segment = segments().get(segments().size() - 1);
+        Files.write(segment, new byte[]{0x45, 0x56, 0x42, 0x31, 0, 0, 1}, StandardOpenOption.APPEND);
+
+        store = open();
+        store.write(List.of(evidence("app", "Secret Rotation", SECRET, true)));
+
+        assertThat(store.latest("app", null, null)).hasSize(2);
+    }
+
+    @Test
+    void expiredSegmentsKeepOnlyTheLatestEvidencePerKey() throws IOException {
+        store = open();
+        store.write(List.of(evidence("app", "Key Rotation", KEY, false), evidence("app", "Secret Rotation", SECRET, false)));
+        store.write(List.of(evidence("app", "Key Rotation", KEY, true)));
+        clock.addAndGet(Duration.ofDays(31).toMillis());
+        store.write(List.of(evidence("app", "Key Rotation", KEY, false)));
+        assertThat(segments()).hasSize(3);
+
+        store.compact();
+
+        assertThat(segments()).hasSize(2);
+        List<StoredEvidence> secret = store.history(SECRET, null, null, 10);
+        assertThat(secret).hasSize(1);
+        assertThat(secret.get(0).getEvidence().getCollectedData()).isEqualTo(Map.of("enabled", false));
+        List<StoredEvidence> key = store.history(KEY, null, null, 10);
+        assertThat(key).hasSize(1);
+        assertThat(key.get(0).getEvidence().getComplianceStatus()).isEqualTo(ComplianceStatus.NON_COMPLIANT);
+
+        store.destroy();
+        store = open();
+        assertThat(store.latest("app", null, null)).hasSize(2);
+    }
+
+    @Test
+    void segmentsHoldingOnlyTheLatestEvidenceAreNotRewrittenAgain() throws IOException {
+        store = open();
+        store.write(List.of(evidence("app", "Key Rotation", KEY, false), evidence("app", "Secret Rotation", SECRET, false)));
+        store.write(List.of(evidence("app", "Key Rotation", KEY, true)));
+        clock.addAndGet(Duration.ofDays(31).toMillis());
+        store.write(List.of(evidence("app", "Key Rotation", KEY, false)));
+        store.compact();
+        Path compacted = segments().get(0);
+        Files.setLastModifiedTime(compacted, FileTime.fromMillis(0));
+
+        store.compact();
+
+        assertThat(segments()).hasSize(2);
+        assertThat(Files.getLastModifiedTime(compacted).toMillis()).isEqualTo(0L);
+        assertThat(store.history(SECRET, null, null, 10)).hasSize(1);
+    }
+
+    @Test
+    void smallExpiredSegmentsAreMergedIntoOne() throws IOException {
+        store = open();
+        store.write(List.of(evidence("app", "Key Rotation", KEY, true)));
+        store.write(List.of(evidence("app", "Secret Rotation", SECRET, true)));
+        store.write(List.of(evidence("other-app", "Key Rotation", KEY, false)));
+        clock.addAndGet(Duration.ofDays(31).toMillis());
+        store.write(List.of(evidence("other-app", "Secret Rotation", SECRET, false)));
+        assertThat(segments()).hasSize(4);
+        config.setSegmentSize(DataSize.ofMegabytes(1));
+
+        store.compact();
+
+        assertThat(segments()).hasSize(2);
+        assertThat(store.latest("app", null, null)).hasSize(2);
+        assertThat(store.latest("other-app", null, null)).hasSize(2);
+        store.destroy();
+        store = open();
+        assertThat(store.history(KEY, null, null, 10)).hasSize(2);
+        assertThat(store.history(SECRET, null, null, 10)).hasSize(2);
+    }
+
+    private SegmentEvidenceStore open() {
+        return new SegmentEvidenceStore(config, objectMapper, clock::get);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(config.getDirectory()))) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static Evidence evidence(String applicationId, String rule, String resourceId, boolean compliant) {
+        return new Evidence(applicationId, "Security", rule, "AWS", "aws-production-account", resourceId, Map.of("enabled", compliant),
+                compliant ? ComplianceStatus.COMPLIANT : ComplianceStatus.NON_COMPLIANT);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.complianceapi.service;
+
+import com.example.complianceapi.dto.SlowRule;
+import com.example.complianceapi.rules.Collection;
+import com.example.complianceapi.rules.Rule;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlowRuleWindowTest {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.MINUTES.toNanos(60));
+    private final SlowRuleWindow window = new SlowRuleWindow(Duration.ofMinutes(5), 5, now::get);
+    private final Rule rotation = rule("aws-kms-key-rotation", "getKeyRotationStatus");
+    private final Rule secrets = rule("aws-secret-metadata", "describeSecret");
+
+    @Test
+    void rulesAreRankedByMeanLatencyWithinTheWindow() {
+        window.record(rotation, millis(10), false);
+        window.record(rotation, millis(30), true);
+        window.record(secrets, millis(50), false);
+
+        List<SlowRule> slowest = window.slowest(10);
+
+        assertThat(slowest).hasSize(2);
+        assertThat(slowest.get(0).getRuleId()).isEqualTo("aws-secret-metadata");
+        assertThat(slowest.get(1).getApiCall()).isEqualTo("getKeyRotationStatus");
+        assertThat(slowest.get(1).getExecutions()).isEqualTo(2L);
+        assertThat(slowest.get(1).getErrors()).isEqualTo(1L);
+        assertThat(slowest.get(1).getMeanMillis()).isEqualTo(20.0);
+        assertThat(slowest.get(1).getMaxMillis()).isEqualTo(30.0);
+        assertThat(window.slowest(1)).hasSize(1);
+    }
+
+    @Test
+    void samplesOlderThanTheWindowAgeOut() {
+        window.record(secrets, millis(500), false);
+        now.addAndGet(TimeUnit.MINUTES.toNanos(3));
+        window.record(rotation, millis(10), false);
+        assertThat(window.slowest(10)).hasSize(2);
+
+        now.addAndGet(TimeUnit.MINUTES.toNanos(3));
+        List<SlowRule> slowest = window.slowest(10);
+        assertThat(slowest).hasSize(1);
+        assertThat(slowest.get(0).getRuleId()).isEqualTo("aws-kms-key-rotation");
+
+        // The slot reused for a new period starts empty.
+        now.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        window.record(rotation, millis(40), false);
+        assertThat(window.slowest(10).get(0).getExecutions()).isEqualTo(1L);
+        assertThat(window.slowest(10).get(0).getMeanMillis()).isEqualTo(40.0);
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    private static Rule rule(String id, String apiCall) {
+        Collection collection = new Collection();
+        collection.setApiCall(apiCall);
+        Rule rule = new Rule();
+        rule.setId(id);
+        rule.setName(id);
+        rule.setPlatform("aws");
+        rule.setService("kms");
+        rule.setCollection(collection);
+        return rule;
+    }
+}